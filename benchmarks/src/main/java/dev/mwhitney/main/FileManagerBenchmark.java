@@ -0,0 +1,124 @@
+package dev.mwhitney.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sk.mimac.fingerprint.adafruit.AdafruitSensorEmulator;
+
+/**
+ *
+ * Benchmarks the <tt>FileManager</tt>'s settings and fingerprint model files, with as many registered fingerprints as a lock may see.
+ * Every fingerprint has its settings entries and a model file of 512 bytes, made by the <tt>AdafruitSensorEmulator</tt>, as a registration leaves them.
+ *
+ * @author Matthew Whitney
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileManagerBenchmark {
+
+	/** An <code>int</code> for the number of registered fingerprints. */
+	@Param({"10", "50", "200"})
+	public int modelCount;
+
+	/** The <tt>Path</tt> of the temporary working directory the files are kept in. */
+	private Path directory;
+	/** The original working directory, restored once the benchmark is done. */
+	private String userDir;
+	/** The <tt>FileManager</tt> with every fingerprint stored. */
+	private FileManager fileManager;
+	/** A <tt>Map.Entry{@literal <Integer, byte[]>}</tt> with a newly registered fingerprint model. */
+	private Map.Entry<Integer, byte[]> newModel;
+	/** A <tt>Map{@literal <Integer, byte[]>}</tt> with every stored fingerprint model. */
+	private Map<Integer, byte[]> models;
+
+	@Setup
+	public void setUp() throws IOException {
+		//	The FileManager keeps its files under the working directory, so it is pointed at a temporary one.
+		directory = Files.createTempDirectory("ProjectONE-benchmark");
+		userDir = System.getProperty("user.dir");
+		System.setProperty("user.dir", directory.toString());
+
+		models = new HashMap<Integer, byte[]>();
+		for(int fingerID = 1; fingerID <= modelCount; fingerID++) {
+			models.put(fingerID, AdafruitSensorEmulator.fingerModel(fingerID));
+		}
+		fileManager = new FileManager();
+		fileManager.storeFingerprintModels(models);
+		newModel = new SimpleEntry<Integer, byte[]>(modelCount + 1, AdafruitSensorEmulator.fingerModel(modelCount + 1));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		System.setProperty("user.dir", userDir);
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	/**
+	 * Loading of the settings, as done once on start.
+	 */
+	@Benchmark
+	public FileManager loadSettings() {
+		return new FileManager();
+	}
+
+	/**
+	 * Writing of the settings, as done after any of them changes.
+	 */
+	@Benchmark
+	public void writeSettings() {
+		fileManager.writeSettings();
+	}
+
+	/**
+	 * Reading of every fingerprint model, as done when the models are synchronized with the sensor.
+	 */
+	@Benchmark
+	public Map<Integer, byte[]> retrieveFingerprintModels() {
+		return fileManager.retrieveFingerprintModels();
+	}
+
+	/**
+	 * Storing of one more fingerprint, as done after a registration.
+	 */
+	@Benchmark
+	public void storeFingerprintModel() {
+		fileManager.storeFingerprintModel(newModel);
+	}
+
+	/**
+	 * Checking which of the fingerprint models have changed since they were sent to the sensor.
+	 */
+	@Benchmark
+	public Set<Integer> retrieveSyncedFingerprintIDs() {
+		return fileManager.retrieveSyncedFingerprintIDs(models);
+	}
+}
@@ -0,0 +1,122 @@
+package dev.mwhitney.remote;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.mwhitney.enums.CommandOutcome;
+import dev.mwhitney.enums.RemoteCMD;
+import dev.mwhitney.listeners.MessageListener;
+
+/**
+ *
+ * Benchmarks the <tt>RemoteCommandRouter</tt>, from a message received from the server to the fired listener method.
+ * The <tt>LegacyMessageRouter</tt> from the tests routes the same text messages as a baseline, with the parsing the router replaced.
+ *
+ * @author Matthew Whitney
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RemoteCommandRouterBenchmark {
+
+	/** The <tt>RemoteCommandRouter</tt> under benchmark. */
+	private RemoteCommandRouter router;
+	/** The <tt>LegacyMessageRouter</tt> measured as the baseline. */
+	private LegacyMessageRouter legacyRouter;
+	/** A <tt>RemoteFrame</tt> with the binary form of an unlock command. */
+	private RemoteFrame frame;
+	/** The <tt>MessageListener</tt> fired by the router, which keeps what it was last given. */
+	private MessageListener listener;
+	/** The last message, arguments or <tt>CommandAck</tt> given to the listener, returned so the routing is not optimized away. */
+	private Object received;
+
+	@Setup
+	public void setUp() {
+		router = new RemoteCommandRouter(ack -> received = ack);
+		legacyRouter = new LegacyMessageRouter(ack -> received = ack);
+		frame = new RemoteFrame(42, RemoteCMD.UNLOCK, 5);
+		listener = new MessageListener() {
+			@Override
+			public void messageReceived(String message) {
+				received = message;
+			}
+
+			@Override
+			public void broadcastReceived(String broadcastMessage) {
+				received = broadcastMessage;
+			}
+
+			@Override
+			public void commandReceived(RemoteCMD command, String[] args, CommandAck ack) {
+				received = args;
+				ack.complete(CommandOutcome.DONE);
+			}
+
+			@Override
+			public void connectionMessageReceived(String connectionMessage) {
+				received = connectionMessage;
+			}
+
+			@Override
+			public void responseMessageReceived(String responseMessage) {
+				received = responseMessage;
+			}
+		};
+	}
+
+	/**
+	 * Routing of a text message.
+	 */
+	@Benchmark
+	public Object routeText(Messages messages) {
+		router.route(messages.message, listener);
+		return received;
+	}
+
+	/**
+	 * Routing of a text message by the legacy parsing, as the baseline for <code>routeText</code>.
+	 */
+	@Benchmark
+	public Object routeTextLegacy(Messages messages) {
+		legacyRouter.route(messages.message, listener);
+		return received;
+	}
+
+	/**
+	 * Routing of a binary frame, whose type, ID, command and arguments are already decoded.
+	 */
+	@Benchmark
+	public Object routeFrame() {
+		router.route(frame, listener);
+		return received;
+	}
+
+	/**
+	 *
+	 * The text messages routed, each kind parsed differently.
+	 * None has a request ID, which the legacy parsing does not know.
+	 *
+	 */
+	@State(Scope.Thread)
+	public static class Messages {
+
+		/** A <tt>String</tt> with the text message received, a command with an argument, a command without one, or a broadcast. */
+		@Param({"#command=!security:unlock 5", "#command=!security:lock", "#broadcast=The door was unlocked."})
+		public String message;
+	}
+}
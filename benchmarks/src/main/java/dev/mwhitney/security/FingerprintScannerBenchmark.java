@@ -0,0 +1,83 @@
+package dev.mwhitney.security;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sk.mimac.fingerprint.adafruit.AdafruitSensorEmulator;
+
+/**
+ *
+ * Benchmarks a whole fingerprint scan by the <tt>FingerprintScanner</tt>, against an <tt>AdafruitSensorEmulator</tt> with a finger already placed.
+ * The emulator answers without the sensor's own delays, so the time measured is that of the scanner and the serial protocol.
+ * Its replies notify the scanner's decoder, as serial port events do, so the decoder's polling interval is not measured instead.
+ *
+ * @author Matthew Whitney
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FingerprintScannerBenchmark {
+
+	/** An <code>int</code> for the number of fingerprints registered on the scanner. */
+	@Param({"1", "50", "150"})
+	public int modelCount;
+
+	/** A <code>boolean</code> for whether or not the placed finger is registered. */
+	@Param({"true", "false"})
+	public boolean registered;
+
+	/** The <tt>AdafruitSensorEmulator</tt> standing in for the fingerprint scanner. */
+	private AdafruitSensorEmulator emulator;
+	/** The <tt>FingerprintScanner</tt> under benchmark. */
+	private FingerprintScanner scanner;
+
+	@Setup
+	public void setUp() throws IOException {
+		emulator = new AdafruitSensorEmulator();
+		emulator.start();
+		scanner = new FingerprintScanner(emulator.createSensor());
+
+		final Map<Integer, byte[]> models = new HashMap<Integer, byte[]>();
+		for(int fingerID = 1; fingerID <= modelCount; fingerID++) {
+			models.put(fingerID, AdafruitSensorEmulator.fingerModel(fingerID));
+		}
+		if(!scanner.uploadFingerprintModels(models)) {
+			throw new IllegalStateException("Fingerprint models could not be uploaded.");
+		}
+		//	Either the last registered finger is placed, or one which was never registered.
+		emulator.placeFinger(AdafruitSensorEmulator.fingerModel(registered ? modelCount : modelCount + 1));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		scanner.disconnectSensor();
+		emulator.close();
+	}
+
+	/**
+	 * Scan of the placed finger, from capturing it to finding it among the registered fingerprints.
+	 */
+	@Benchmark
+	public int scanFingerprint() {
+		return scanner.scanFingerprint(null);
+	}
+}
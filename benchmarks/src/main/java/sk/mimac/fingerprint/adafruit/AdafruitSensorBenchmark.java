@@ -0,0 +1,161 @@
+package sk.mimac.fingerprint.adafruit;
+
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_ACKPACKET;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_COMMANDPACKET;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_DATAPACKET;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import sk.mimac.fingerprint.FingerprintException;
+
+/**
+ * Benchmarks of the sensor protocol without a serial port. Replies are
+ * replayed from memory, so only encoding, decoding and the handling of
+ * replies in {@link AdafruitSensor} are measured.
+ *
+ * @author Matthew Whitney
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AdafruitSensorBenchmark {
+
+    private AdafruitSensor sensor;
+    private AdafruitSensor failingSensor;
+
+    @Setup
+    public void setUp() throws FingerprintException {
+        // Template count of 42
+        sensor = connectedSensor(packet(FINGERPRINT_ACKPACKET, new byte[]{0x00, 0x00, 0x2A}));
+        // Packet receive error, which every command reports with the reply in hex
+        failingSensor = connectedSensor(packet(FINGERPRINT_ACKPACKET, new byte[]{0x01}));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        sensor.close();
+        failingSensor.close();
+    }
+
+    /**
+     * Encoding of a packet, as done by every write to the sensor.
+     */
+    @Benchmark
+    public byte[] encodePacket(Packets packets) {
+        AdafruitSensor.encodePacket(FINGERPRINT_COMMANDPACKET, packets.data, 0, packets.data.length, packets.encoded, 0);
+        return packets.encoded;
+    }
+
+    /**
+     * Decoding of a packet by {@link AdafruitFrameDecoder#readPacket()}.
+     */
+    @Benchmark
+    public int readPacket(Packets packets) throws FingerprintException {
+        packets.decoder.readPacket();
+        return packets.decoder.getPacketLength();
+    }
+
+    /**
+     * Whole command, written with writePacket and its reply read and copied.
+     */
+    @Benchmark
+    public int command() throws FingerprintException {
+        return sensor.getModelCount();
+    }
+
+    /**
+     * Command refused by the sensor, whose reply is formatted with bytesToHex
+     * into the exception.
+     */
+    @Benchmark
+    public String commandError() {
+        try {
+            failingSensor.getModelCount();
+            throw new IllegalStateException("Sensor didn't refuse the command");
+        } catch (FingerprintException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    private static AdafruitSensor connectedSensor(byte[] reply) throws FingerprintException {
+        ReplayInputStream input = new ReplayInputStream(packet(FINGERPRINT_ACKPACKET, new byte[]{0x00}));
+        AdafruitSensor sensor = new AdafruitSensor(input, OutputStream.nullOutputStream());
+        sensor.connect();
+        input.setData(reply);
+        return sensor;
+    }
+
+    private static byte[] packet(byte type, byte[] data) {
+        byte[] packet = new byte[data.length + 11];
+        AdafruitSensor.encodePacket(type, data, 0, data.length, packet, 0);
+        return packet;
+    }
+
+    /**
+     * Packets of various sizes to encode and decode.
+     */
+    @State(Scope.Thread)
+    public static class Packets {
+
+        /** Count of data bytes in the packet, from a command reply up to a full template data packet. */
+        @Param({"3", "128", "256"})
+        public int dataLength;
+
+        byte[] data;
+        byte[] encoded;
+        AdafruitFrameDecoder decoder;
+
+        @Setup
+        public void setUp() {
+            data = new byte[dataLength];
+            Arrays.fill(data, (byte) 0x5A);
+            encoded = new byte[dataLength + 11];
+            decoder = new AdafruitFrameDecoder(new ReplayInputStream(packet(FINGERPRINT_DATAPACKET, data)));
+        }
+    }
+
+    /**
+     * Stream which replays the same data over and over. Only the rest of the
+     * current copy is ever available, so every read ends at its boundary.
+     */
+    static class ReplayInputStream extends InputStream {
+
+        private byte[] data;
+        private int position;
+
+        ReplayInputStream(byte[] data) {
+            this.data = data;
+        }
+
+        void setData(byte[] data) {
+            this.data = data;
+            this.position = 0;
+        }
+
+        @Override
+        public int read() {
+            int value = data[position] & 0xFF;
+            position = (position + 1) % data.length;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int count = Math.min(length, data.length - position);
+            System.arraycopy(data, position, buffer, offset, count);
+            position = (position + count) % data.length;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return data.length - position;
+        }
+    }
+}
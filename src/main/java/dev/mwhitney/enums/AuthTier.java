@@ -0,0 +1,75 @@
+package dev.mwhitney.enums;
+
+/**
+ * 
+ * An enum for the tiers of authorization a fingerprint scan can grant, each with its own minimum match confidence.
+ * 
+ * @author Matthew Whitney
+ * 
+ */
+public enum AuthTier {
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>UNLOCK</i></b>
+	 * 	<p>	The tier for normal door unlocks by an Administrator.
+	 * </ul>
+	 */
+	UNLOCK("ConfidenceUnlock", 0),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>EMERGENCY</i></b>
+	 * 	<p>	The tier for door unlocks using an Emergency Use.
+	 * </ul>
+	 */
+	EMERGENCY("ConfidenceEmergency", 50),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>ADMIN</i></b>
+	 * 	<p>	The tier for Administrator actions, such as locking or unlocking the system and opening the settings.
+	 * </ul>
+	 */
+	ADMIN("ConfidenceAdmin", 80);
+	
+	/** A <tt>String</tt> for the key of the setting that holds this tier's minimum confidence. */
+	private final String propertyKey;
+	/** An <code>int</code> for this tier's minimum confidence when none is set. */
+	private final int defaultThreshold;
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>AuthTier</i></b>
+	 * <p>	<code>private AuthTier(String propertyKey, int defaultThreshold)</code>
+	 * <p>	Creates an <tt>AuthTier</tt>.
+	 * @param propertyKey - a <tt>String</tt> for the key of the setting that holds the tier's minimum confidence.
+	 * @param defaultThreshold - an <code>int</code> for the tier's minimum confidence when none is set.
+	 * </ul>
+	 */
+	private AuthTier(String propertyKey, int defaultThreshold) {
+		this.propertyKey = propertyKey;
+		this.defaultThreshold = defaultThreshold;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getPropertyKey</i></b>
+	 * <p>	<code>public String getPropertyKey()</code>
+	 * <p>	Gets the key of the setting that holds this tier's minimum confidence.
+	 * @return a <tt>String</tt> with the setting's key.
+	 * </ul>
+	 */
+	public String getPropertyKey() {
+		return propertyKey;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getDefaultThreshold</i></b>
+	 * <p>	<code>public int getDefaultThreshold()</code>
+	 * <p>	Gets this tier's minimum confidence when none is set.
+	 * @return an <code>int</code> for the default minimum confidence.
+	 * </ul>
+	 */
+	public int getDefaultThreshold() {
+		return defaultThreshold;
+	}
+}
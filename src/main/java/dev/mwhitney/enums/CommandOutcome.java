@@ -0,0 +1,85 @@
+package dev.mwhitney.enums;
+
+/**
+ * 
+ * An enum for the outcomes of a remote command, reported back to the communications server in its acknowledgement.
+ * Each outcome is marked by its own tag in binary frames.
+ * 
+ * @author Matthew Whitney
+ * 
+ */
+public enum CommandOutcome {
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>DONE</i></b>
+	 * 	<p>	The command was carried out. For door commands, the relay has switched.
+	 * </ul>
+	 */
+	DONE(1),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>UNCHANGED</i></b>
+	 * 	<p>	The command was accepted, but the system was already in the requested state.
+	 * </ul>
+	 */
+	UNCHANGED(2),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>REJECTED</i></b>
+	 * 	<p>	The command was not recognized or not allowed, so nothing was done.
+	 * </ul>
+	 */
+	REJECTED(3),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>FAILED</i></b>
+	 * 	<p>	The command was attempted but failed, such as when the relay could not be switched.
+	 * </ul>
+	 */
+	FAILED(4);
+	
+	/** A <code>byte</code> for the tag which marks this outcome in binary frames. */
+	private final byte tag;
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>CommandOutcome</i></b>
+	 * <p>	<code>private CommandOutcome(int tag)</code>
+	 * <p>	Creates a <tt>CommandOutcome</tt>.
+	 * @param tag - an <code>int</code> for the tag which marks the outcome in binary frames. Tags must never be reused, as servers depend on them.
+	 * </ul>
+	 */
+	private CommandOutcome(int tag) {
+		this.tag = (byte) tag;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getTag</i></b>
+	 * <p>	<code>public byte getTag()</code>
+	 * <p>	Gets the tag which marks this outcome in binary frames.
+	 * @return a <code>byte</code> for the outcome's tag.
+	 * </ul>
+	 */
+	public byte getTag() {
+		return tag;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>fromTag</i></b>
+	 * <p>	<code>public static CommandOutcome fromTag(byte tag)</code>
+	 * <p>	Gets the <tt>CommandOutcome</tt> marked by the passed tag.
+	 * @param tag - a <code>byte</code> for the tag of an outcome in a binary frame.
+	 * @return the <tt>CommandOutcome</tt> with the tag, or <code>null</code> if there is none.
+	 * </ul>
+	 */
+	public static CommandOutcome fromTag(byte tag) {
+		for(CommandOutcome outcome : values()) {
+			if(outcome.tag == tag) {
+				return outcome;
+			}
+		}
+		return null;
+	}
+}
@@ -3,6 +3,7 @@ package dev.mwhitney.enums;
 /**
  * 
  * An enum for the expected remote commands from the communications server.
+ * Each command's text and binary frame tag are registered here, so a new command only needs a new constant and its handling in the <tt>MessageListener</tt>.
  * 
  * @author Matthew Whitney
  * 
@@ -14,47 +15,135 @@ public enum RemoteCMD {
 	 * 	<p>	The lock/close command for the door.
 	 * </ul>
 	 */
-	LOCK,
+	LOCK("!security:lock", 1, false),
 	/**
 	 * <ul>
 	 * 	<p>	<b><i>UNLOCK</i></b>
 	 * 	<p>	The unlock/open command for the door.
 	 * </ul>
 	 */
-	UNLOCK,
+	UNLOCK("!security:unlock", 2, true),
 	/**
 	 * <ul>
 	 * 	<p>	<b><i>SYSTEM_LOCK</i></b>
 	 * 	<p>	The lock command for the system.
 	 * </ul>
 	 */
-	SYSTEM_LOCK,
+	SYSTEM_LOCK("!security:system:lock", 3, false),
 	/**
 	 * <ul>
 	 * 	<p>	<b><i>SYSTEM_UNLOCK</i></b>
 	 * 	<p>	The unlock command for the system.
 	 * </ul>
 	 */
-	SYSTEM_UNLOCK,
+	SYSTEM_UNLOCK("!security:system:unlock", 4, false),
 	/**
 	 * <ul>
 	 * 	<p>	<b><i>MANUALUNLOCKS_DISABLE</i></b>
 	 * 	<p>	The command for disabling manual unlocks on the system.
 	 * </ul>
 	 */
-	MANUALUNLOCKS_DISABLE,
+	MANUALUNLOCKS_DISABLE("!security:manualunlocks:disable", 5, false),
 	/**
 	 * <ul>
 	 * 	<p>	<b><i>MANUALUNLOCKS_ENABLE</i></b>
 	 * 	<p>	The command for enabling manual unlocks on the system.
 	 * </ul>
 	 */
-	MANUALUNLOCKS_ENABLE,
+	MANUALUNLOCKS_ENABLE("!security:manualunlocks:enable", 6, false),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>STATS</i></b>
+	 * 	<p>	The command for querying the latency of recent remote commands, answered by the <tt>RemoteClient</tt> itself.
+	 * </ul>
+	 */
+	STATS("!stats:latency", 7, false),
 	/**
 	 * <ul>
 	 * 	<p>	<b><i>UNRECOGNIZED</i></b>
 	 * 	<p>	A received command that is not recognized or handled.
 	 * </ul>
 	 */
-	UNRECOGNIZED
+	UNRECOGNIZED(null, 0, false);
+	
+	/** A <tt>String</tt> for the text the server sends for this command, or <code>null</code> if it has none. */
+	private final String text;
+	/** A <code>byte</code> for the tag which marks this command in binary frames. */
+	private final byte tag;
+	/** A <code>boolean</code> for whether or not this command may be followed by arguments. */
+	private final boolean takesArgs;
+	/** An array of every <tt>RemoteCMD</tt>, indexed by tag, or <code>null</code> where no command has the tag. */
+	private static final RemoteCMD[] BY_TAG = new RemoteCMD[8];
+	
+	static {
+		for(RemoteCMD command : values()) {
+			BY_TAG[command.tag] = command;
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>RemoteCMD</i></b>
+	 * <p>	<code>private RemoteCMD(String text, int tag, boolean takesArgs)</code>
+	 * <p>	Creates a <tt>RemoteCMD</tt>.
+	 * @param text - a <tt>String</tt> for the text the server sends for the command, or <code>null</code> if it has none.
+	 * @param tag - an <code>int</code> for the tag which marks the command in binary frames. Tags must never be reused, as servers depend on them.
+	 * @param takesArgs - a <code>boolean</code> for whether or not the command may be followed by arguments.
+	 * </ul>
+	 */
+	private RemoteCMD(String text, int tag, boolean takesArgs) {
+		this.text = text;
+		this.tag = (byte) tag;
+		this.takesArgs = takesArgs;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getText</i></b>
+	 * <p>	<code>public String getText()</code>
+	 * <p>	Gets the text the server sends for this command, such as <code>!security:unlock</code>.
+	 * @return a <tt>String</tt> with the command's text, or <code>null</code> if it has none.
+	 * </ul>
+	 */
+	public String getText() {
+		return text;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getTag</i></b>
+	 * <p>	<code>public byte getTag()</code>
+	 * <p>	Gets the tag which marks this command in binary frames.
+	 * @return a <code>byte</code> for the command's tag.
+	 * </ul>
+	 */
+	public byte getTag() {
+		return tag;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>takesArgs</i></b>
+	 * <p>	<code>public boolean takesArgs()</code>
+	 * <p>	Checks whether or not this command may be followed by arguments, separated by spaces.
+	 * @return <code>true</code> if the command takes arguments; <code>false</code> if it must be sent alone.
+	 * </ul>
+	 */
+	public boolean takesArgs() {
+		return takesArgs;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>fromTag</i></b>
+	 * <p>	<code>public static RemoteCMD fromTag(byte tag)</code>
+	 * <p>	Gets the <tt>RemoteCMD</tt> marked by the passed tag in a binary frame.
+	 * @param tag - a <code>byte</code> for the tag of a command.
+	 * @return the <tt>RemoteCMD</tt> with the tag, or <code>UNRECOGNIZED</code> if there is none.
+	 * </ul>
+	 */
+	public static RemoteCMD fromTag(byte tag) {
+		final RemoteCMD command = tag >= 0 && tag < BY_TAG.length ? BY_TAG[tag] : null;
+		return command != null ? command : UNRECOGNIZED;
+	}
 }
@@ -0,0 +1,116 @@
+package dev.mwhitney.enums;
+
+/**
+ * 
+ * An enum for the types of messages exchanged with the communications server.
+ * Each type is marked by its own prefix in text messages, and by its own tag in binary frames.
+ * 
+ * @author Matthew Whitney
+ * 
+ */
+public enum RemoteMessageType {
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>BROADCAST</i></b>
+	 * 	<p>	A broadcast message relayed by the server.
+	 * </ul>
+	 */
+	BROADCAST("#broadcast", 1),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>COMMAND</i></b>
+	 * 	<p>	A command sent by the server, such as to unlock the door.
+	 * </ul>
+	 */
+	COMMAND("#command", 2),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>CONNECTION</i></b>
+	 * 	<p>	A connection message sent by the server.
+	 * </ul>
+	 */
+	CONNECTION("#connection", 3),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>RESPONSE</i></b>
+	 * 	<p>	A response message sent by the server.
+	 * </ul>
+	 */
+	RESPONSE("#response", 4),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>ACK</i></b>
+	 * 	<p>	An acknowledgement sent to the server once a command is done, with its outcome and timings.
+	 * </ul>
+	 */
+	ACK("#ack", 5),
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>STANDARD</i></b>
+	 * 	<p>	A standard message, without any type prefix.
+	 * </ul>
+	 */
+	STANDARD(null, 0);
+	
+	/** A <tt>String</tt> for the prefix which marks messages of this type, or <code>null</code> if they have none. */
+	private final String prefix;
+	/** A <code>byte</code> for the tag which marks binary frames of this type. */
+	private final byte tag;
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>RemoteMessageType</i></b>
+	 * <p>	<code>private RemoteMessageType(String prefix, int tag)</code>
+	 * <p>	Creates a <tt>RemoteMessageType</tt>.
+	 * @param prefix - a <tt>String</tt> for the prefix which marks messages of the type, or <code>null</code> if they have none.
+	 * @param tag - an <code>int</code> for the tag which marks binary frames of the type. Tags must never be reused, as servers depend on them.
+	 * </ul>
+	 */
+	private RemoteMessageType(String prefix, int tag) {
+		this.prefix = prefix;
+		this.tag = (byte) tag;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getPrefix</i></b>
+	 * <p>	<code>public String getPrefix()</code>
+	 * <p>	Gets the prefix which marks messages of this type, such as <code>#command</code>.
+	 * 		In a message, the prefix is followed by an <code>=</code> and then the content.
+	 * @return a <tt>String</tt> with the type's prefix, or <code>null</code> if it has none.
+	 * </ul>
+	 */
+	public String getPrefix() {
+		return prefix;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getTag</i></b>
+	 * <p>	<code>public byte getTag()</code>
+	 * <p>	Gets the tag which marks binary frames of this type.
+	 * @return a <code>byte</code> for the type's tag.
+	 * </ul>
+	 */
+	public byte getTag() {
+		return tag;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>fromTag</i></b>
+	 * <p>	<code>public static RemoteMessageType fromTag(byte tag)</code>
+	 * <p>	Gets the <tt>RemoteMessageType</tt> marked by the passed tag.
+	 * @param tag - a <code>byte</code> for the tag of a binary frame.
+	 * @return the <tt>RemoteMessageType</tt> with the tag, or <code>null</code> if there is none.
+	 * </ul>
+	 */
+	public static RemoteMessageType fromTag(byte tag) {
+		for(RemoteMessageType type : values()) {
+			if(type.tag == tag) {
+				return type;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,65 @@
+package dev.mwhitney.enums;
+
+/**
+ * 
+ * An enum for the states a fingerprint scan goes through, from waiting for a finger to its result.
+ * 
+ * @author Matthew Whitney
+ * 
+ */
+public enum ScanState {
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>IDLE</i></b>
+	 * 	<p>	The scan has been created, but has not started yet.
+	 * </ul>
+	 */
+	IDLE,
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>WAITING</i></b>
+	 * 	<p>	The scan is waiting for a finger to be placed on the fingerprint scanner.
+	 * </ul>
+	 */
+	WAITING,
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>CAPTURING</i></b>
+	 * 	<p>	An image of the finger was captured and its features are being extracted.
+	 * </ul>
+	 */
+	CAPTURING,
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>MATCHING</i></b>
+	 * 	<p>	The fingerprint is being searched for among the stored models.
+	 * </ul>
+	 */
+	MATCHING,
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>CANCELLED</i></b>
+	 * 	<p>	The scan was cancelled before it finished. This state is final.
+	 * </ul>
+	 */
+	CANCELLED,
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>DONE</i></b>
+	 * 	<p>	The scan finished, whether or not the fingerprint was recognized. This state is final.
+	 * </ul>
+	 */
+	DONE;
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>isFinal</i></b>
+	 * <p>	<code>public boolean isFinal()</code>
+	 * <p>	Checks if this state ends the scan, so no further state can follow it.
+	 * @return <code>true</code> if this state is <code>CANCELLED</code> or <code>DONE</code>; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public boolean isFinal() {
+		return this == CANCELLED || this == DONE;
+	}
+}
@@ -0,0 +1,32 @@
+package dev.mwhitney.enums;
+
+/**
+ *
+ * An enum for the priorities of commands sent to the fingerprint scanner, from the most to the least urgent.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public enum SensorPriority {
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>AUTHENTICATION</i></b>
+	 * 	<p>	A fingerprint scan authorizing an action, such as unlocking the door. Runs before any other queued command.
+	 * </ul>
+	 */
+	AUTHENTICATION,
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>INTERACTIVE</i></b>
+	 * 	<p>	A command a user is waiting on, such as registering or removing a fingerprint.
+	 * </ul>
+	 */
+	INTERACTIVE,
+	/**
+	 * <ul>
+	 * 	<p>	<b><i>MAINTENANCE</i></b>
+	 * 	<p>	Background work, such as syncing or re-uploading fingerprint models. Only runs when no other command is queued.
+	 * </ul>
+	 */
+	MAINTENANCE
+}
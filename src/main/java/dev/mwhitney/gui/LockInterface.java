@@ -17,7 +17,9 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListModel;
@@ -35,6 +37,8 @@ import javax.swing.UIManager;
 import javax.swing.WindowConstants;
 import javax.swing.border.EmptyBorder;
 
+import dev.mwhitney.enums.AuthTier;
+import dev.mwhitney.enums.CommandOutcome;
 import dev.mwhitney.enums.CountdownType;
 import dev.mwhitney.enums.RemoteCMD;
 import dev.mwhitney.enums.Screen;
@@ -45,9 +49,16 @@ import dev.mwhitney.main.CountdownManager;
 import dev.mwhitney.main.FileManager;
 import dev.mwhitney.main.Helper;
 import dev.mwhitney.main.NotificationPopup;
+import dev.mwhitney.main.StartupOrchestrator;
+import dev.mwhitney.remote.CommandAck;
 import dev.mwhitney.remote.RemoteClient;
 import dev.mwhitney.security.FingerprintScanner;
+import dev.mwhitney.security.Pi4JActuator;
+import dev.mwhitney.security.PollingSchedule;
 import dev.mwhitney.security.RelayLock;
+import dev.mwhitney.security.SimulatedActuator;
+import dev.mwhitney.security.SysfsActuator;
+import dev.mwhitney.security.TouchSensor;
 
 /**
  * 
@@ -59,17 +70,31 @@ public class LockInterface extends JFrame {
 	/** The <tt>LockInterface</tt>'s unique serial. */
 	private static final long serialVersionUID = 6806573214858621792L;
 	
-	//	Primary Objects
+	//	Primary Objects. Set by the startup phases on their own threads and used from others, so they are volatile.
 	/** A <tt>FingerprintScanner</tt> to manage fingerprints for authentication. */
-	private FingerprintScanner fingerprintScanner;
+	private volatile FingerprintScanner fingerprintScanner;
+	/** An <code>int</code> for the baud rate used with the fingerprint scanner, read from the <code>SensorBaudRate</code> setting during startup. */
+	private volatile int sensorBaudRate = 57600;
 	/** A <tt>RelayLock</tt> for controlling the relay that connects to the door lock. */
-	private RelayLock relayLock;
+	private volatile RelayLock relayLock;
+	/** A <tt>TouchSensor</tt> for detecting a finger on the fingerprint scanner, or <code>null</code> if none is wired. */
+	private volatile TouchSensor touchSensor;
 	/** A <tt>FileManager</tt> for managing all of the Project O.N.E. files, including the properties file. */
-	private FileManager fileManager;
+	private volatile FileManager fileManager;
 	/** A <tt>RemoteClient</tt> for sending and receiving messages with the communications server for remote control. */
-	private RemoteClient remoteClient;
+	private volatile RemoteClient remoteClient;
 	/** A <tt>CountdownManager</tt> for managing countdowns relating to the action status label. */
-	private CountdownManager countdownManager;
+	private volatile CountdownManager countdownManager;
+	
+	//	Remote Commands
+	/** A <tt>CompletableFuture</tt> completed once the startup is done, whether or not it succeeded. Remote commands received before then wait for it. */
+	private final CompletableFuture<Void> startupDone = new CompletableFuture<Void>();
+	/** A <code>boolean</code> for whether or not the startup failed, in which case remote commands are rejected. */
+	private volatile boolean startupFailed = false;
+	/** An <tt>Object</tt> used to lock the queue of remote commands. */
+	private final Object remoteCommandLock = new Object();
+	/** A <tt>CompletableFuture</tt> completed once the last queued remote command has run. Each command is chained onto it, so commands run in the order they were received. */
+	private CompletableFuture<Void> remoteCommands = startupDone;
 	
 	
 	//	Door Lock/Unlock Process
@@ -102,6 +127,10 @@ public class LockInterface extends JFrame {
 	final private static String DEFAULT_TEXT = "";
 	/** A <tt>String</tt> containing the <b>system disabled</b> default text used in the action status label. */
 	final private static String DEFAULT_TEXT_SYSDISABLED = "System disabled by an Administrator.";
+	/** A <tt>String</tt> containing the <b>starting</b> default text used in the action status label while the system starts up. */
+	final private static String DEFAULT_TEXT_STARTING = "Starting...";
+	/** A <tt>String</tt> containing the <b>startup failed</b> default text used in the action status label. */
+	final private static String DEFAULT_TEXT_STARTFAILED = "Startup failed. Please check the log.";
 	
 	
 	//	Swing Components
@@ -204,31 +233,82 @@ public class LockInterface extends JFrame {
 	 * <p>	<b><i>LockInterface</i></b>
 	 * <p>	<code>public LockInterface()</code>
 	 * <p>	Creates the <tt>LockInterface</tt>.
+	 * <p>	The interface is displayed right away in its starting state, while the system's components start up in parallel.
+	 * 		The GPIO pins and files are independent of each other, so they start at the same time.
+	 * 		The fingerprint scanner starts once the files are loaded, since its baud rate is a setting.
+	 * 		Every later phase only waits on the phases it needs, such as the model sync waiting on both the scanner and the files.
 	 * </ul>
 	 */
 	public LockInterface() {
 		super("LockInterface");
 		
-		//	Setup the interface.
+		//	Setup and display the interface in its starting state.
 		setupInterface();
+		setStartingState(true);
+		displayInterface();
 		
 		// 	Run non-Swing/GUI code off of the EDT for good practice.
-		CompletableFuture.runAsync(() -> {
-			//	Instantiate core objects.
-			fingerprintScanner = new FingerprintScanner();
-			relayLock = new RelayLock();
-			fileManager = new FileManager();
-			setupRemoteClient();
-			setupCountdownManager();
-			
-			//	Sync settings and fingerprint models across the system.
+		final StartupOrchestrator startup = new StartupOrchestrator();
+		
+		//	Instantiate core objects. The relay's backend is chosen in the settings.
+		final CompletableFuture<Void> files = startup.phase("Files", () -> fileManager = new FileManager());
+		//	The scanner keeps its negotiated baud rate, so it is connected at the configured rate rather than probing the default first.
+		final CompletableFuture<Void> sensor = startup.phase("Sensor", () -> {
+			sensorBaudRate = readSensorBaudRate();
+			fingerprintScanner = new FingerprintScanner(sensorBaudRate);
+		}, files);
+		final CompletableFuture<Void> gpio = startup.phase("GPIO", () -> setupRelayLock(), files);
+		final CompletableFuture<Void> countdowns = startup.phase("Countdowns", () -> setupCountdownManager());
+		
+		//	Setup everything that depends on them. The client connects early, but the commands it receives are queued until the startup is done.
+		final CompletableFuture<Void> remote = startup.phase("RemoteClient", () -> setupRemoteClient(), gpio, countdowns);
+		final CompletableFuture<Void> touch = startup.phase("TouchSensor", () -> setupTouchSensor(), sensor, gpio, files);
+		final CompletableFuture<Void> settings = startup.phase("Settings", () -> {
+			setupPollingSchedule();
+			setupConfidenceThresholds();
+			setupAdminPartition();
 			syncSettings();
-			syncModels();
-		}).join();
+		}, sensor, files);
 		
-		//	Enables manual input once the system is fully online.
-		enableManualUnlocks();
-		displayInterface();
+		//	Raise the sensor's baud rate before any fingerprint models are transferred.
+		final CompletableFuture<Void> baudRate = startup.phase("BaudRate", () -> negotiateSensorBaudRate(), sensor, files);
+		
+		//	Sync fingerprint models once the Administrators and baud rate are set.
+		final CompletableFuture<Void> models = startup.phase("ModelSync", () -> syncModels(), settings, baudRate);
+		
+		CompletableFuture.allOf(remote, touch, models).whenComplete((ignored, failure) -> {
+			try {
+				startup.finish();
+				if(failure != null) {
+					currentDefaultText = DEFAULT_TEXT_STARTFAILED;
+					setActionStatusText(currentDefaultText);
+					return;
+				}
+				
+				//	Enables manual input once the system is fully online.
+				setStartingState(false);
+				enableManualUnlocks();
+			} finally {
+				//	Remote commands received during startup run now, after the startup's own changes, so nothing they set is undone.
+				startupFailed = failure != null;
+				startupDone.complete(null);
+			}
+		});
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setStartingState</i></b>
+	 * <p>	<code>private void setStartingState(boolean starting)</code>
+	 * <p>	Sets whether or not the user interface shows that the system is still starting up.
+	 * 		While starting, the settings cannot be opened and the action status label says so.
+	 * @param starting - <code>true</code> if the system is starting up; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	private void setStartingState(boolean starting) {
+		Helper.runSafelyAndWait(() -> btnSettings.setEnabled(!starting));
+		currentDefaultText = starting ? DEFAULT_TEXT_STARTING : DEFAULT_TEXT;
+		setActionStatusText(currentDefaultText);
 	}
 	
 	/**
@@ -615,91 +695,151 @@ public class LockInterface extends JFrame {
 	 * <ul>
 	 * <p>	<b><i>setupRemoteClient</i></b>
 	 * <p>	<code>private void setupRemoteClient()</code>
-	 * <p>	Sets up the <tt>RemoteClient</tt> on a separate <tt>Thread</tt>.
+	 * <p>	Sets up the <tt>RemoteClient</tt>. Called from its own startup phase, so connecting does not hold up the rest of the startup.
 	 * </ul>
 	 */
 	private void setupRemoteClient() {
-		//	Setup remote client on separate thread.
-		CompletableFuture.runAsync(() -> {
-			//	Create Instance and Connect
-			remoteClient = new RemoteClient();
+		//	Create Instance and Connect
+		remoteClient = new RemoteClient();
+		
+		//	Setup Listener
+		remoteClient.setMessageListener(new MessageListener() {
+			@Override
+			public void messageReceived(String message) {
+				System.out.println("[INCOMING MESSAGE] --> " + message);
+			}
+			
+			@Override
+			public void broadcastReceived(String broadcastMessage) {
+				System.out.println("[INCOMING BROADCAST] --> " + broadcastMessage);
+			}
+			
+			@Override
+			public void commandReceived(RemoteCMD command, String[] args, CommandAck ack) {
+				queueRemoteCommand(command, args, ack);
+			}
+			
+			@Override
+			public void connectionMessageReceived(String connectionMessage) {
+				//	Do nothing for now.
+			}
 			
-			//	Setup Listener
-			remoteClient.setMessageListener(new MessageListener() {
-				@Override
-				public void messageReceived(String message) {
-					System.out.println("[INCOMING MESSAGE] --> " + message);
+			@Override
+			public void responseMessageReceived(String responseMessage) {
+				//	Do nothing for now.
+			}
+		});
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>queueRemoteCommand</i></b>
+	 * <p>	<code>private void queueRemoteCommand(RemoteCMD command, String[] args, CommandAck ack)</code>
+	 * <p>	Runs the passed remote command once the startup is done, after every command received before it.
+	 * 		Once the startup is done, commands run right away on the thread that received them.
+	 * 		If the startup failed, the command is rejected instead, since the system it would act on is not fully online.
+	 * @param command - the <tt>RemoteCMD</tt> received from the server.
+	 * @param args - an array of <tt>String</tt>s containing the command arguments.
+	 * @param ack - the <tt>CommandAck</tt> to complete once the command is done.
+	 * </ul>
+	 */
+	private void queueRemoteCommand(RemoteCMD command, String[] args, CommandAck ack) {
+		if(!startupDone.isDone()) {
+			System.out.println("<#> Remote command " + command + " will run once the startup is done.");
+		}
+		synchronized(remoteCommandLock) {
+			remoteCommands = remoteCommands.thenRun(() -> {
+				if(startupFailed) {
+					System.out.println("<!> Rejected remote command " + command + ", the startup failed. (queRemCom)");
+					ack.complete(CommandOutcome.REJECTED);
+					return;
 				}
-				
-				@Override
-				public void broadcastReceived(String broadcastMessage) {
-					System.out.println("[INCOMING BROADCAST] --> " + broadcastMessage);
+				try {
+					runRemoteCommand(command, args, ack);
+				} catch (RuntimeException re) {
+					//	Caught here so the commands queued after this one still run.
+					System.out.println("<!> Error running remote command " + command + ". (RE queRemCom)");
+					re.printStackTrace();
+					ack.complete(CommandOutcome.FAILED);
 				}
-				
-				@Override
-				public void commandReceived(RemoteCMD command, String[] args) {
-					switch(command) {
-					case LOCK:
-						//	Cancel any active open door cycles and lock the door.
-						countdownManager.stopCountdown(CountdownType.OPEN_CYCLE);
-						lockDoor();
-						break;
-					case UNLOCK:
-						//	Save the timer's previous initial delay.
-						final int previousDelay = openCycleLengthMS;
-						//	The amount of time the door should remain unlocked (open).
-						int openLength = 3;
-						
-						//	Change the amount of seconds the door is open for if it was passed with the command.
-						if(args != null && args.length > 0) {
-							try {
-								openLength = Integer.parseInt(args[0]);
-								if(openLength>0 && openLength<10) {
-									openCycleLengthMS = openLength*1000;
-								}
-							} catch(NumberFormatException nfe) {
-								//	Do nothing. The default open cycle length will be used.
-							}
-						}
-						
-						//	Open the door and set it back to its previous initial delay.
-						doorOpenInProgress = true;
-						unlockDoor(openLength, false);
-						openCycleLengthMS = previousDelay;
-						break;
-					case SYSTEM_LOCK:
-						if(!systemLocked) {
-							lockSystem();
-						}
-						break;
-					case SYSTEM_UNLOCK:
-						if(systemLocked) {
-							unlockSystem();
-						}
-						break;
-					case MANUALUNLOCKS_DISABLE:
-						if(manualUnlocksEnabled) disableManualUnlocks(false);
-						break;
-					case MANUALUNLOCKS_ENABLE:
-						if(!manualUnlocksEnabled) enableManualUnlocks();
-						break;
-					case UNRECOGNIZED:
-						//	Do Nothing.
-						break;
+			});
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>runRemoteCommand</i></b>
+	 * <p>	<code>private void runRemoteCommand(RemoteCMD command, String[] args, CommandAck ack)</code>
+	 * <p>	Runs the passed remote command, completing its acknowledgement with the outcome.
+	 * @param command - the <tt>RemoteCMD</tt> received from the server.
+	 * @param args - an array of <tt>String</tt>s containing the command arguments.
+	 * @param ack - the <tt>CommandAck</tt> to complete once the command is done.
+	 * </ul>
+	 */
+	private void runRemoteCommand(RemoteCMD command, String[] args, CommandAck ack) {
+		switch(command) {
+		case LOCK:
+			//	Cancel any active open door cycles and lock the door.
+			countdownManager.stopCountdown(CountdownType.OPEN_CYCLE);
+			ack.completeOnRelay(lockDoor());
+			break;
+		case UNLOCK:
+			//	Save the timer's previous initial delay.
+			final int previousDelay = openCycleLengthMS;
+			//	The amount of time the door should remain unlocked (open).
+			int openLength = 3;
+			
+			//	Change the amount of seconds the door is open for if it was passed with the command.
+			if(args != null && args.length > 0) {
+				try {
+					openLength = Integer.parseInt(args[0]);
+					if(openLength>0 && openLength<10) {
+						openCycleLengthMS = openLength*1000;
 					}
+				} catch(NumberFormatException nfe) {
+					//	Do nothing. The default open cycle length will be used.
 				}
-				
-				@Override
-				public void connectionMessageReceived(String connectionMessage) {
-					//	Do nothing for now.
-				}
-				
-				@Override
-				public void responseMessageReceived(String responseMessage) {
-					//	Do nothing for now.
-				}
-			});
-		});
+			}
+			
+			//	Open the door and set it back to its previous initial delay.
+			doorOpenInProgress = true;
+			ack.completeOnRelay(unlockDoor(openLength, false));
+			openCycleLengthMS = previousDelay;
+			break;
+		case SYSTEM_LOCK:
+			if(!systemLocked) {
+				lockSystem();
+				ack.complete(CommandOutcome.DONE);
+			}
+			else ack.complete(CommandOutcome.UNCHANGED);
+			break;
+		case SYSTEM_UNLOCK:
+			if(systemLocked) {
+				unlockSystem();
+				ack.complete(CommandOutcome.DONE);
+			}
+			else ack.complete(CommandOutcome.UNCHANGED);
+			break;
+		case MANUALUNLOCKS_DISABLE:
+			if(manualUnlocksEnabled) {
+				disableManualUnlocks(false);
+				ack.complete(CommandOutcome.DONE);
+			}
+			else ack.complete(CommandOutcome.UNCHANGED);
+			break;
+		case MANUALUNLOCKS_ENABLE:
+			if(!manualUnlocksEnabled) {
+				enableManualUnlocks();
+				ack.complete(CommandOutcome.DONE);
+			}
+			else ack.complete(CommandOutcome.UNCHANGED);
+			break;
+		case UNRECOGNIZED:
+		default:
+			//	Do Nothing. The RemoteClient answers STATS itself, so it never gets here.
+			ack.complete(CommandOutcome.REJECTED);
+			break;
+		}
 	}
 	
 	/**
@@ -773,12 +913,191 @@ public class LockInterface extends JFrame {
 	 * <p>	<b><i>syncModels</i></b>
 	 * <p>	<code>private void syncModels()</code>
 	 * <p>	Syncs the fingerprint models and ensures that they are consistent across hardware.
-	 * <p>	In order to sync the locally stored fingerprint models with the fingerprint scanner's, the scanner's models are cleared first.
-	 * 		The <tt>FileManager</tt> then retrieves all of the stored fingerprint models and uploads them to the fingerprint scanner.
+	 * <p>	By default, the fingerprint scanner's stored models are reconciled with the locally stored ones.
+	 * 		Only models that are missing from the scanner or have changed since they were last sent to it are uploaded.
+	 * 		If the <code>ModelSyncMode</code> setting is <code>full</code>, or reconciling fails, the scanner's models are cleared first.
+	 * 		The <tt>FileManager</tt>'s stored fingerprint models are then all uploaded to the fingerprint scanner.
+	 * <p>	Each model is kept at its stored position on the scanner, and Administrator models are moved into the Administrator partition.
 	 * </ul>
 	 */
 	private void syncModels() {
-		fingerprintScanner.uploadFingerprintModels(fileManager.retrieveFingerprintModels(), true);
+		final long syncStart = System.nanoTime();
+		final Map<Integer, byte[]> models = fileManager.retrieveFingerprintModels();
+		fingerprintScanner.setFingerprintPages(fileManager.retrieveFingerprintPages());
+		Set<Integer> syncedIDs = null;
+		if(!fileManager.getProperty("ModelSyncMode", "reconcile").trim().equalsIgnoreCase("full")) {
+			syncedIDs = fingerprintScanner.syncFingerprintModels(models, fileManager.retrieveSyncedFingerprintIDs(models));
+		}
+		if(syncedIDs == null) {
+			fingerprintScanner.uploadFingerprintModels(models, true);
+			syncedIDs = Arrays.stream(fingerprintScanner.getFingerprintIDs()).boxed().collect(Collectors.toSet());
+		}
+		fileManager.storeSyncedFingerprintIDs(models, syncedIDs);
+		fileManager.storeFingerprintPages(fingerprintScanner.getFingerprintPages());
+		System.out.println("<#> Synced " + models.size() + " fingerprint models in " + (System.nanoTime() - syncStart)/1000000 + " ms at " + fingerprintScanner.getBaudRate() + " baud.");
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setupRelayLock</i></b>
+	 * <p>	<code>private void setupRelayLock()</code>
+	 * <p>	Sets up the <tt>RelayLock</tt> with the <tt>LockActuator</tt> chosen by the <code>RelayBackend</code> setting.
+	 * <p>	<code>pi4j</code>, the default, switches the relay through Pi4J. <code>sysfs</code> uses the Linux sysfs GPIO interface instead.
+	 * 		<code>simulated</code> switches no hardware and only records the relay's transitions, so the system can run off of a Raspberry Pi.
+	 * 		The <code>RelayPin</code> setting sets the GPIO pin, defaulting to 21. Invalid settings fall back to the defaults.
+	 * </ul>
+	 */
+	private void setupRelayLock() {
+		int pin = 21;
+		try {
+			pin = Integer.parseInt(fileManager.getProperty("RelayPin", "21").trim());
+		} catch(NumberFormatException nfe) {
+			System.out.println("<!> Invalid RelayPin setting. (NFE setRelLoc)");
+		}
+		
+		final String backend = fileManager.getProperty("RelayBackend", "pi4j").trim().toLowerCase();
+		switch(backend) {
+		case "sysfs":
+			relayLock = new RelayLock(new SysfsActuator(pin));
+			break;
+		case "simulated":
+			relayLock = new RelayLock(new SimulatedActuator());
+			break;
+		default:
+			if(!backend.equals("pi4j")) {
+				System.out.println("<!> Unknown RelayBackend setting '" + backend + "', using pi4j. (setRelLoc)");
+			}
+			relayLock = new RelayLock(new Pi4JActuator(pin));
+			break;
+		}
+		System.out.println("<#> Relay backend: " + relayLock.getActuator().getClass().getSimpleName() + " on GPIO " + pin + ".");
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setupTouchSensor</i></b>
+	 * <p>	<code>private void setupTouchSensor()</code>
+	 * <p>	Sets up finger detection using the fingerprint scanner's touch-sense output, if it is wired to a GPIO pin.
+	 * <p>	The pin is read from the <code>TouchSensorPin</code> setting, and <code>TouchSensorActiveLow</code> sets its polarity.
+	 * 		If no pin is set or the pin cannot be set up, the fingerprint scanner is polled for a finger instead.
+	 * 		The touch sensor is only available with the <code>pi4j</code> relay backend.
+	 * </ul>
+	 */
+	private void setupTouchSensor() {
+		final String pin = fileManager.getProperty("TouchSensorPin", "").trim();
+		if(pin.isEmpty()) {
+			return;
+		}
+		//	The touch sensor shares the relay's Pi4J context, which other relay backends do not have.
+		if(relayLock.getContext() == null) {
+			System.out.println("<!> Touch sensor requires the pi4j RelayBackend, polling the scanner instead. (setTouSen)");
+			return;
+		}
+		try {
+			touchSensor = new TouchSensor(relayLock.getContext(), Integer.parseInt(pin), Boolean.parseBoolean(fileManager.getProperty("TouchSensorActiveLow", "false").trim()));
+			fingerprintScanner.setTouchSensor(touchSensor);
+			System.out.println("<#> Touch sensor enabled on GPIO " + pin + ".");
+		} catch(NumberFormatException nfe) {
+			System.out.println("<!> Invalid TouchSensorPin setting. (NFE setTouSen)");
+		} catch(RuntimeException re) {
+			System.out.println("<!> Error setting up touch sensor, polling the scanner instead. (RE setTouSen)");
+			re.printStackTrace();
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setupPollingSchedule</i></b>
+	 * <p>	<code>private void setupPollingSchedule()</code>
+	 * <p>	Sets up the schedule used to poll the fingerprint scanner for a finger when no touch sensor is wired.
+	 * <p>	The <code>PollIntervalMin</code> and <code>PollIntervalMax</code> settings bound the delay between polls in milliseconds.
+	 * 		<code>PollFastPeriod</code> sets how long polling stays at the smallest delay, and <code>PollBackoff</code> how quickly it grows afterwards.
+	 * 		Invalid settings, including a backoff that is not a finite number, leave the default schedule in place.
+	 * </ul>
+	 */
+	private void setupPollingSchedule() {
+		try {
+			final PollingSchedule schedule = new PollingSchedule(
+					Long.parseLong(fileManager.getProperty("PollIntervalMin", "20").trim()),
+					Long.parseLong(fileManager.getProperty("PollIntervalMax", "320").trim()),
+					Double.parseDouble(fileManager.getProperty("PollBackoff", "2").trim()),
+					Long.parseLong(fileManager.getProperty("PollFastPeriod", "1000").trim()));
+			fingerprintScanner.setPollingSchedule(schedule);
+			System.out.println("<#> Finger polling schedule: " + schedule);
+		} catch(IllegalArgumentException iae) {
+			//	Also catches NumberFormatException.
+			System.out.println("<!> Invalid polling schedule settings. (IAE setPolSch)");
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setupConfidenceThresholds</i></b>
+	 * <p>	<code>private void setupConfidenceThresholds()</code>
+	 * <p>	Sets the minimum match confidence of each <tt>AuthTier</tt> from its setting, such as <code>ConfidenceAdmin</code>.
+	 * 		Invalid settings leave the tier's default in place.
+	 * </ul>
+	 */
+	private void setupConfidenceThresholds() {
+		for(AuthTier tier : AuthTier.values()) {
+			try {
+				fingerprintScanner.setConfidenceThreshold(tier, Integer.parseInt(fileManager.getProperty(tier.getPropertyKey(), String.valueOf(tier.getDefaultThreshold())).trim()));
+			} catch(NumberFormatException nfe) {
+				System.out.println("<!> Invalid " + tier.getPropertyKey() + " setting. (NFE setConThr)");
+			}
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setupAdminPartition</i></b>
+	 * <p>	<code>private void setupAdminPartition()</code>
+	 * <p>	Sets the number of scanner positions reserved for Administrator fingerprints from the <code>AdminPartitionSize</code> setting, defaulting to 16.
+	 * 		Administrator scans only search this partition. Invalid settings leave the default in place.
+	 * </ul>
+	 */
+	private void setupAdminPartition() {
+		try {
+			fingerprintScanner.setAdminPartitionSize(Integer.parseInt(fileManager.getProperty("AdminPartitionSize", "16").trim()));
+		} catch(IllegalArgumentException iae) {
+			//	Also catches NumberFormatException.
+			System.out.println("<!> Invalid AdminPartitionSize setting. (IAE setAdmPar)");
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>readSensorBaudRate</i></b>
+	 * <p>	<code>private int readSensorBaudRate()</code>
+	 * <p>	Reads the <code>SensorBaudRate</code> setting, defaulting to 115200.
+	 * 		An invalid setting is reported, and the scanner's factory default of 57600 is used instead.
+	 * @return an <code>int</code> for the baud rate to use with the fingerprint scanner.
+	 * </ul>
+	 */
+	private int readSensorBaudRate() {
+		try {
+			final int rate = Integer.parseInt(fileManager.getProperty("SensorBaudRate", "115200").trim());
+			if(rate >= 9600 && rate <= 115200 && rate % 9600 == 0) {
+				return rate;
+			}
+		} catch(NumberFormatException nfe) {
+			//	Reported below, like any other invalid rate.
+		}
+		System.out.println("<!> Invalid SensorBaudRate setting. (NFE reaSenBauRat)");
+		return 57600;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>negotiateSensorBaudRate</i></b>
+	 * <p>	<code>private void negotiateSensorBaudRate()</code>
+	 * <p>	Negotiates the fingerprint scanner's baud rate using the <code>SensorBaudRate</code> setting, defaulting to 115200.
+	 * 		Setting it to 57600, the scanner's factory default, effectively disables the negotiation.
+	 * 		If the scanner was already connected at that rate, nothing is sent.
+	 * </ul>
+	 */
+	private void negotiateSensorBaudRate() {
+		fingerprintScanner.negotiateBaudRate(sensorBaudRate);
 	}
 	
 	/**
@@ -835,12 +1154,21 @@ public class LockInterface extends JFrame {
 				final int fingerID = scanResultID;
 				//	The fingerprint is linked to an Administrator.
 				if(fingerprintScanner.isFingerprintAdmin(fingerID)) {
-					unlockDoor(true);
+					if(fingerprintScanner.meetsConfidence(AuthTier.UNLOCK)) {
+						unlockDoor(true);
+					}
+					else {
+						denyLowConfidence();
+					}
 				}
 				//	The fingerprint is not linked to an Administrator.
 				else {
+					//	The fingerprint matched without enough confidence to spend an emergency use.
+					if(!fingerprintScanner.meetsConfidence(AuthTier.EMERGENCY)) {
+						denyLowConfidence();
+					}
 					//	The fingerprint has emergency uses left.
-					if(Integer.parseInt(fileManager.getProperty("EmergencyUses" + fingerID)) > 0) {
+					else if(Integer.parseInt(fileManager.getProperty("EmergencyUses" + fingerID)) > 0) {
 						//	Check if the user would like to use an Emergency Use.
 						popupPane.reset("Use your Emergency Use?\nThe system administrator will be notified!", 2, false);
 						popupPane.setConfirmListener(new ConfirmListener() {
@@ -886,47 +1214,64 @@ public class LockInterface extends JFrame {
 		}
 	}
 	
+	/**
+	 * <ul>
+	 * <p>	<b><i>denyLowConfidence</i></b>
+	 * <p>	<code>private void denyLowConfidence()</code>
+	 * <p>	Denies a door open whose fingerprint was recognized, but not with enough confidence for the attempted action.
+	 * 		This does not count as a failed unlock, as the fingerprint is registered.
+	 * </ul>
+	 */
+	private void denyLowConfidence() {
+		popupPane.reset("Access denied.\nScan not clear enough, try again.", 2000);
+		doorOpenInProgress = false;
+	}
+	
 	/**
 	 * <ul>
 	 * <p>	<b><i>lockDoor</i></b>
-	 * <p>	<code>private void lockDoor()</code>
+	 * <p>	<code>private CompletableFuture{@literal<Long>} lockDoor()</code>
 	 * <p>	Locks the door.
+	 * @return a <tt>CompletableFuture</tt> completed with the relay's switching time in microseconds once the door is locked.
 	 * </ul>
 	 */
-	private void lockDoor() {
+	private CompletableFuture<Long> lockDoor() {
 		System.out.println("# Locking the door...");
 		
 		//	Sends the deactivation signal to the relay, locking the door.
-		relayLock.deactivateRelay();
+		final CompletableFuture<Long> relaySwitched = relayLock.deactivateRelay();
 		
 		//	Updates the action status text.
 		countdownManager.startCountdown("Locked...", -1, CountdownType.STANDARD);		
 		
 		//	Finally, updates the boolean variable to be consistent with door opening progress.
 		doorOpenInProgress = false;
+		return relaySwitched;
 	}
 	
 	/**
 	 * <ul>
 	 * <p>	<b><i>unlockDoor</i></b>
-	 * <p>	<code>private void unlockDoor(int s, boolean manual)</code>
+	 * <p>	<code>private CompletableFuture{@literal<Long>} unlockDoor(int s, boolean manual)</code>
 	 * <p>	Unlocks the door for a specified number of seconds.
 	 * <p>	Note: The passed int will be limited to the range 1-9. Passing an int outside this range means picking the valid min or max value respectively.
 	 * @param s - An <code>int</code> for the number of seconds that the door should be unlocked for.
 	 * @param manual - a <code>boolean</code> for whether or not the unlock was performed manually as opposed to being executed remotely.
+	 * @return a <tt>CompletableFuture</tt> completed with the relay's switching time in microseconds once the door is unlocked.
 	 * </ul>
 	 */
-	private void unlockDoor(int s, boolean manual) {
+	private CompletableFuture<Long> unlockDoor(int s, boolean manual) {
 		System.out.println("# Unlocking the door...");
 		
 		//	Sends the activation signal to the relay, unlocking the door.
-		relayLock.activateRelay();
+		final CompletableFuture<Long> relaySwitched = relayLock.activateRelay();
 		
 		//	Starts the cycle countdown, updating the action status text over time.
 		countdownManager.startCountdown("Unlocked for ", Math.max(1, Math.min(s, 9)), CountdownType.OPEN_CYCLE);
 		
 		//	Finally, resets the failed unlocks counter if the unlock was performed manually, not remotely.
 		if(manual) consecutiveFailedUnlocks = 0;
+		return relaySwitched;
 	}
 	
 	/**
@@ -960,8 +1305,8 @@ public class LockInterface extends JFrame {
 			if(scanResultID >= 0) {
 				popupPane.closePopup();
 				final int fingerID = scanResultID;
-				//	The fingerprint is linked to an Administrator.
-				if(fingerprintScanner.isFingerprintAdmin(fingerID)) {
+				//	The fingerprint is linked to an Administrator and matched with enough confidence.
+				if(fingerprintScanner.isFingerprintAdmin(fingerID) && fingerprintScanner.meetsConfidence(AuthTier.ADMIN)) {
 					//	Lock/Unlock the system.
 					if(systemLocked) {
 						unlockSystem();
@@ -1188,6 +1533,7 @@ public class LockInterface extends JFrame {
 		final Map.Entry<Integer, byte[]> model = fingerprintScanner.registerFingerprint(popupPane);
 		if(model!=null) {
 			fileManager.storeFingerprintModel(model);
+			fileManager.storeFingerprintPages(fingerprintScanner.getFingerprintPages());
 			syncSettings();
 			popupPane.reset("Fingerprint registered successfully under ID #" + fingerprintScanner.getLastRegistrantID() + "!", 2000);
 		}
@@ -1229,18 +1575,15 @@ public class LockInterface extends JFrame {
 							@Override
 							public void confirmationReceived(String input, boolean confirmation) {
 								CompletableFuture.runAsync(() -> {
-									if(confirmation) {
-										fileManager.setProperty("Admin" + fingerID, "true");
-										final String fingerText = createListString(fingerID);
-										Helper.runSafely(() -> listModel.set(fingerprintList.getSelectedIndex(), fingerText));
-										fingerprintScanner.addFingerprintAdmin(fingerID);
-									}
-									else {
-										fileManager.setProperty("Admin" + fingerID, "false");
-										final String fingerText = createListString(fingerID);
-										Helper.runSafely(() -> listModel.set(fingerprintList.getSelectedIndex(), fingerText));
-										fingerprintScanner.removeFingerprintAdmin(fingerID);
+									//	Move the model into the matching partition on the scanner before updating the settings.
+									if(!fingerprintScanner.setFingerprintAdmin(fingerID, confirmation, fileManager.retrieveFingerprintModel(fingerID))) {
+										popupPane.reset("Fingerprint #" + fingerID + " could not be updated on the scanner.\nPlease try again.", 2000);
+										return;
 									}
+									fileManager.setProperty("Admin" + fingerID, String.valueOf(confirmation));
+									fileManager.storeFingerprintPages(fingerprintScanner.getFingerprintPages());
+									final String fingerText = createListString(fingerID);
+									Helper.runSafely(() -> listModel.set(fingerprintList.getSelectedIndex(), fingerText));
 									fileManager.writeSettings();
 									popupPane.closePopup();
 								});
@@ -1326,14 +1669,17 @@ public class LockInterface extends JFrame {
 						//	Run removal code on a separate Thread.
 						CompletableFuture.runAsync(() -> {
 							if(confirmation) {
-								// Remove FP from Swing listModel component, then delete model from local list and reset scanner's internal memory.
+								// Remove FP from Swing listModel component, then delete model from local list and the scanner's internal memory.
 								Helper.runSafely(() -> {
 									listModel.remove(fingerprintList.getSelectedIndex());
 								});
 								fileManager.deleteFingerprintModel(fingerID);
 								
-								//	Remove model from scanner's internal memory.
-								fingerprintScanner.uploadFingerprintModels(fileManager.retrieveFingerprintModels(), true);
+								//	Remove only this model from scanner's internal memory. Fall back to a full re-upload if that fails.
+								if(!fingerprintScanner.removeFingerprint(fingerID)) {
+									fingerprintScanner.uploadFingerprintModels(fileManager.retrieveFingerprintModels(), true);
+								}
+								fileManager.storeFingerprintPages(fingerprintScanner.getFingerprintPages());
 							}
 							popupPane.closePopup();
 						});
@@ -1435,6 +1781,9 @@ public class LockInterface extends JFrame {
 		if(fingerprintScanner.disconnectSensor()) {
 			System.out.println("<#> Sensor disconnected.");
 		}
+		if(touchSensor != null) {
+			touchSensor.prepareForShutdown(relayLock.getContext());
+		}
 		relayLock.prepareForShutdown();
 		System.out.println("<#> Relay disconnected.");
 		
@@ -3,6 +3,7 @@ package dev.mwhitney.listeners;
 import java.util.EventListener;
 
 import dev.mwhitney.enums.RemoteCMD;
+import dev.mwhitney.remote.CommandAck;
 
 /**
  * 
@@ -37,16 +38,21 @@ public interface MessageListener extends EventListener {
 	/**
 	 * <ul>
 	 * <p>	<b><i>commandReceived</i></b>
-	 * <p>	<code>public void commandReceived(RemoteCMD command, String[] args)</code>
+	 * <p>	<code>public void commandReceived(RemoteCMD command, String[] args, CommandAck ack)</code>
 	 * <p>	An interface method that invokes upon receiving a command from the server.
 	 * <p>	This method takes a <tt>RemoteCMD</tt> which represents the command sent by the server.
 	 * 		It also takes an array of <tt>String</tt>s for the command arguments.
 	 * 		If the <code>args</code> array is of length zero, then no arguments were provided with the command.
+	 * <p>	<b>Note:</b> A command without arguments, such as a bare <code>!security:unlock</code>, is passed an empty array rather than an array holding one empty <tt>String</tt>.
+	 * 		Check the array's length before reading <code>args[0]</code>.
+	 * <p>	<b>Note:</b> The passed <tt>CommandAck</tt> must be completed once the command is done, even if it was rejected,
+	 * 		so the server learns the command's outcome and how long it took.
 	 * @param command - a <tt>RemoteCMD</tt> for the command sent by the server.
 	 * @param args - an array of <tt>String</tt>s containing the command arguments.
+	 * @param ack - the <tt>CommandAck</tt> to complete once the command is done.
 	 * </ul>
 	 */
-	public void commandReceived(RemoteCMD command, String[] args);
+	public void commandReceived(RemoteCMD command, String[] args, CommandAck ack);
 	
 	/**
 	 * <ul>
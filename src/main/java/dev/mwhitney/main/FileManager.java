@@ -8,8 +8,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.zip.CRC32;
 
 /**
  * 
@@ -148,6 +151,25 @@ public class FileManager {
 		return fingerprintModels;
 	}
 	
+	/**
+	 * <ul>
+	 * <p>	<b><i>retrieveFingerprintModel</i></b>
+	 * <p>	<code>public byte[] retrieveFingerprintModel(int fingerID)</code>
+	 * <p>	Retrieves the fingerprint model under the passed ID from the local disk.
+	 * @param fingerID - the ID number of the fingerprint.
+	 * @return a <code>byte[]</code> array containing the fingerprint model, or <code>null</code> if it could not be read.
+	 * </ul>
+	 */
+	public byte[] retrieveFingerprintModel(int fingerID) {
+		try {
+			return Files.readAllBytes(Paths.get(folderLocation + "fingerprint" + fingerID + fileExtension));
+		} catch (IOException ioe) {
+			System.out.println("<!> Error reading fingerprint model file. (IOE retFinMod2)");
+			ioe.printStackTrace();
+			return null;
+		}
+	}
+	
 	/**
 	 * <ul>
 	 * <p>	<b><i>storeFingerprintModel</i></b>
@@ -160,6 +182,8 @@ public class FileManager {
 		setProperty("Fingerprint" + fingerprintModel.getKey(), "");
 		setProperty("EmergencyUses" + fingerprintModel.getKey(), "1");
 		setProperty("Admin" + fingerprintModel.getKey(), "false");
+		//	A newly registered model was stored on the fingerprint scanner by the registration itself.
+		setProperty("ModelHash" + fingerprintModel.getKey(), hashFingerprintModel(fingerprintModel.getValue()));
 		writeSettings();
 		
 		// Write individual fingerprint model to its own file.
@@ -205,9 +229,132 @@ public class FileManager {
 		props.remove("Fingerprint" + fingerID);
 		props.remove("EmergencyUses" + fingerID);
 		props.remove("Admin" + fingerID);
+		props.remove("ModelHash" + fingerID);
+		props.remove("Page" + fingerID);
 		writeSettings();
 	}
 	
+	/**
+	 * <ul>
+	 * <p>	<b><i>retrieveFingerprintPages</i></b>
+	 * <p>	<code>public Map{@literal <Integer, Integer>} retrieveFingerprintPages()</code>
+	 * <p>	Retrieves the position on the fingerprint scanner of each registered fingerprint.
+	 * @return a <tt>Map{@literal <Integer, Integer>}</tt> of fingerprint IDs and their respective positions.
+	 * </ul>
+	 */
+	public Map<Integer, Integer> retrieveFingerprintPages() {
+		final Map<Integer, Integer> pages = new HashMap<Integer, Integer>();
+		for(String key : getPropertyKeys()) {
+			if(key.startsWith("Page")) {
+				try {
+					pages.put(Integer.parseInt(key.substring(4)), Integer.parseInt(getProperty(key).trim()));
+				} catch (NumberFormatException nfe) {
+					System.out.println("<!> Invalid fingerprint position setting " + key + ". (NFE retFinPag)");
+				}
+			}
+		}
+		return pages;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>storeFingerprintPages</i></b>
+	 * <p>	<code>public void storeFingerprintPages(Map{@literal <Integer, Integer>} pages)</code>
+	 * <p>	Stores the position on the fingerprint scanner of each registered fingerprint, removing those of fingerprints not in the passed set.
+	 * 		The settings are only written if any position has changed.
+	 * @param pages - a <tt>Map{@literal <Integer, Integer>}</tt> of fingerprint IDs and their respective positions.
+	 * </ul>
+	 */
+	public void storeFingerprintPages(Map<Integer, Integer> pages) {
+		boolean changed = false;
+		final Set<String> pageKeys = new HashSet<String>();
+		for(Integer fingerID : pages.keySet()) {
+			pageKeys.add("Page" + fingerID);
+		}
+		for(String key : getPropertyKeys()) {
+			if(key.startsWith("Page") && !pageKeys.contains(key)) {
+				props.remove(key);
+				changed = true;
+			}
+		}
+		for(Map.Entry<Integer, Integer> page : pages.entrySet()) {
+			final String value = String.valueOf(page.getValue());
+			if(!value.equals(getProperty("Page" + page.getKey()))) {
+				setProperty("Page" + page.getKey(), value);
+				changed = true;
+			}
+		}
+		if(changed) {
+			writeSettings();
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>hashFingerprintModel</i></b>
+	 * <p>	<code>public static String hashFingerprintModel(byte[] model)</code>
+	 * <p>	Creates a content hash of the passed fingerprint model, used to detect whether the model has changed.
+	 * @param model - a <code>byte[]</code> array containing the fingerprint model.
+	 * @return a <tt>String</tt> with the hexadecimal hash of the model.
+	 * </ul>
+	 */
+	public static String hashFingerprintModel(byte[] model) {
+		final CRC32 crc = new CRC32();
+		crc.update(model);
+		return Long.toHexString(crc.getValue());
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>retrieveSyncedFingerprintIDs</i></b>
+	 * <p>	<code>public Set{@literal <Integer>} retrieveSyncedFingerprintIDs(Map{@literal <Integer, byte[]>} fingerprintModels)</code>
+	 * <p>	Retrieves the IDs of the passed fingerprint models that have not changed since they were last sent to the fingerprint scanner.
+	 * 		A model is unchanged if its current content hash matches the hash stored when it was last sent.
+	 * @param fingerprintModels - a <tt>Map{@literal <Integer, byte[]>}</tt> containing the fingerprint models stored on the local disk.
+	 * @return a <tt>Set{@literal <Integer>}</tt> containing the IDs of the unchanged models.
+	 * </ul>
+	 */
+	public Set<Integer> retrieveSyncedFingerprintIDs(Map<Integer, byte[]> fingerprintModels) {
+		final Set<Integer> syncedIDs = new HashSet<Integer>();
+		for(Map.Entry<Integer, byte[]> fingerprintModel : fingerprintModels.entrySet()) {
+			if(hashFingerprintModel(fingerprintModel.getValue()).equals(getProperty("ModelHash" + fingerprintModel.getKey()))) {
+				syncedIDs.add(fingerprintModel.getKey());
+			}
+		}
+		return syncedIDs;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>storeSyncedFingerprintIDs</i></b>
+	 * <p>	<code>public void storeSyncedFingerprintIDs(Map{@literal <Integer, byte[]>} fingerprintModels, Set{@literal <Integer>} syncedIDs)</code>
+	 * <p>	Stores the content hashes of the passed fingerprint models which are now on the fingerprint scanner.
+	 * 		The hashes of models that did not make it onto the scanner are removed, so they will be sent again during the next sync.
+	 * 		The settings are only written if any hash has changed.
+	 * @param fingerprintModels - a <tt>Map{@literal <Integer, byte[]>}</tt> containing the fingerprint models stored on the local disk.
+	 * @param syncedIDs - a <tt>Set{@literal <Integer>}</tt> containing the IDs of the models that are now on the scanner.
+	 * </ul>
+	 */
+	public void storeSyncedFingerprintIDs(Map<Integer, byte[]> fingerprintModels, Set<Integer> syncedIDs) {
+		boolean changed = false;
+		for(Map.Entry<Integer, byte[]> fingerprintModel : fingerprintModels.entrySet()) {
+			final String key = "ModelHash" + fingerprintModel.getKey();
+			if(syncedIDs.contains(fingerprintModel.getKey())) {
+				final String hash = hashFingerprintModel(fingerprintModel.getValue());
+				if(!hash.equals(getProperty(key))) {
+					setProperty(key, hash);
+					changed = true;
+				}
+			}
+			else if(props.remove(key) != null) {
+				changed = true;
+			}
+		}
+		if(changed) {
+			writeSettings();
+		}
+	}
+	
 	/**
 	 * <ul>
 	 * <p>	<b><i>getPropertyKeys</i></b>
@@ -233,6 +380,20 @@ public class FileManager {
 		return props.getProperty(propertyKey);
 	}
 	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getProperty</i></b>
+	 * <p>	<code>public String getProperty(String propertyKey, String defaultValue)</code>
+	 * <p>	Gets the property stored under the passed key name, or the passed default value if there is no such property.
+	 * @param propertyKey - the key or name of the property to get.
+	 * @param defaultValue - the value to return if the property is not set.
+	 * @return the passed property key's respective value in the form of a <tt>String</tt>, or <code>defaultValue</code> if it is not set.
+	 * </ul>
+	 */
+	public String getProperty(String propertyKey, String defaultValue) {
+		return props.getProperty(propertyKey, defaultValue);
+	}
+	
 	/**
 	 * <ul>
 	 * <p>	<b><i>setProperty</i></b>
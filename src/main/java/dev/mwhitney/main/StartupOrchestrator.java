@@ -0,0 +1,140 @@
+package dev.mwhitney.main;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ *
+ * A class that runs the phases of the system's startup in parallel, each as soon as the phases it depends on have finished,
+ * and keeps a timeline of when each phase ran.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class StartupOrchestrator {
+
+	/** A <code>long</code> for the time the startup began, in nanoseconds. */
+	private final long startTime = System.nanoTime();
+	/** The <tt>ExecutorService</tt> running the startup phases. Each phase gets its own thread, since most of them block on hardware. */
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		final Thread thread = new Thread(runnable, "Startup");
+		thread.setDaemon(true);
+		return thread;
+	});
+	/** A <tt>List</tt> with a <tt>PhaseRecord</tt> for each phase that has run so far. */
+	private final List<PhaseRecord> timeline = new ArrayList<PhaseRecord>();
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>phase</i></b>
+	 * <p>	<code>public CompletableFuture{@literal<Void>} phase(String name, Runnable task, CompletableFuture{@literal<?>}... dependencies)</code>
+	 * <p>	Runs the passed task as a startup phase once all of the passed phases have finished.
+	 * 		Phases without dependencies start right away and run in parallel.
+	 * <p>	If the task throws an exception or an error, or a phase it depends on failed, the returned future fails as well.
+	 * 		A phase whose dependencies failed is skipped.
+	 * @param name - a <tt>String</tt> naming the phase in the startup timeline.
+	 * @param task - a <tt>Runnable</tt> with the work of the phase.
+	 * @param dependencies - the futures of the phases which must finish before this one starts.
+	 * @return a <tt>CompletableFuture{@literal<Void>}</tt> completed once the phase has finished.
+	 * </ul>
+	 */
+	public CompletableFuture<Void> phase(String name, Runnable task, CompletableFuture<?>... dependencies) {
+		return CompletableFuture.allOf(dependencies).handleAsync((ignored, dependencyFailure) -> {
+			if(dependencyFailure != null) {
+				System.out.println("<!> Startup phase '" + name + "' skipped, a phase it depends on failed.");
+				throw new CompletionException("Dependency of startup phase '" + name + "' failed", dependencyFailure);
+			}
+
+			final long phaseStart = elapsedMS();
+			try {
+				task.run();
+			} catch (Throwable t) {
+				//	Errors count too, such as an UnsatisfiedLinkError when a native library cannot be loaded.
+				System.out.println("<!> Startup phase '" + name + "' failed. (T pha)");
+				t.printStackTrace();
+				record(new PhaseRecord(name, phaseStart, elapsedMS(), false));
+				throw new CompletionException("Startup phase '" + name + "' failed", t);
+			}
+			record(new PhaseRecord(name, phaseStart, elapsedMS(), true));
+			return null;
+		}, executor);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>finish</i></b>
+	 * <p>	<code>public void finish()</code>
+	 * <p>	Prints the startup timeline, with every phase in the order it started, and releases the startup threads.
+	 * 		Should be called once all phases have finished.
+	 * </ul>
+	 */
+	public void finish() {
+		executor.shutdown();
+		final StringBuilder summary = new StringBuilder("<#> Startup timeline (" + elapsedMS() + " ms total):");
+		synchronized(timeline) {
+			timeline.sort(Comparator.comparingLong(phase -> phase.start));
+			for(PhaseRecord phase : timeline) {
+				summary.append(String.format("%n      +%5d ms  %-16s %5d ms%s", phase.start, phase.name, phase.end - phase.start, phase.succeeded ? "" : "  FAILED"));
+			}
+		}
+		System.out.println(summary);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>record</i></b>
+	 * <p>	<code>private void record(PhaseRecord phase)</code>
+	 * <p>	Adds the passed phase to the startup timeline and prints when it finished.
+	 * @param phase - the <tt>PhaseRecord</tt> of the finished phase.
+	 * </ul>
+	 */
+	private void record(PhaseRecord phase) {
+		synchronized(timeline) {
+			timeline.add(phase);
+		}
+		System.out.println("<#> Startup phase '" + phase.name + "' " + (phase.succeeded ? "done" : "failed") + " at +" + phase.end + " ms, took " + (phase.end - phase.start) + " ms.");
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>elapsedMS</i></b>
+	 * <p>	<code>private long elapsedMS()</code>
+	 * <p>	Gets the time passed since the startup began.
+	 * @return a <code>long</code> for the elapsed time, in milliseconds.
+	 * </ul>
+	 */
+	private long elapsedMS() {
+		return (System.nanoTime() - startTime)/1000000;
+	}
+
+	/**
+	 *
+	 * A phase in the startup timeline, with when it ran and whether or not it succeeded.
+	 *
+	 * @author Matthew Whitney
+	 *
+	 */
+	private static class PhaseRecord {
+
+		/** A <tt>String</tt> for the name of the phase. */
+		private final String name;
+		/** A <code>long</code> for when the phase started, in milliseconds since the startup began. */
+		private final long start;
+		/** A <code>long</code> for when the phase ended, in milliseconds since the startup began. */
+		private final long end;
+		/** A <code>boolean</code> for whether or not the phase succeeded. */
+		private final boolean succeeded;
+
+		private PhaseRecord(String name, long start, long end, boolean succeeded) {
+			this.name = name;
+			this.start = start;
+			this.end = end;
+			this.succeeded = succeeded;
+		}
+	}
+}
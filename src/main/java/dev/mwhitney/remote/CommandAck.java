@@ -0,0 +1,188 @@
+package dev.mwhitney.remote;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import dev.mwhitney.enums.CommandOutcome;
+import dev.mwhitney.enums.RemoteCMD;
+
+/**
+ *
+ * The acknowledgement of one remote command, completed by whoever carries the command out.
+ * Once completed, it holds the command's outcome and timings, and is handed back to the <tt>RemoteClient</tt> to be sent to the server and recorded.
+ * All times are in microseconds, measured from when the command was received.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class CommandAck {
+
+	/** An <code>int</code> for the ID the server gave the command, or <code>0</code> if it gave none. */
+	private final int requestId;
+	/** The <tt>RemoteCMD</tt> being acknowledged. */
+	private final RemoteCMD command;
+	/** A <code>long</code> for when the command was received, from <code>System.nanoTime()</code>. */
+	private final long receivedTime;
+	/** A <tt>Consumer</tt> called once, when this acknowledgement is completed. */
+	private final Consumer<CommandAck> onComplete;
+	/** An <tt>AtomicBoolean</tt> for whether or not this acknowledgement has been completed. */
+	private final AtomicBoolean completed = new AtomicBoolean(false);
+
+	/** The <tt>CommandOutcome</tt> of the command, or <code>null</code> until completed. */
+	private volatile CommandOutcome outcome = null;
+	/** A <code>long</code> for how long the command took from being received to being done. */
+	private volatile long totalTime = -1;
+	/** A <code>long</code> for how long the relay took to switch, or <code>-1</code> if the command did not switch it. */
+	private volatile long actuationTime = -1;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>CommandAck</i></b>
+	 * <p>	<code>public CommandAck(int requestId, RemoteCMD command, long receivedTime, Consumer{@literal<CommandAck>} onComplete)</code>
+	 * <p>	Creates a new <tt>CommandAck</tt> for a command which was just received.
+	 * @param requestId - an <code>int</code> for the ID the server gave the command, or <code>0</code> if it gave none.
+	 * @param command - the <tt>RemoteCMD</tt> being acknowledged.
+	 * @param receivedTime - a <code>long</code> for when the command was received, from <code>System.nanoTime()</code>.
+	 * @param onComplete - a <tt>Consumer</tt> called once, when the acknowledgement is completed.
+	 * </ul>
+	 */
+	public CommandAck(int requestId, RemoteCMD command, long receivedTime, Consumer<CommandAck> onComplete) {
+		this.requestId = requestId;
+		this.command = command;
+		this.receivedTime = receivedTime;
+		this.onComplete = onComplete;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>complete</i></b>
+	 * <p>	<code>public void complete(CommandOutcome outcome)</code>
+	 * <p>	Completes this acknowledgement with the passed outcome, for a command that is done without switching the relay.
+	 * 		Only the first completion counts; later ones are ignored.
+	 * @param outcome - the <tt>CommandOutcome</tt> of the command.
+	 * </ul>
+	 */
+	public void complete(CommandOutcome outcome) {
+		if(completed.compareAndSet(false, true)) {
+			totalTime = (System.nanoTime() - receivedTime)/1000;
+			this.outcome = outcome;
+			onComplete.accept(this);
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>completeOnRelay</i></b>
+	 * <p>	<code>public void completeOnRelay(CompletableFuture{@literal<Long>} relaySwitched)</code>
+	 * <p>	Completes this acknowledgement once the relay has switched, as reported by the passed future from the <tt>RelayLock</tt>.
+	 * 		The outcome is {@link CommandOutcome#DONE} if the relay switched, or {@link CommandOutcome#FAILED} if it could not.
+	 * @param relaySwitched - a <tt>CompletableFuture</tt> completed with the relay's switching time in microseconds.
+	 * </ul>
+	 */
+	public void completeOnRelay(CompletableFuture<Long> relaySwitched) {
+		relaySwitched.whenComplete((switchTime, throwable) -> {
+			if(throwable == null) {
+				actuationTime = switchTime;
+			}
+			complete(throwable == null ? CommandOutcome.DONE : CommandOutcome.FAILED);
+		});
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getRequestId</i></b>
+	 * <p>	<code>public int getRequestId()</code>
+	 * <p>	Gets the ID the server gave the command, so the server can match this acknowledgement with it.
+	 * @return an <code>int</code> for the request ID, or <code>0</code> if the server gave none.
+	 * </ul>
+	 */
+	public int getRequestId() {
+		return requestId;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getCommand</i></b>
+	 * <p>	<code>public RemoteCMD getCommand()</code>
+	 * <p>	Gets the command being acknowledged.
+	 * @return the <tt>RemoteCMD</tt> of the command.
+	 * </ul>
+	 */
+	public RemoteCMD getCommand() {
+		return command;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getOutcome</i></b>
+	 * <p>	<code>public CommandOutcome getOutcome()</code>
+	 * <p>	Gets the outcome of the command.
+	 * @return the <tt>CommandOutcome</tt>, or <code>null</code> if this acknowledgement is not completed yet.
+	 * </ul>
+	 */
+	public CommandOutcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getTotalTime</i></b>
+	 * <p>	<code>public long getTotalTime()</code>
+	 * <p>	Gets how long the command took from being received to being done, including any relay switching.
+	 * @return a <code>long</code> for the time in microseconds, or <code>-1</code> if this acknowledgement is not completed yet.
+	 * </ul>
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getQueueWait</i></b>
+	 * <p>	<code>public long getQueueWait()</code>
+	 * <p>	Gets how long the command waited from being received until the relay began to switch, such as behind earlier relay requests.
+	 * @return a <code>long</code> for the time in microseconds, or <code>-1</code> if the command did not switch the relay.
+	 * </ul>
+	 */
+	public long getQueueWait() {
+		return actuationTime < 0 ? -1 : Math.max(0, totalTime - actuationTime);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getActuationTime</i></b>
+	 * <p>	<code>public long getActuationTime()</code>
+	 * <p>	Gets how long the relay took to switch for the command.
+	 * @return a <code>long</code> for the time in microseconds, or <code>-1</code> if the command did not switch the relay.
+	 * </ul>
+	 */
+	public long getActuationTime() {
+		return actuationTime;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>toPayload</i></b>
+	 * <p>	<code>public String toPayload()</code>
+	 * <p>	Gets the content of the acknowledgement sent to the server, such as <code>DONE total=1250 queue=1180 relay=70</code>.
+	 * 		Times are in microseconds, and are <code>-1</code> when they do not apply.
+	 * @return a <tt>String</tt> with the acknowledgement's content.
+	 * </ul>
+	 */
+	public String toPayload() {
+		return outcome + " total=" + totalTime + " queue=" + getQueueWait() + " relay=" + actuationTime;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>toFrame</i></b>
+	 * <p>	<code>public RemoteFrame toFrame()</code>
+	 * <p>	Gets the acknowledgement sent to servers which agreed to binary framing, with the same content as <code>toPayload()</code>.
+	 * @return a <tt>RemoteFrame</tt> with the acknowledgement.
+	 * </ul>
+	 */
+	public RemoteFrame toFrame() {
+		return new RemoteFrame(requestId, outcome, totalTime, getQueueWait(), actuationTime);
+	}
+}
@@ -0,0 +1,196 @@
+package dev.mwhitney.remote;
+
+import java.util.Arrays;
+
+/**
+ *
+ * A histogram of latencies over a rolling time window.
+ * Latencies are counted in buckets that grow with the latency, four per power of two, so percentiles are accurate to within about 25% with a fixed, small memory footprint.
+ * Samples are kept in a current and a previous window. When the current window is over, it becomes the previous one, so queries cover between one and two windows of recent samples.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class LatencyHistogram {
+
+	/** An <code>int</code> for the number of buckets per power of two. */
+	private static final int SUB_BUCKETS = 4;
+	/** An <code>int</code> for the number of buckets, enough for latencies of over a week in microseconds. */
+	private static final int BUCKET_COUNT = 160;
+
+	/** A <code>long</code> for the length of a window, in nanoseconds. */
+	private final long windowLength;
+	/** A <code>long</code> for when the current window started, from <code>System.nanoTime()</code>. */
+	private long windowStart = System.nanoTime();
+	/** An array of <code>long</code>s with the count of each bucket in the current window. */
+	private long[] current = new long[BUCKET_COUNT];
+	/** An array of <code>long</code>s with the count of each bucket in the previous window. */
+	private long[] previous = new long[BUCKET_COUNT];
+	/** A <code>long</code> for the number of samples in the current window. */
+	private long currentCount = 0;
+	/** A <code>long</code> for the number of samples in the previous window. */
+	private long previousCount = 0;
+	/** A <code>long</code> for the largest sample in the current window. */
+	private long currentMax = 0;
+	/** A <code>long</code> for the largest sample in the previous window. */
+	private long previousMax = 0;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>LatencyHistogram</i></b>
+	 * <p>	<code>public LatencyHistogram(long windowMillis)</code>
+	 * <p>	Creates a new, empty <tt>LatencyHistogram</tt>.
+	 * @param windowMillis - a <code>long</code> for the length of a window, in milliseconds.
+	 * </ul>
+	 */
+	public LatencyHistogram(long windowMillis) {
+		this.windowLength = windowMillis * 1000000;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>record</i></b>
+	 * <p>	<code>public synchronized void record(long micros)</code>
+	 * <p>	Records one latency sample.
+	 * @param micros - a <code>long</code> for the latency in microseconds. Negative values are counted as zero.
+	 * </ul>
+	 */
+	public synchronized void record(long micros) {
+		rotate();
+		final long sample = Math.max(0, micros);
+		current[bucketOf(sample)]++;
+		currentCount++;
+		currentMax = Math.max(currentMax, sample);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getCount</i></b>
+	 * <p>	<code>public synchronized long getCount()</code>
+	 * <p>	Gets the number of recent samples.
+	 * @return a <code>long</code> for the sample count.
+	 * </ul>
+	 */
+	public synchronized long getCount() {
+		rotate();
+		return currentCount + previousCount;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getMax</i></b>
+	 * <p>	<code>public synchronized long getMax()</code>
+	 * <p>	Gets the largest recent sample.
+	 * @return a <code>long</code> for the largest latency in microseconds, or <code>0</code> if there are no samples.
+	 * </ul>
+	 */
+	public synchronized long getMax() {
+		rotate();
+		return Math.max(currentMax, previousMax);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getPercentile</i></b>
+	 * <p>	<code>public synchronized long getPercentile(double percentile)</code>
+	 * <p>	Gets the latency which the passed percentage of recent samples are at or below.
+	 * 		The upper bound of the sample's bucket is returned, limited to the largest sample.
+	 * @param percentile - a <code>double</code> from <code>0</code> to <code>100</code>.
+	 * @return a <code>long</code> for the latency in microseconds, or <code>0</code> if there are no samples.
+	 * </ul>
+	 */
+	public synchronized long getPercentile(double percentile) {
+		rotate();
+		final long count = currentCount + previousCount;
+		if(count == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for(int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+			seen += current[bucket] + previous[bucket];
+			if(seen >= rank) {
+				return Math.min(upperBoundOf(bucket), Math.max(currentMax, previousMax));
+			}
+		}
+		return Math.max(currentMax, previousMax);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>toString</i></b>
+	 * <p>	<code>public String toString()</code>
+	 * <p>	Gets a summary of the recent samples, such as <code>count=12 p50=850 p90=1200 p99=3000 max=3100</code>, with latencies in microseconds.
+	 * @return a <tt>String</tt> with the summary.
+	 * </ul>
+	 */
+	@Override
+	public synchronized String toString() {
+		return "count=" + getCount() + " p50=" + getPercentile(50) + " p90=" + getPercentile(90) + " p99=" + getPercentile(99) + " max=" + getMax();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>rotate</i></b>
+	 * <p>	<code>private void rotate()</code>
+	 * <p>	Starts a new window if the current one is over. If the previous window is also over, its samples are dropped too.
+	 * </ul>
+	 */
+	private void rotate() {
+		final long now = System.nanoTime();
+		final long elapsed = now - windowStart;
+		if(elapsed < windowLength) {
+			return;
+		}
+		final long[] swap = previous;
+		previous = current;
+		current = swap;
+		Arrays.fill(current, 0);
+		previousCount = currentCount;
+		previousMax = currentMax;
+		currentCount = 0;
+		currentMax = 0;
+		if(elapsed >= 2 * windowLength) {
+			Arrays.fill(previous, 0);
+			previousCount = 0;
+			previousMax = 0;
+		}
+		windowStart = now;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>bucketOf</i></b>
+	 * <p>	<code>private static int bucketOf(long micros)</code>
+	 * <p>	Gets the bucket a latency is counted in. Each power of two is split into four buckets by the two bits after the highest one.
+	 * @param micros - a <code>long</code> for the latency in microseconds, at least zero.
+	 * @return an <code>int</code> for the index of the bucket.
+	 * </ul>
+	 */
+	private static int bucketOf(long micros) {
+		if(micros < SUB_BUCKETS) {
+			return (int) micros;
+		}
+		final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		final int mantissa = (int) (micros >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+		return Math.min((exponent - 1) * SUB_BUCKETS + mantissa, BUCKET_COUNT - 1);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>upperBoundOf</i></b>
+	 * <p>	<code>private static long upperBoundOf(int bucket)</code>
+	 * <p>	Gets the largest latency counted in a bucket.
+	 * @param bucket - an <code>int</code> for the index of the bucket.
+	 * @return a <code>long</code> for the latency in microseconds.
+	 * </ul>
+	 */
+	private static long upperBoundOf(int bucket) {
+		if(bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		final int exponent = bucket / SUB_BUCKETS + 1;
+		final int mantissa = bucket % SUB_BUCKETS;
+		return ((SUB_BUCKETS + mantissa + 1L) << (exponent - 2)) - 1;
+	}
+}
@@ -0,0 +1,298 @@
+package dev.mwhitney.remote;
+
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.Enumeration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ *
+ * Schedules reconnection attempts to the communications server on its own thread, away from the Swing event dispatch thread.
+ * Attempts are spaced with exponential backoff and full jitter: each delay is picked at random between zero and a ceiling which doubles after every failed attempt, up to a maximum.
+ * This keeps many systems from reconnecting in lockstep when the server restarts.
+ * While disconnected, the network interfaces are watched, and an attempt is made right away when the network comes back up.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class ReconnectScheduler {
+
+	/** A <code>long</code> for how often the network interfaces are checked while disconnected, in milliseconds. */
+	private static final long NETWORK_CHECK_INTERVAL = 2000;
+	/** An <code>int</code> for the most doublings of the base delay, which keeps the ceiling from overflowing. */
+	private static final int MAX_DOUBLINGS = 20;
+
+	/** A <code>long</code> for the ceiling of the first delay, in milliseconds. */
+	private final long baseDelay;
+	/** A <code>long</code> for the highest ceiling of any delay, in milliseconds. */
+	private final long maxDelay;
+	/** A <tt>BooleanSupplier</tt> which makes one connection attempt and returns whether or not it connected. */
+	private final BooleanSupplier attempt;
+	/** A <tt>ScheduledExecutorService</tt> with a single thread, which runs the attempts and network checks. */
+	private final ScheduledExecutorService executor;
+
+	/** A <code>boolean</code> for whether or not the connection is currently lost and being retried. */
+	private boolean disconnected = false;
+	/** A <code>boolean</code> for whether or not this scheduler was shut down, and should make no more attempts. */
+	private boolean shutdown = false;
+	/** A <code>boolean</code> for whether or not the network was up at the last check. */
+	private boolean networkWasUp = true;
+	/** An <code>int</code> for the number of attempts made since the connection was lost. */
+	private int outageAttempts = 0;
+	/** A <code>long</code> for when the connection was lost, from <code>System.nanoTime()</code>. */
+	private long disconnectedSince = 0;
+	/** A <code>long</code> for the total time spent disconnected in earlier outages, in nanoseconds. */
+	private long pastDisconnectedTime = 0;
+	/** A <code>long</code> for the total number of reconnection attempts made. */
+	private long totalAttempts = 0;
+	/** The <tt>ScheduledFuture</tt> of the next attempt, or <code>null</code> if none is scheduled. */
+	private ScheduledFuture<?> nextAttempt = null;
+	/** The <tt>ScheduledFuture</tt> of the repeating network check, or <code>null</code> if it is not running. */
+	private ScheduledFuture<?> networkCheck = null;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>ReconnectScheduler</i></b>
+	 * <p>	<code>public ReconnectScheduler(long baseDelay, long maxDelay, BooleanSupplier attempt)</code>
+	 * <p>	Creates a new <tt>ReconnectScheduler</tt>. Nothing is scheduled until the connection is reported lost.
+	 * @param baseDelay - a <code>long</code> for the ceiling of the first delay, in milliseconds.
+	 * @param maxDelay - a <code>long</code> for the highest ceiling of any delay, in milliseconds.
+	 * @param attempt - a <tt>BooleanSupplier</tt> which makes one connection attempt and returns whether or not it connected.
+	 * </ul>
+	 */
+	public ReconnectScheduler(long baseDelay, long maxDelay, BooleanSupplier attempt) {
+		this.baseDelay = baseDelay;
+		this.maxDelay = maxDelay;
+		this.attempt = attempt;
+		final ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1, runnable -> {
+			final Thread thread = new Thread(runnable, "RemoteReconnect");
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.setRemoveOnCancelPolicy(true);
+		executor = Executors.unconfigurableScheduledExecutorService(pool);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>disconnected</i></b>
+	 * <p>	<code>public synchronized void disconnected()</code>
+	 * <p>	Reports that the connection was lost, or could not be made. Starts retrying, unless already retrying.
+	 * </ul>
+	 */
+	public synchronized void disconnected() {
+		if(shutdown || disconnected) {
+			return;
+		}
+		disconnected = true;
+		disconnectedSince = System.nanoTime();
+		outageAttempts = 0;
+		networkWasUp = true;
+		scheduleAttempt(nextDelay());
+		networkCheck = executor.scheduleWithFixedDelay(this::checkNetwork, NETWORK_CHECK_INTERVAL, NETWORK_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>connected</i></b>
+	 * <p>	<code>public synchronized void connected()</code>
+	 * <p>	Reports that the connection was made. Stops retrying, and adds the outage to the time spent disconnected.
+	 * </ul>
+	 */
+	public synchronized void connected() {
+		if(!disconnected) {
+			return;
+		}
+		disconnected = false;
+		final long outage = System.nanoTime() - disconnectedSince;
+		pastDisconnectedTime += outage;
+		cancel();
+		System.out.println("<#> Reconnected to the server after " + outageAttempts + " attempt(s), disconnected for " + outage/1000000 + " ms.");
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>retryNow</i></b>
+	 * <p>	<code>public synchronized void retryNow()</code>
+	 * <p>	Makes an attempt right away instead of waiting for the next one, such as when the network comes back up.
+	 * 		Does nothing if the connection is not lost.
+	 * </ul>
+	 */
+	public synchronized void retryNow() {
+		if(shutdown || !disconnected) {
+			return;
+		}
+		scheduleAttempt(0);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>shutdown</i></b>
+	 * <p>	<code>public synchronized void shutdown()</code>
+	 * <p>	Stops retrying for good, such as when the connection is closed on purpose.
+	 * </ul>
+	 */
+	public synchronized void shutdown() {
+		shutdown = true;
+		cancel();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>isDisconnected</i></b>
+	 * <p>	<code>public synchronized boolean isDisconnected()</code>
+	 * <p>	Checks whether or not the connection is currently lost and being retried.
+	 * @return <code>true</code> if disconnected; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public synchronized boolean isDisconnected() {
+		return disconnected;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getReconnectAttempts</i></b>
+	 * <p>	<code>public synchronized long getReconnectAttempts()</code>
+	 * <p>	Gets the total number of reconnection attempts made, over all outages.
+	 * @return a <code>long</code> for the number of attempts.
+	 * </ul>
+	 */
+	public synchronized long getReconnectAttempts() {
+		return totalAttempts;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getDisconnectedTime</i></b>
+	 * <p>	<code>public synchronized long getDisconnectedTime()</code>
+	 * <p>	Gets the total time spent disconnected, over all outages including the current one.
+	 * @return a <code>long</code> for the time in milliseconds.
+	 * </ul>
+	 */
+	public synchronized long getDisconnectedTime() {
+		return (pastDisconnectedTime + (disconnected ? System.nanoTime() - disconnectedSince : 0))/1000000;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>runAttempt</i></b>
+	 * <p>	<code>private void runAttempt()</code>
+	 * <p>	Makes one connection attempt, then schedules the next one if it failed.
+	 * 		The attempt itself runs without holding this scheduler's lock, so the connection callbacks can report back during it.
+	 * </ul>
+	 */
+	private void runAttempt() {
+		synchronized(this) {
+			if(shutdown || !disconnected) {
+				return;
+			}
+			outageAttempts++;
+			totalAttempts++;
+		}
+		final boolean success = attempt.getAsBoolean();
+		synchronized(this) {
+			if(success) {
+				connected();
+			}
+			else if(!shutdown && disconnected) {
+				scheduleAttempt(nextDelay());
+			}
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>checkNetwork</i></b>
+	 * <p>	<code>private void checkNetwork()</code>
+	 * <p>	Checks the network interfaces, and retries right away if the network just came back up.
+	 * </ul>
+	 */
+	private void checkNetwork() {
+		final boolean up = isNetworkUp();
+		final boolean cameUp;
+		synchronized(this) {
+			cameUp = up && !networkWasUp;
+			networkWasUp = up;
+		}
+		if(cameUp) {
+			System.out.println("<#> Network is back up, reconnecting to the server now.");
+			retryNow();
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>scheduleAttempt</i></b>
+	 * <p>	<code>private synchronized void scheduleAttempt(long delay)</code>
+	 * <p>	Schedules the next attempt after the passed delay, replacing any attempt already scheduled.
+	 * @param delay - a <code>long</code> for the delay in milliseconds.
+	 * </ul>
+	 */
+	private synchronized void scheduleAttempt(long delay) {
+		if(nextAttempt != null) {
+			nextAttempt.cancel(false);
+		}
+		nextAttempt = executor.schedule(this::runAttempt, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>nextDelay</i></b>
+	 * <p>	<code>private synchronized long nextDelay()</code>
+	 * <p>	Picks the delay before the next attempt at random, between zero and a ceiling which doubles with every attempt of this outage.
+	 * @return a <code>long</code> for the delay in milliseconds.
+	 * </ul>
+	 */
+	private synchronized long nextDelay() {
+		final long ceiling = Math.min(maxDelay, baseDelay << Math.min(outageAttempts, MAX_DOUBLINGS));
+		return ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>cancel</i></b>
+	 * <p>	<code>private synchronized void cancel()</code>
+	 * <p>	Cancels the next attempt and the network check, if they are scheduled.
+	 * </ul>
+	 */
+	private synchronized void cancel() {
+		if(nextAttempt != null) {
+			nextAttempt.cancel(false);
+			nextAttempt = null;
+		}
+		if(networkCheck != null) {
+			networkCheck.cancel(false);
+			networkCheck = null;
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>isNetworkUp</i></b>
+	 * <p>	<code>private static boolean isNetworkUp()</code>
+	 * <p>	Checks whether or not any network interface other than loopback is up and has an address.
+	 * @return <code>true</code> if the network is up, or if it cannot be checked; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	private static boolean isNetworkUp() {
+		try {
+			final Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+			while(interfaces != null && interfaces.hasMoreElements()) {
+				final NetworkInterface networkInterface = interfaces.nextElement();
+				if(networkInterface.isUp() && !networkInterface.isLoopback() && networkInterface.getInetAddresses().hasMoreElements()) {
+					return true;
+				}
+			}
+			return false;
+		} catch (SocketException se) {
+			return true;
+		}
+	}
+}
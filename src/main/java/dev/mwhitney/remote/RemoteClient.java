@@ -1,19 +1,25 @@
 package dev.mwhitney.remote;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-
-import javax.swing.Timer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.neovisionaries.ws.client.WebSocket;
 import com.neovisionaries.ws.client.WebSocketAdapter;
+import com.neovisionaries.ws.client.WebSocketCloseCode;
 import com.neovisionaries.ws.client.WebSocketException;
 import com.neovisionaries.ws.client.WebSocketFactory;
 import com.neovisionaries.ws.client.WebSocketFrame;
-import com.neovisionaries.ws.client.WebSocketState;
 
+import dev.mwhitney.enums.CommandOutcome;
 import dev.mwhitney.enums.RemoteCMD;
+import dev.mwhitney.enums.RemoteMessageType;
 import dev.mwhitney.listeners.MessageListener;
 
 /**
@@ -23,31 +29,92 @@ import dev.mwhitney.listeners.MessageListener;
  */
 public class RemoteClient {
 	
+	/** A <code>long</code> for the length of each window of the command latency histograms, in milliseconds. */
+	private static final long LATENCY_WINDOW = 300000;
+	/** A <code>long</code> for the ceiling of the first reconnection delay, in milliseconds. */
+	private static final long RECONNECT_BASE_DELAY = 1000;
+	/** A <code>long</code> for the highest ceiling of any reconnection delay, in milliseconds. */
+	private static final long RECONNECT_MAX_DELAY = 60000;
+	/** A <code>long</code> for how often a ping frame is sent to the server, in milliseconds. */
+	private static final long PING_INTERVAL = 20000;
+	/** A <code>long</code> for how long the server has to answer a ping with a pong before the connection is considered dead, in milliseconds. */
+	private static final long PONG_DEADLINE = 10000;
+	/** A <code>long</code> for how often the pong deadline is checked, in milliseconds. */
+	private static final long PONG_CHECK_INTERVAL = 1000;
+	
 	//	WebSocket Components
 	/** The <tt>WebSocketFactory</tt> used to create <tt>WebSocket</tt> instances. */
 	private WebSocketFactory webSocketFactory;
-	/** The <tt>WebSocket</tt> used to communicate with the server. */
-	private WebSocket webSocket;
+	/** The <tt>WebSocket</tt> used to communicate with the server. It is replaced on every reconnection attempt. */
+	private volatile WebSocket webSocket;
 	
 	//	Listeners
 	/** The <tt>MessageListener</tt> responsible for handling incoming messages. */
 	private MessageListener messageListener;
+	/** The <tt>RemoteCommandRouter</tt> which parses incoming messages and fires the <tt>MessageListener</tt>. */
+	private final RemoteCommandRouter commandRouter = new RemoteCommandRouter(this::commandCompleted);
+	/** The <tt>MessageListener</tt> given to the router, which answers latency queries itself and passes everything else on to the <tt>MessageListener</tt>. */
+	private final MessageListener routedListener = new MessageListener() {
+		@Override
+		public void messageReceived(String message) {
+			messageListener.messageReceived(message);
+		}
+		@Override
+		public void broadcastReceived(String broadcastMessage) {
+			messageListener.broadcastReceived(broadcastMessage);
+		}
+		@Override
+		public void commandReceived(RemoteCMD command, String[] args, CommandAck ack) {
+			if(command == RemoteCMD.STATS) {
+				send(RemoteMessageType.RESPONSE, getLatencyReport(), ack.getRequestId());
+				ack.complete(CommandOutcome.DONE);
+				return;
+			}
+			try {
+				messageListener.commandReceived(command, args, ack);
+			} catch (RuntimeException re) {
+				System.out.println("<!> Error running remote command " + command + ". (RE comRec)");
+				re.printStackTrace();
+				ack.complete(CommandOutcome.FAILED);
+			}
+		}
+		@Override
+		public void connectionMessageReceived(String connectionMessage) {
+			messageListener.connectionMessageReceived(connectionMessage);
+		}
+		@Override
+		public void responseMessageReceived(String responseMessage) {
+			messageListener.responseMessageReceived(responseMessage);
+		}
+	};
 	
 	//	Variables
-	/** A <tt>Timer</tt> used for keeping the connection to the server alive. */
-	private Timer keepAliveTimer = new Timer(20000, (actionEvent) -> {
-		//	If the WebSocket is open, send a keep-alive message.
-		if(webSocket.isOpen()) {
-			webSocket.sendText("#connection=keep-alive");
-		}
+	/** A <code>boolean</code> for whether or not the server agreed to binary framing for the current connection. */
+	private volatile boolean binaryFrames = false;
+	/** An <tt>AtomicInteger</tt> for the ID of the next request sent to the server in a binary frame. */
+	private final AtomicInteger nextRequestId = new AtomicInteger();
+	/** A <tt>Map</tt> with a <tt>LatencyHistogram</tt> of recent latencies for each <tt>RemoteCMD</tt>, from being received to being done. */
+	private final Map<RemoteCMD, LatencyHistogram> commandLatencies = new EnumMap<RemoteCMD, LatencyHistogram>(RemoteCMD.class);
+	/** A <tt>LatencyHistogram</tt> of recent round-trip times of pings to the server. */
+	private final LatencyHistogram pingLatency = new LatencyHistogram(LATENCY_WINDOW);
+	/** A <code>long</code> for the round-trip time of the last answered ping, in microseconds, or <code>-1</code> if none has been answered. */
+	private volatile long lastRoundTrip = -1;
+	/** A <code>boolean</code> for whether or not a ping was sent which the server has not answered yet. */
+	private volatile boolean awaitingPong = false;
+	/** A <code>long</code> for when the oldest unanswered ping was sent, from <code>System.nanoTime()</code>. */
+	private volatile long unansweredPingTime = 0;
+	/** A <tt>ScheduledExecutorService</tt> with a single daemon thread, used for checking that pings are answered in time. */
+	private final ScheduledExecutorService keepAliveExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "RemoteKeepAlive");
+		thread.setDaemon(true);
+		return thread;
 	});
-	/** A <tt>Timer</tt> used for reconnecting to the server if the connection is lost. */
-	private Timer reconnectTimer = new Timer(5000, (actionEvent) -> {
-		//	Attempt to reconnect.
-		if(!webSocket.isOpen() && webSocket.getState() != WebSocketState.CONNECTING) {
-			setupClient();
-			connectToServer();
-		}
+	/** The <tt>ReconnectScheduler</tt> used for reconnecting to the server if the connection is lost. */
+	private final ReconnectScheduler reconnectScheduler = new ReconnectScheduler(RECONNECT_BASE_DELAY, RECONNECT_MAX_DELAY, () -> {
+		//	Attempt to reconnect with a new WebSocket instance.
+		setupClient();
+		connectToServer();
+		return webSocket.isOpen();
 	});
 	
 	
@@ -59,6 +126,10 @@ public class RemoteClient {
 	 * </ul>
 	 */
 	public RemoteClient() {		
+		for(RemoteCMD command : RemoteCMD.values()) {
+			commandLatencies.put(command, new LatencyHistogram(LATENCY_WINDOW));
+		}
+		
 		//	WebSocket & Server Connection Setup
 		webSocketFactory = new WebSocketFactory();
 		webSocketFactory.setVerifyHostname(false);
@@ -66,7 +137,7 @@ public class RemoteClient {
 		connectToServer();
 		
 		//	General Setup
-		keepAliveTimer.start();
+		keepAliveExecutor.scheduleWithFixedDelay(this::checkPongDeadline, PONG_CHECK_INTERVAL, PONG_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
 	}
 	
 	/**
@@ -88,80 +159,71 @@ public class RemoteClient {
 		}
 		/* TODO: Ensure system has this environment variable set or it will fail to connect. */
 		webSocket.addHeader("token", System.getenv("PROJECT_ONE_SYSTEM"));
+		//	Offer binary framing. Servers which do not know it agree to no subprotocol, and text messages are used instead.
+		webSocket.addProtocol(RemoteFrame.PROTOCOL);
+		//	Keep the connection alive with ping frames, sent by the library's own thread. Each carries its send time, so the pong gives the round-trip time.
+		webSocket.setPingPayloadGenerator(() -> {
+			final long now = System.nanoTime();
+			if(!awaitingPong) {
+				unansweredPingTime = now;
+				awaitingPong = true;
+			}
+			return ByteBuffer.allocate(Long.BYTES).putLong(now).array();
+		});
+		webSocket.setPingInterval(PING_INTERVAL);
 		webSocket.addListener(new WebSocketAdapter() {
 			//	Connected to the server.
 			@Override
 			public void onConnected(WebSocket webSocket, Map<String, List<String>> headers) throws Exception {
-				System.out.println("<#> Connected to the server.");
+				binaryFrames = RemoteFrame.PROTOCOL.equals(webSocket.getAgreedProtocol());
+				awaitingPong = false;
+				System.out.println("<#> Connected to the server" + (binaryFrames ? " using binary frames." : "."));
 				
 				//	Don't continue any existing reconnection attempts.
-				if(reconnectTimer.isRunning()) {
-					reconnectTimer.stop();
-				}
+				reconnectScheduler.connected();
 				
-				//	Send first keep-alive message.
-				webSocket.sendText("#connection=keep-alive");
+				//	Announce the connection. Pings keep it alive from here on.
+				send(RemoteMessageType.CONNECTION, "keep-alive");
 			}
 			//	Disconnected from the server.
 			@Override
 			public void onDisconnected(WebSocket webSocket, WebSocketFrame serverCloseFrame, WebSocketFrame clientCloseFrame, boolean closedByServer) throws Exception {
+				//	Ignore sockets which were already replaced, such as one dropped for missing a pong.
+				if(webSocket != RemoteClient.this.webSocket) {
+					return;
+				}
 				System.out.println("<#> Disconnected from the server.");
 				
-				//	Set sleep time before attempting to reconnect.
-				reconnectTimer.start();
+				//	Attempt to reconnect after a backoff delay.
+				reconnectScheduler.disconnected();
+			}
+			//	Received a pong from the server, answering one of the pings.
+			@Override
+			public void onPongFrame(WebSocket webSocket, WebSocketFrame frame) throws Exception {
+				final byte[] payload = frame.getPayload();
+				awaitingPong = false;
+				if(payload != null && payload.length == Long.BYTES) {
+					lastRoundTrip = (System.nanoTime() - ByteBuffer.wrap(payload).getLong())/1000;
+					pingLatency.record(lastRoundTrip);
+				}
 			}
 			//	Received a message from the server.
 			@Override
 			public void onTextMessage(WebSocket webSocket, String message) throws Exception {
 				//	Fire the appropriate listener method based on the received message's type.
-				message = message.trim();
-				if(message.startsWith("#broadcast")) {
-					messageListener.broadcastReceived(message.replaceFirst("#broadcast=", "").trim());
-				}
-				else if(message.startsWith("#command")) {
-					//	Message and Variable Preparation
-					message = message.replaceFirst("#command=", "").trim();
-					RemoteCMD command = null;
-					String[] args = null;
-					
-					//	Command Handling
-					if(message.equals("!security:lock")) {
-						command = RemoteCMD.LOCK;
-					}
-					else if(message.startsWith("!security:unlock")) {
-						command = RemoteCMD.UNLOCK;
-						args = message.replaceFirst("!security:unlock", "").trim().split(" ");
-					}
-					else if(message.equals("!security:system:lock")) {
-						command = RemoteCMD.SYSTEM_LOCK;
-					}
-					else if(message.equals("!security:system:unlock")) {
-						command = RemoteCMD.SYSTEM_UNLOCK;
-					}
-					else if(message.equals("!security:manualunlocks:enable")) {
-						command = RemoteCMD.MANUALUNLOCKS_ENABLE;
-					}
-					else if(message.equals("!security:manualunlocks:disable")) {
-						command = RemoteCMD.MANUALUNLOCKS_DISABLE;
-					}
-					else {
-						command = RemoteCMD.UNRECOGNIZED;
-						if(message.length() > 40) message = message.substring(0, 39).concat("...");
-						System.out.println("<!> Unrecognized Command Received from Server: " + message);
-					}
-					
-					//	Forward Command and Arguments
-					messageListener.commandReceived(command, args);
-				}
-				else if(message.startsWith("#connection")) {
-					messageListener.connectionMessageReceived(message.replaceFirst("#connection=", "").trim());
-				}
-				else if(message.startsWith("#response")) {
-					messageListener.responseMessageReceived(message.replaceFirst("#response=", "").trim());
-				}
-				else {
-					messageListener.messageReceived(message);
+				commandRouter.route(message, routedListener);
+			}
+			//	Received a binary frame from the server.
+			@Override
+			public void onBinaryMessage(WebSocket webSocket, byte[] binary) throws Exception {
+				final RemoteFrame frame;
+				try {
+					frame = RemoteFrame.decode(binary);
+				} catch (IllegalArgumentException iae) {
+					System.out.println("<!> Malformed Binary Frame Received from Server: " + iae.getMessage());
+					return;
 				}
+				commandRouter.route(frame, routedListener);
 			}
 		});
 	}
@@ -171,6 +233,7 @@ public class RemoteClient {
 	 * <p>	<b><i>connectToServer</i></b>
 	 * <p>	<code>public void connectToServer()</code>
 	 * <p>	Connects to the communications server using the current <tt>WebSocket</tt> instance.
+	 * 		If it cannot connect, reconnection attempts are scheduled.
 	 * </ul>
 	 */
 	public void connectToServer() {
@@ -178,9 +241,23 @@ public class RemoteClient {
 			webSocket.connect();
 		} catch (WebSocketException wse) {
 			System.out.println("<!> Could not connect to server. (Is it down?)");
+			reconnectScheduler.disconnected();
 		}
 	}
 	
+	/**
+	 * <ul>
+	 * <p>	<b><i>reconnectNow</i></b>
+	 * <p>	<code>public void reconnectNow()</code>
+	 * <p>	Attempts to reconnect to the server right away, instead of waiting out the current backoff delay.
+	 * 		Intended for events which make the server likely to be reachable again, such as the network coming back up.
+	 * 		Does nothing if the connection is not lost.
+	 * </ul>
+	 */
+	public void reconnectNow() {
+		reconnectScheduler.retryNow();
+	}
+	
 	/**
 	 * <ul>
 	 * <p>	<b><i>disconnectFromServer</i></b>
@@ -191,6 +268,8 @@ public class RemoteClient {
 	 * </ul>
 	 */
 	public void disconnectFromServer() {
+		keepAliveExecutor.shutdownNow();
+		reconnectScheduler.shutdown();
 		webSocket.disconnect();
 	}
 	
@@ -210,17 +289,183 @@ public class RemoteClient {
 	 * <ul>
 	 * <p>	<b><i>sendMessage</i></b>
 	 * <p>	<code>public boolean sendMessage(String message)</code>
-	 * <p>	Sends the passed <tt>String</tt> message to the server.
+	 * <p>	Sends the passed <tt>String</tt> message to the server as a standard message.
 	 * @param message - the message to be sent to the server in the form of a <tt>String</tt>.
 	 * @return <code>true</code> if the message was sent successfully; <code>false</code> otherwise.
 	 * </ul>
 	 */
 	public boolean sendMessage(String message) {
-		if(webSocket.isOpen()) {
-			webSocket.sendText(message);
-			return true;
+		return send(RemoteMessageType.STANDARD, message);
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>send</i></b>
+	 * <p>	<code>public boolean send(RemoteMessageType type, String content)</code>
+	 * <p>	Sends a message of the passed type to the server.
+	 * 		If the server agreed to binary framing, the message is sent as a <tt>RemoteFrame</tt> with a new request ID.
+	 * 		Otherwise, it is sent as text with the type's prefix, such as <code>#connection=keep-alive</code>.
+	 * @param type - the <tt>RemoteMessageType</tt> of the message.
+	 * @param content - a <tt>String</tt> with the content of the message, without any type prefix.
+	 * @return <code>true</code> if the message was sent successfully; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public boolean send(RemoteMessageType type, String content) {
+		return send(type, content, 0);
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>send</i></b>
+	 * <p>	<code>public boolean send(RemoteMessageType type, String content, int requestId)</code>
+	 * <p>	Sends a message of the passed type to the server, as the reply to the request with the passed ID.
+	 * 		In binary frames, the ID is sent in the header. In text, it is sent before the content, such as <code>#ack=42 DONE ...</code>.
+	 * @param type - the <tt>RemoteMessageType</tt> of the message.
+	 * @param content - a <tt>String</tt> with the content of the message, without any type prefix.
+	 * @param requestId - an <code>int</code> for the ID of the request being replied to, or <code>0</code> if the message is not a reply.
+	 * @return <code>true</code> if the message was sent successfully; <code>false</code> otherwise.
+	 * @throws IllegalArgumentException if the type is <code>COMMAND</code> or <code>ACK</code> and binary framing is used, as their frames hold numbers rather than text.
+	 * </ul>
+	 */
+	public boolean send(RemoteMessageType type, String content, int requestId) {
+		if(!webSocket.isOpen()) {
+			return false;
+		}
+		if(binaryFrames) {
+			webSocket.sendBinary(new RemoteFrame(type, requestId != 0 ? requestId : nextRequestId.incrementAndGet(), content).encode());
+		}
+		else {
+			final String text = requestId != 0 ? requestId + " " + content : content;
+			webSocket.sendText(type.getPrefix() == null ? text : type.getPrefix() + "=" + text);
+		}
+		return true;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getCommandLatency</i></b>
+	 * <p>	<code>public LatencyHistogram getCommandLatency(RemoteCMD command)</code>
+	 * <p>	Gets the histogram of recent latencies for the passed command, from being received to being done.
+	 * @param command - the <tt>RemoteCMD</tt> to get the latencies of.
+	 * @return the <tt>LatencyHistogram</tt> of the command.
+	 * </ul>
+	 */
+	public LatencyHistogram getCommandLatency(RemoteCMD command) {
+		return commandLatencies.get(command);
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>checkPongDeadline</i></b>
+	 * <p>	<code>private void checkPongDeadline()</code>
+	 * <p>	Checks whether the server has left a ping unanswered for longer than the pong deadline.
+	 * 		If it has, the connection is considered dead, such as a half-open TCP connection, so it is dropped and a reconnection is attempted right away.
+	 * </ul>
+	 */
+	private void checkPongDeadline() {
+		final WebSocket deadSocket = webSocket;
+		if(!awaitingPong || !deadSocket.isOpen() || System.nanoTime() - unansweredPingTime < PONG_DEADLINE * 1000000) {
+			return;
+		}
+		awaitingPong = false;
+		System.out.println("<!> No pong from the server within " + PONG_DEADLINE + " ms. Reconnecting.");
+		reconnectScheduler.disconnected();
+		reconnectScheduler.retryNow();
+		deadSocket.disconnect(WebSocketCloseCode.AWAY, "pong timeout", 0);
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getRoundTripTime</i></b>
+	 * <p>	<code>public long getRoundTripTime()</code>
+	 * <p>	Gets the round-trip time of the last ping answered by the server.
+	 * @return a <code>long</code> for the time in microseconds, or <code>-1</code> if no ping has been answered.
+	 * </ul>
+	 */
+	public long getRoundTripTime() {
+		return lastRoundTrip;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getPingLatency</i></b>
+	 * <p>	<code>public LatencyHistogram getPingLatency()</code>
+	 * <p>	Gets the histogram of recent round-trip times of pings to the server.
+	 * @return the <tt>LatencyHistogram</tt> of ping round-trip times.
+	 * </ul>
+	 */
+	public LatencyHistogram getPingLatency() {
+		return pingLatency;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getReconnectAttempts</i></b>
+	 * <p>	<code>public long getReconnectAttempts()</code>
+	 * <p>	Gets the total number of attempts made to reconnect to the server since this <tt>RemoteClient</tt> was created.
+	 * @return a <code>long</code> for the number of attempts.
+	 * </ul>
+	 */
+	public long getReconnectAttempts() {
+		return reconnectScheduler.getReconnectAttempts();
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getDisconnectedTime</i></b>
+	 * <p>	<code>public long getDisconnectedTime()</code>
+	 * <p>	Gets the total time spent disconnected from the server since this <tt>RemoteClient</tt> was created, including the current outage.
+	 * @return a <code>long</code> for the time in milliseconds.
+	 * </ul>
+	 */
+	public long getDisconnectedTime() {
+		return reconnectScheduler.getDisconnectedTime();
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getLatencyReport</i></b>
+	 * <p>	<code>private String getLatencyReport()</code>
+	 * <p>	Gets a summary of the recent latencies of every command that has any, and of pings to the server, sent in reply to the <code>!stats:latency</code> command.
+	 * @return a <tt>String</tt> such as <code>latency UNLOCK count=12 p50=850 p90=1200 p99=3000 max=3100; LOCK ...; PING ...</code>, with latencies in microseconds.
+	 * </ul>
+	 */
+	private String getLatencyReport() {
+		final StringBuilder report = new StringBuilder("latency");
+		String separator = " ";
+		for(Map.Entry<RemoteCMD, LatencyHistogram> entry : commandLatencies.entrySet()) {
+			if(entry.getValue().getCount() > 0) {
+				report.append(separator).append(entry.getKey()).append(' ').append(entry.getValue());
+				separator = "; ";
+			}
+		}
+		if(pingLatency.getCount() > 0) {
+			report.append(separator).append("PING ").append(pingLatency);
+		}
+		return report.toString();
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>commandCompleted</i></b>
+	 * <p>	<code>private void commandCompleted(CommandAck ack)</code>
+	 * <p>	Records the latency of a completed command, then sends its acknowledgement if the server gave it an ID.
+	 * 		Commands without an ID come from servers which do not expect acknowledgements.
+	 * 		In binary framing, the outcome and times are sent as numbers rather than as the text of <code>CommandAck.toPayload()</code>.
+	 * @param ack - the completed <tt>CommandAck</tt>.
+	 * </ul>
+	 */
+	private void commandCompleted(CommandAck ack) {
+		commandLatencies.get(ack.getCommand()).record(ack.getTotalTime());
+		if(ack.getRequestId() == 0 || !webSocket.isOpen()) {
+			return;
+		}
+		if(binaryFrames) {
+			webSocket.sendBinary(ack.toFrame().encode());
+		}
+		else {
+			send(RemoteMessageType.ACK, ack.toPayload(), ack.getRequestId());
 		}
-		return false;
 	}
 	
 	/**
@@ -0,0 +1,344 @@
+package dev.mwhitney.remote;
+
+import java.util.function.Consumer;
+
+import dev.mwhitney.enums.RemoteCMD;
+import dev.mwhitney.enums.RemoteMessageType;
+import dev.mwhitney.listeners.MessageListener;
+
+/**
+ *
+ * Routes messages from the communications server, text or binary, to a <tt>MessageListener</tt>.
+ * Message type prefixes and command texts are looked up in prefix tries built once from <tt>RemoteMessageType</tt> and <tt>RemoteCMD</tt>,
+ * so a message is parsed in a single pass, without regular expressions or intermediate <tt>String</tt>s.
+ * Every command is passed on with a <tt>CommandAck</tt>, which carries the ID the server gave it.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class RemoteCommandRouter {
+
+	/** The first character that can be stored in the tries. Characters before it are whitespace or control characters. */
+	private static final char FIRST_CHAR = '!';
+	/** The last character that can be stored in the tries. */
+	private static final char LAST_CHAR = '~';
+	/** An empty array of <tt>String</tt>s, passed for commands without arguments. */
+	private static final String[] NO_ARGS = new String[0];
+
+	/** The root <tt>TrieNode</tt> of the trie with the prefix of every <tt>RemoteMessageType</tt>. */
+	private final TrieNode<RemoteMessageType> types = new TrieNode<RemoteMessageType>();
+	/** The root <tt>TrieNode</tt> of the trie with the text of every <tt>RemoteCMD</tt>. */
+	private final TrieNode<RemoteCMD> commands = new TrieNode<RemoteCMD>();
+	/** A <tt>Consumer</tt> given every <tt>CommandAck</tt> once it is completed. */
+	private final Consumer<CommandAck> ackHandler;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>RemoteCommandRouter</i></b>
+	 * <p>	<code>public RemoteCommandRouter(Consumer{@literal<CommandAck>} ackHandler)</code>
+	 * <p>	Creates a new <tt>RemoteCommandRouter</tt> which recognizes every <tt>RemoteMessageType</tt> and <tt>RemoteCMD</tt> that has a text.
+	 * @param ackHandler - a <tt>Consumer</tt> given the <tt>CommandAck</tt> of every routed command once it is completed.
+	 * </ul>
+	 */
+	public RemoteCommandRouter(Consumer<CommandAck> ackHandler) {
+		this.ackHandler = ackHandler;
+		for(RemoteMessageType type : RemoteMessageType.values()) {
+			if(type.getPrefix() != null) {
+				types.put(type.getPrefix(), type);
+			}
+		}
+		for(RemoteCMD command : RemoteCMD.values()) {
+			if(command.getText() != null) {
+				commands.put(command.getText(), command);
+			}
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>route</i></b>
+	 * <p>	<code>public void route(String message, MessageListener listener)</code>
+	 * <p>	Parses the passed message and fires the appropriate method of the passed listener.
+	 * 		Messages have the form <code>#type=content</code>, and commands have the form <code>#command=!ns:verb args</code>.
+	 * 		A command may be preceded by the ID the server gave it, as in <code>#command=42 !security:unlock 5</code>.
+	 * 		Surrounding whitespace is ignored, like the separators between arguments.
+	 * @param message - a <tt>String</tt> with the message received from the server.
+	 * @param listener - the <tt>MessageListener</tt> to fire.
+	 * </ul>
+	 */
+	public void route(String message, MessageListener listener) {
+		final long receivedTime = System.nanoTime();
+		int start = skipSpace(message, 0, message.length());
+		int end = message.length();
+		while(end > start && message.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		//	Find the message's type. No prefix is a prefix of another, so the first match is the only one.
+		RemoteMessageType type = RemoteMessageType.STANDARD;
+		TrieNode<RemoteMessageType> node = types;
+		for(int i = start; i < end && (node = node.child(message.charAt(i))) != null; i++) {
+			if(node.value != null) {
+				type = node.value;
+				start = i + 1;
+				if(start < end && message.charAt(start) == '=') {
+					start++;
+				}
+				start = skipSpace(message, start, end);
+				break;
+			}
+		}
+		dispatch(type, message, start, end, 0, receivedTime, listener);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>route</i></b>
+	 * <p>	<code>public void route(RemoteFrame frame, MessageListener listener)</code>
+	 * <p>	Fires the appropriate method of the passed listener for the passed binary frame.
+	 * 		The frame's type and command are already known from their tags, so nothing is parsed.
+	 * 		A command with arguments it does not take is treated as unrecognized, as the same command would be in a text message.
+	 * @param frame - the <tt>RemoteFrame</tt> received from the server.
+	 * @param listener - the <tt>MessageListener</tt> to fire.
+	 * </ul>
+	 */
+	public void route(RemoteFrame frame, MessageListener listener) {
+		final long receivedTime = System.nanoTime();
+		switch(frame.getType()) {
+		case BROADCAST:
+			listener.broadcastReceived(frame.getText());
+			break;
+		case COMMAND:
+			RemoteCMD command = frame.getCommand();
+			final long[] values = frame.getValues();
+			if(command != RemoteCMD.UNRECOGNIZED && values.length > 0 && !command.takesArgs()) {
+				System.out.println("<!> Unrecognized Command Received from Server: " + frame.getText());
+				command = RemoteCMD.UNRECOGNIZED;
+			}
+			String[] args = NO_ARGS;
+			if(command != RemoteCMD.UNRECOGNIZED && values.length > 0) {
+				args = new String[values.length];
+				for(int arg = 0; arg < values.length; arg++) {
+					args[arg] = String.valueOf(values[arg]);
+				}
+			}
+			listener.commandReceived(command, args, new CommandAck(frame.getRequestId(), command, receivedTime, ackHandler));
+			break;
+		case CONNECTION:
+			listener.connectionMessageReceived(frame.getText());
+			break;
+		case RESPONSE:
+		case ACK:
+			listener.responseMessageReceived(frame.getText());
+			break;
+		case STANDARD:
+			listener.messageReceived(frame.getText());
+			break;
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>dispatch</i></b>
+	 * <p>	<code>private void dispatch(RemoteMessageType type, String message, int start, int end, int requestId, long receivedTime, MessageListener listener)</code>
+	 * <p>	Fires the listener method for the passed type with the content in the passed part of the message.
+	 * @param type - the <tt>RemoteMessageType</tt> of the message.
+	 * @param message - a <tt>String</tt> with the message received from the server.
+	 * @param start - an <code>int</code> for the index where the content starts.
+	 * @param end - an <code>int</code> for the index after the last non-whitespace character of the message.
+	 * @param requestId - an <code>int</code> for the ID the server gave the message, or <code>0</code> if it may be in the content.
+	 * @param receivedTime - a <code>long</code> for when the message was received, from <code>System.nanoTime()</code>.
+	 * @param listener - the <tt>MessageListener</tt> to fire.
+	 * </ul>
+	 */
+	private void dispatch(RemoteMessageType type, String message, int start, int end, int requestId, long receivedTime, MessageListener listener) {
+		switch(type) {
+		case BROADCAST:
+			listener.broadcastReceived(message.substring(start, end));
+			break;
+		case COMMAND:
+			routeCommand(message, start, end, requestId, receivedTime, listener);
+			break;
+		case CONNECTION:
+			listener.connectionMessageReceived(message.substring(start, end));
+			break;
+		case RESPONSE:
+		case ACK:
+			listener.responseMessageReceived(message.substring(start, end));
+			break;
+		case STANDARD:
+			listener.messageReceived(message.substring(start, end));
+			break;
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>routeCommand</i></b>
+	 * <p>	<code>private void routeCommand(String message, int start, int end, int requestId, long receivedTime, MessageListener listener)</code>
+	 * <p>	Finds the command in the passed part of the message, splits its arguments, and fires <code>commandReceived</code>.
+	 * 		A command without arguments only matches if nothing follows it. A command with arguments matches if it is followed by whitespace or nothing.
+	 * 		If no request ID is passed, a leading number is read as the command's ID.
+	 * @param message - a <tt>String</tt> with the message received from the server.
+	 * @param start - an <code>int</code> for the index where the command starts.
+	 * @param end - an <code>int</code> for the index after the last non-whitespace character of the message.
+	 * @param requestId - an <code>int</code> for the ID the server gave the command, or <code>0</code> if it may be in the message.
+	 * @param receivedTime - a <code>long</code> for when the command was received, from <code>System.nanoTime()</code>.
+	 * @param listener - the <tt>MessageListener</tt> to fire.
+	 * </ul>
+	 */
+	private void routeCommand(String message, int start, int end, int requestId, long receivedTime, MessageListener listener) {
+		//	Commands start with '!', so a leading number can only be an ID.
+		if(requestId == 0 && start < end && Character.isDigit(message.charAt(start))) {
+			final int idEnd = skipWord(message, start, end);
+			try {
+				requestId = Integer.parseInt(message, start, idEnd, 10);
+			} catch (NumberFormatException nfe) {
+				//	Not a valid ID, so the command will not be recognized.
+			}
+			if(requestId != 0) {
+				start = skipSpace(message, idEnd, end);
+			}
+		}
+
+		RemoteCMD command = RemoteCMD.UNRECOGNIZED;
+		int argsStart = end;
+		TrieNode<RemoteCMD> node = commands;
+		for(int i = start; i < end && (node = node.child(message.charAt(i))) != null; i++) {
+			if(node.value != null && (i + 1 == end || (node.value.takesArgs() && message.charAt(i + 1) <= ' '))) {
+				command = node.value;
+				argsStart = i + 1;
+			}
+		}
+
+		if(command == RemoteCMD.UNRECOGNIZED) {
+			System.out.println("<!> Unrecognized Command Received from Server: " + (end - start > 40 ? message.substring(start, start + 39).concat("...") : message.substring(start, end)));
+			listener.commandReceived(command, NO_ARGS, new CommandAck(requestId, command, receivedTime, ackHandler));
+			return;
+		}
+		listener.commandReceived(command, splitArgs(message, argsStart, end), new CommandAck(requestId, command, receivedTime, ackHandler));
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>splitArgs</i></b>
+	 * <p>	<code>private String[] splitArgs(String message, int start, int end)</code>
+	 * <p>	Splits the passed part of the message into arguments separated by whitespace.
+	 * 		The arguments are counted first, so only the array and the arguments themselves are created.
+	 * @param message - a <tt>String</tt> with the message received from the server.
+	 * @param start - an <code>int</code> for the index where the arguments start.
+	 * @param end - an <code>int</code> for the index after the last non-whitespace character of the message.
+	 * @return an array of <tt>String</tt>s with the arguments, of length zero if there are none.
+	 * </ul>
+	 */
+	private String[] splitArgs(String message, int start, int end) {
+		int count = 0;
+		for(int i = skipSpace(message, start, end); i < end; i = skipSpace(message, skipWord(message, i, end), end)) {
+			count++;
+		}
+		if(count == 0) {
+			return NO_ARGS;
+		}
+
+		final String[] args = new String[count];
+		int i = skipSpace(message, start, end);
+		for(int arg = 0; arg < count; arg++) {
+			final int wordEnd = skipWord(message, i, end);
+			args[arg] = message.substring(i, wordEnd);
+			i = skipSpace(message, wordEnd, end);
+		}
+		return args;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>skipSpace</i></b>
+	 * <p>	<code>private static int skipSpace(String message, int index, int end)</code>
+	 * <p>	Skips whitespace, the same characters <code>String.trim()</code> removes.
+	 * @param message - a <tt>String</tt> with the message.
+	 * @param index - an <code>int</code> for the index to start at.
+	 * @param end - an <code>int</code> for the index to stop at.
+	 * @return an <code>int</code> for the index of the first non-whitespace character, or <code>end</code> if there is none.
+	 * </ul>
+	 */
+	private static int skipSpace(String message, int index, int end) {
+		while(index < end && message.charAt(index) <= ' ') {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>skipWord</i></b>
+	 * <p>	<code>private static int skipWord(String message, int index, int end)</code>
+	 * <p>	Skips non-whitespace characters.
+	 * @param message - a <tt>String</tt> with the message.
+	 * @param index - an <code>int</code> for the index to start at.
+	 * @param end - an <code>int</code> for the index to stop at.
+	 * @return an <code>int</code> for the index of the first whitespace character, or <code>end</code> if there is none.
+	 * </ul>
+	 */
+	private static int skipWord(String message, int index, int end) {
+		while(index < end && message.charAt(index) > ' ') {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 *
+	 * A node of a prefix trie, with a child for each printable ASCII character and the value stored at the end of a key, if any.
+	 *
+	 * @author Matthew Whitney
+	 *
+	 */
+	private static class TrieNode<T> {
+
+		/** An array with the child of this node for each character, indexed from <code>FIRST_CHAR</code>. */
+		private final Object[] children = new Object[LAST_CHAR - FIRST_CHAR + 1];
+		/** The value of the key ending at this node, or <code>null</code> if no key ends here. */
+		private T value = null;
+
+		/**
+		 * <ul>
+		 * <p>	<b><i>child</i></b>
+		 * <p>	<code>private TrieNode{@literal<T>} child(char c)</code>
+		 * <p>	Gets the child of this node for the passed character.
+		 * @param c - the <code>char</code> to follow.
+		 * @return the child <tt>TrieNode</tt>, or <code>null</code> if there is none.
+		 * </ul>
+		 */
+		@SuppressWarnings("unchecked")
+		private TrieNode<T> child(char c) {
+			return c < FIRST_CHAR || c > LAST_CHAR ? null : (TrieNode<T>) children[c - FIRST_CHAR];
+		}
+
+		/**
+		 * <ul>
+		 * <p>	<b><i>put</i></b>
+		 * <p>	<code>private void put(String key, T value)</code>
+		 * <p>	Stores the passed value under the passed key, creating nodes as needed.
+		 * @param key - a <tt>String</tt> of printable ASCII characters.
+		 * @param value - the value to store.
+		 * @throws IllegalArgumentException if the key has any other character.
+		 * </ul>
+		 */
+		private void put(String key, T value) {
+			TrieNode<T> node = this;
+			for(int i = 0; i < key.length(); i++) {
+				final char c = key.charAt(i);
+				if(c < FIRST_CHAR || c > LAST_CHAR) {
+					throw new IllegalArgumentException("Unsupported character in remote key: " + key);
+				}
+				TrieNode<T> next = node.child(c);
+				if(next == null) {
+					next = new TrieNode<T>();
+					node.children[c - FIRST_CHAR] = next;
+				}
+				node = next;
+			}
+			node.value = value;
+		}
+	}
+}
@@ -0,0 +1,363 @@
+package dev.mwhitney.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import dev.mwhitney.enums.CommandOutcome;
+import dev.mwhitney.enums.RemoteCMD;
+import dev.mwhitney.enums.RemoteMessageType;
+
+/**
+ *
+ * A message exchanged with the communications server in binary framing mode.
+ * Every frame starts with one byte holding the format version in its high four bits and the message's type tag in its low four bits,
+ * followed by the request ID as a variable-length integer, which takes one byte for IDs below 128.
+ * What follows depends on the type:
+ * <ul>
+ * <li>	Commands hold the <tt>RemoteCMD</tt>'s tag, then each argument as a variable-length integer.
+ * 		<code>#command=42 !security:unlock 5</code> is sent as 4 bytes.
+ * <li>	Acknowledgements hold the <tt>CommandOutcome</tt>'s tag, then the total time, queue wait and actuation time as variable-length integers.
+ * <li>	Every other type holds its text in UTF-8.
+ * </ul>
+ * Variable-length integers are sent 7 bits at a time, lowest first, with the high bit set on every byte but the last.
+ * Values which may be negative, such as arguments and times, are zigzag encoded first, so small negative values stay short.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class RemoteFrame {
+
+	/** The WebSocket subprotocol offered to the server for binary framing. Servers which do not agree to it are spoken to with text messages. */
+	public static final String PROTOCOL = "one-binary.v2";
+	/** A <code>byte</code> for the version of the frame format, sent in the high four bits of every frame's first byte. */
+	public static final byte VERSION = 2;
+	/** An empty array of <code>long</code>s, for frames without values. */
+	private static final long[] NO_VALUES = new long[0];
+
+	/** The <tt>RemoteMessageType</tt> of this frame. */
+	private final RemoteMessageType type;
+	/** An <code>int</code> for the ID of the request this frame belongs to, chosen by whoever started the request, or <code>0</code> if it has none. */
+	private final int requestId;
+	/** A <tt>String</tt> with the text of this frame, or <code>null</code> for commands and acknowledgements. */
+	private final String text;
+	/** The <tt>RemoteCMD</tt> of a command frame, or <code>null</code> for other frames. */
+	private final RemoteCMD command;
+	/** The <tt>CommandOutcome</tt> of an acknowledgement frame, or <code>null</code> for other frames. */
+	private final CommandOutcome outcome;
+	/** An array of <code>long</code>s with the arguments of a command, or the times of an acknowledgement. */
+	private final long[] values;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>RemoteFrame</i></b>
+	 * <p>	<code>public RemoteFrame(RemoteMessageType type, int requestId, String text)</code>
+	 * <p>	Creates a new <tt>RemoteFrame</tt> holding text, such as a connection message.
+	 * @param type - the <tt>RemoteMessageType</tt> of the frame. Must not be <code>COMMAND</code> or <code>ACK</code>, which have their own constructors.
+	 * @param requestId - an <code>int</code> for the ID of the request the frame belongs to, or <code>0</code> if it has none.
+	 * @param text - a <tt>String</tt> with the text of the frame.
+	 * @throws IllegalArgumentException if the type is <code>COMMAND</code> or <code>ACK</code>.
+	 * </ul>
+	 */
+	public RemoteFrame(RemoteMessageType type, int requestId, String text) {
+		this(type, requestId, text, null, null, NO_VALUES);
+		if(type == RemoteMessageType.COMMAND || type == RemoteMessageType.ACK) {
+			throw new IllegalArgumentException(type + " frames do not hold text");
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>RemoteFrame</i></b>
+	 * <p>	<code>public RemoteFrame(int requestId, RemoteCMD command, long... args)</code>
+	 * <p>	Creates a new command <tt>RemoteFrame</tt>.
+	 * @param requestId - an <code>int</code> for the ID the server gave the command, or <code>0</code> if it gave none.
+	 * @param command - the <tt>RemoteCMD</tt> to send.
+	 * @param args - the command's arguments, such as the seconds to keep the door unlocked for.
+	 * </ul>
+	 */
+	public RemoteFrame(int requestId, RemoteCMD command, long... args) {
+		this(RemoteMessageType.COMMAND, requestId, null, command, null, args);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>RemoteFrame</i></b>
+	 * <p>	<code>public RemoteFrame(int requestId, CommandOutcome outcome, long totalTime, long queueWait, long actuationTime)</code>
+	 * <p>	Creates a new acknowledgement <tt>RemoteFrame</tt>, with the same content as <code>CommandAck.toPayload()</code>.
+	 * @param requestId - an <code>int</code> for the ID of the command being acknowledged.
+	 * @param outcome - the <tt>CommandOutcome</tt> of the command.
+	 * @param totalTime - a <code>long</code> for how long the command took from being received to being done, in microseconds.
+	 * @param queueWait - a <code>long</code> for how long the command waited before the relay switched, in microseconds, or <code>-1</code>.
+	 * @param actuationTime - a <code>long</code> for how long the relay took to switch, in microseconds, or <code>-1</code>.
+	 * </ul>
+	 */
+	public RemoteFrame(int requestId, CommandOutcome outcome, long totalTime, long queueWait, long actuationTime) {
+		this(RemoteMessageType.ACK, requestId, null, null, outcome, new long[] { totalTime, queueWait, actuationTime });
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>RemoteFrame</i></b>
+	 * <p>	<code>private RemoteFrame(RemoteMessageType type, int requestId, String text, RemoteCMD command, CommandOutcome outcome, long[] values)</code>
+	 * <p>	Creates a new <tt>RemoteFrame</tt> with every field passed.
+	 * </ul>
+	 */
+	private RemoteFrame(RemoteMessageType type, int requestId, String text, RemoteCMD command, CommandOutcome outcome, long[] values) {
+		this.type = type;
+		this.requestId = requestId;
+		this.text = text;
+		this.command = command;
+		this.outcome = outcome;
+		this.values = values;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>encode</i></b>
+	 * <p>	<code>public byte[] encode()</code>
+	 * <p>	Encodes this frame into the bytes of a binary WebSocket message.
+	 * @return a <code>byte</code> array with the encoded frame.
+	 * </ul>
+	 */
+	public byte[] encode() {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(text != null ? 6 + text.length() * 3 : 6 + values.length * 10);
+		out.write(VERSION << 4 | type.getTag());
+		writeVarint(out, requestId & 0xFFFFFFFFL);
+		switch(type) {
+		case COMMAND:
+			out.write(command.getTag());
+			break;
+		case ACK:
+			out.write(outcome.getTag());
+			break;
+		default:
+			final byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+			out.write(textBytes, 0, textBytes.length);
+			return out.toByteArray();
+		}
+		for(long value : values) {
+			//	Zigzag encoding maps 0, -1, 1, -2... to 0, 1, 2, 3...
+			writeVarint(out, value << 1 ^ value >> 63);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>decode</i></b>
+	 * <p>	<code>public static RemoteFrame decode(byte[] data)</code>
+	 * <p>	Decodes the bytes of a binary WebSocket message into a <tt>RemoteFrame</tt>.
+	 * 		A command with a tag this client does not know is decoded as <code>UNRECOGNIZED</code>, so it can still be acknowledged.
+	 * @param data - a <code>byte</code> array with the encoded frame.
+	 * @return the decoded <tt>RemoteFrame</tt>.
+	 * @throws IllegalArgumentException if the data is truncated, has another version, or has an unknown type or outcome tag.
+	 * </ul>
+	 */
+	public static RemoteFrame decode(byte[] data) {
+		if(data.length == 0) {
+			throw new IllegalArgumentException("Binary frame is empty");
+		}
+		final int version = (data[0] & 0xFF) >>> 4;
+		if(version != VERSION) {
+			throw new IllegalArgumentException("Unsupported binary frame version: " + version);
+		}
+		final RemoteMessageType type = RemoteMessageType.fromTag((byte) (data[0] & 0x0F));
+		if(type == null) {
+			throw new IllegalArgumentException("Unknown binary frame type: " + (data[0] & 0x0F));
+		}
+
+		//	Decode the request ID, then the type's content.
+		final int[] position = { 1 };
+		final int requestId = (int) readVarint(data, position);
+		switch(type) {
+		case COMMAND:
+			final RemoteCMD command = RemoteCMD.fromTag(readByte(data, position));
+			return new RemoteFrame(type, requestId, null, command, null, readValues(data, position));
+		case ACK:
+			final byte outcomeTag = readByte(data, position);
+			final CommandOutcome outcome = CommandOutcome.fromTag(outcomeTag);
+			if(outcome == null) {
+				throw new IllegalArgumentException("Unknown command outcome: " + outcomeTag);
+			}
+			final long[] times = readValues(data, position);
+			if(times.length != 3) {
+				throw new IllegalArgumentException("Acknowledgement has " + times.length + " times instead of 3");
+			}
+			return new RemoteFrame(type, requestId, null, null, outcome, times);
+		default:
+			return new RemoteFrame(type, requestId, new String(data, position[0], data.length - position[0], StandardCharsets.UTF_8), null, null, NO_VALUES);
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>writeVarint</i></b>
+	 * <p>	<code>private static void writeVarint(ByteArrayOutputStream out, long value)</code>
+	 * <p>	Writes the passed value as a variable-length integer, treating it as unsigned.
+	 * @param out - the <tt>ByteArrayOutputStream</tt> to write to.
+	 * @param value - a <code>long</code> for the value to write.
+	 * </ul>
+	 */
+	private static void writeVarint(ByteArrayOutputStream out, long value) {
+		while((value & ~0x7FL) != 0) {
+			out.write((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>readVarint</i></b>
+	 * <p>	<code>private static long readVarint(byte[] data, int[] position)</code>
+	 * <p>	Reads a variable-length integer at the passed position, moving the position past it.
+	 * @param data - a <code>byte</code> array with the encoded frame.
+	 * @param position - an array holding the <code>int</code> index to read at.
+	 * @return a <code>long</code> for the value read.
+	 * @throws IllegalArgumentException if the integer is truncated or longer than 64 bits.
+	 * </ul>
+	 */
+	private static long readVarint(byte[] data, int[] position) {
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			final byte b = readByte(data, position);
+			value |= (long) (b & 0x7F) << shift;
+			if(b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Binary frame has an integer longer than 64 bits");
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>readValues</i></b>
+	 * <p>	<code>private static long[] readValues(byte[] data, int[] position)</code>
+	 * <p>	Reads the zigzag encoded values from the passed position to the end of the frame.
+	 * @param data - a <code>byte</code> array with the encoded frame.
+	 * @param position - an array holding the <code>int</code> index of the first value.
+	 * @return an array of <code>long</code>s with the values.
+	 * </ul>
+	 */
+	private static long[] readValues(byte[] data, int[] position) {
+		//	Every value takes at least one byte, so there are at most as many values as bytes left.
+		long[] values = new long[data.length - position[0]];
+		int count = 0;
+		while(position[0] < data.length) {
+			final long zigzag = readVarint(data, position);
+			values[count++] = zigzag >>> 1 ^ -(zigzag & 1);
+		}
+		if(count == 0) {
+			return NO_VALUES;
+		}
+		if(count < values.length) {
+			final long[] trimmed = new long[count];
+			System.arraycopy(values, 0, trimmed, 0, count);
+			values = trimmed;
+		}
+		return values;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>readByte</i></b>
+	 * <p>	<code>private static byte readByte(byte[] data, int[] position)</code>
+	 * <p>	Reads the byte at the passed position, moving the position past it.
+	 * @param data - a <code>byte</code> array with the encoded frame.
+	 * @param position - an array holding the <code>int</code> index to read at.
+	 * @return the <code>byte</code> read.
+	 * @throws IllegalArgumentException if the frame ends before the position.
+	 * </ul>
+	 */
+	private static byte readByte(byte[] data, int[] position) {
+		if(position[0] >= data.length) {
+			throw new IllegalArgumentException("Binary frame is truncated at " + data.length + " bytes");
+		}
+		return data[position[0]++];
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getType</i></b>
+	 * <p>	<code>public RemoteMessageType getType()</code>
+	 * <p>	Gets the type of this frame.
+	 * @return the <tt>RemoteMessageType</tt> of the frame.
+	 * </ul>
+	 */
+	public RemoteMessageType getType() {
+		return type;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getRequestId</i></b>
+	 * <p>	<code>public int getRequestId()</code>
+	 * <p>	Gets the ID of the request this frame belongs to, so replies can be matched with their requests.
+	 * @return an <code>int</code> for the request ID, or <code>0</code> if the frame has none.
+	 * </ul>
+	 */
+	public int getRequestId() {
+		return requestId;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getCommand</i></b>
+	 * <p>	<code>public RemoteCMD getCommand()</code>
+	 * <p>	Gets the command of a command frame.
+	 * @return the <tt>RemoteCMD</tt> of the frame, or <code>null</code> if it is not a command.
+	 * </ul>
+	 */
+	public RemoteCMD getCommand() {
+		return command;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getOutcome</i></b>
+	 * <p>	<code>public CommandOutcome getOutcome()</code>
+	 * <p>	Gets the outcome of an acknowledgement frame.
+	 * @return the <tt>CommandOutcome</tt> of the frame, or <code>null</code> if it is not an acknowledgement.
+	 * </ul>
+	 */
+	public CommandOutcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getValues</i></b>
+	 * <p>	<code>public long[] getValues()</code>
+	 * <p>	Gets the arguments of a command frame, or the total time, queue wait and actuation time of an acknowledgement frame.
+	 * 		The returned array is the frame's own, and must not be changed.
+	 * @return an array of <code>long</code>s with the values, of length zero for frames holding text.
+	 * </ul>
+	 */
+	public long[] getValues() {
+		return values;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getText</i></b>
+	 * <p>	<code>public String getText()</code>
+	 * <p>	Gets the content of this frame as text, which has no type prefix.
+	 * 		Commands and acknowledgements are written in their text form, such as <code>!security:unlock 5</code>.
+	 * @return a <tt>String</tt> with the content of the frame.
+	 * </ul>
+	 */
+	public String getText() {
+		if(text != null) {
+			return text;
+		}
+		final StringBuilder content = new StringBuilder();
+		if(type == RemoteMessageType.ACK) {
+			return content.append(outcome).append(" total=").append(values[0]).append(" queue=").append(values[1]).append(" relay=").append(values[2]).toString();
+		}
+		content.append(command.getText() != null ? command.getText() : command.toString());
+		for(long arg : values) {
+			content.append(' ').append(arg);
+		}
+		return content.toString();
+	}
+}
@@ -0,0 +1,199 @@
+package dev.mwhitney.security;
+
+import java.util.BitSet;
+
+/**
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class FingerprintRegistry {
+
+	/** A <tt>BitSet</tt> with a bit set for each registered fingerprint ID. */
+	private final BitSet fingerprintIDs;
+	/** A <tt>BitSet</tt> with a bit set for each fingerprint ID of a system Administrator. */
+	private final BitSet fingerprintAdmins;
+	/** An <code>int</code> for the maximum number of fingerprints that can be registered. */
+	private int capacity;
+	/** An <code>int</code> for the lowest fingerprint ID that may be free. No ID below it is free. */
+	private int lowestFreeID = 0;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>FingerprintRegistry</i></b>
+	 * <p>	<code>public FingerprintRegistry(int capacity)</code>
+	 * <p>	Creates a new, empty <tt>FingerprintRegistry</tt>.
+	 * <p>	All methods are thread-safe, so the registry may be shared between scanning threads and the interface.
+	 * @param capacity - an <code>int</code> for the maximum number of fingerprints, usually the fingerprint scanner's library size.
+	 * </ul>
+	 */
+	public FingerprintRegistry(int capacity) {
+		this.capacity = capacity;
+		fingerprintIDs = new BitSet(capacity);
+		fingerprintAdmins = new BitSet(capacity);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>setCapacity</i></b>
+	 * <p>	<code>public synchronized void setCapacity(int capacity)</code>
+	 * <p>	Sets the maximum number of fingerprints that can be registered, such as after reading the scanner's library size.
+	 * @param capacity - an <code>int</code> for the maximum number of fingerprints.
+	 * </ul>
+	 */
+	public synchronized void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>allocate</i></b>
+	 * <p>	<code>public synchronized int allocate()</code>
+	 * <p>	Registers and returns the lowest fingerprint ID that is not in use.
+	 * @return an <code>int</code> for the newly registered ID, or <code>-1</code> if the registry is full.
+	 * </ul>
+	 */
+	public synchronized int allocate() {
+		if(fingerprintIDs.cardinality() >= capacity) {
+			return -1;
+		}
+		final int fingerID = fingerprintIDs.nextClearBit(lowestFreeID);
+		add(fingerID);
+		return fingerID;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>add</i></b>
+	 * <p>	<code>public synchronized void add(int fingerID)</code>
+	 * <p>	Registers the passed fingerprint ID.
+	 * @param fingerID - the ID number of the fingerprint.
+	 * </ul>
+	 */
+	public synchronized void add(int fingerID) {
+		fingerprintIDs.set(fingerID);
+		if(fingerID == lowestFreeID) {
+			lowestFreeID = fingerprintIDs.nextClearBit(fingerID);
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>remove</i></b>
+	 * <p>	<code>public synchronized void remove(int fingerID)</code>
+	 * <p>	Unregisters the passed fingerprint ID, including its Administrator status.
+	 * @param fingerID - the ID number of the fingerprint.
+	 * </ul>
+	 */
+	public synchronized void remove(int fingerID) {
+		fingerprintIDs.clear(fingerID);
+		fingerprintAdmins.clear(fingerID);
+		lowestFreeID = Math.min(lowestFreeID, fingerID);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>contains</i></b>
+	 * <p>	<code>public synchronized boolean contains(int fingerID)</code>
+	 * <p>	Checks if the passed fingerprint ID is registered.
+	 * @param fingerID - the ID number of the fingerprint.
+	 * @return <code>true</code> if the ID is registered; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public synchronized boolean contains(int fingerID) {
+		return fingerID >= 0 && fingerprintIDs.get(fingerID);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>setAll</i></b>
+	 * <p>	<code>public synchronized void setAll(int[] fingerIDs)</code>
+	 * <p>	Replaces all registered fingerprint IDs with the passed ones. Administrator statuses are kept.
+	 * @param fingerIDs - an <code>int[]</code> array of the fingerprint IDs to register.
+	 * </ul>
+	 */
+	public synchronized void setAll(int[] fingerIDs) {
+		fingerprintIDs.clear();
+		for(int fingerID : fingerIDs) {
+			fingerprintIDs.set(fingerID);
+		}
+		lowestFreeID = fingerprintIDs.nextClearBit(0);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>size</i></b>
+	 * <p>	<code>public synchronized int size()</code>
+	 * <p>	Gets the number of registered fingerprints.
+	 * @return an <code>int</code> for the number of registered fingerprints.
+	 * </ul>
+	 */
+	public synchronized int size() {
+		return fingerprintIDs.cardinality();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getIDs</i></b>
+	 * <p>	<code>public synchronized int[] getIDs()</code>
+	 * <p>	Gets a snapshot of all registered fingerprint IDs in ascending order.
+	 * @return an <code>int[]</code> array of the registered fingerprint IDs.
+	 * </ul>
+	 */
+	public synchronized int[] getIDs() {
+		return fingerprintIDs.stream().toArray();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>isAdmin</i></b>
+	 * <p>	<code>public synchronized boolean isAdmin(int fingerID)</code>
+	 * <p>	Checks if the passed fingerprint ID belongs to an Administrator.
+	 * @param fingerID - the ID number of the fingerprint.
+	 * @return <code>true</code> if the fingerprint is an Administrator; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public synchronized boolean isAdmin(int fingerID) {
+		return fingerID >= 0 && fingerprintAdmins.get(fingerID);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>setAdmin</i></b>
+	 * <p>	<code>public synchronized void setAdmin(int fingerID, boolean admin)</code>
+	 * <p>	Sets whether or not the passed fingerprint ID belongs to an Administrator.
+	 * @param fingerID - the ID number of the fingerprint.
+	 * @param admin - <code>true</code> if the fingerprint is an Administrator; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public synchronized void setAdmin(int fingerID, boolean admin) {
+		fingerprintAdmins.set(fingerID, admin);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>setAllAdmins</i></b>
+	 * <p>	<code>public synchronized void setAllAdmins(int[] fingerIDs)</code>
+	 * <p>	Replaces all Administrator fingerprint IDs with the passed ones.
+	 * @param fingerIDs - an <code>int[]</code> array of the Administrators' fingerprint IDs.
+	 * </ul>
+	 */
+	public synchronized void setAllAdmins(int[] fingerIDs) {
+		fingerprintAdmins.clear();
+		for(int fingerID : fingerIDs) {
+			fingerprintAdmins.set(fingerID);
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getAdmins</i></b>
+	 * <p>	<code>public synchronized int[] getAdmins()</code>
+	 * <p>	Gets a snapshot of all Administrator fingerprint IDs in ascending order.
+	 * @return an <code>int[]</code> array of the Administrators' fingerprint IDs.
+	 * </ul>
+	 */
+	public synchronized int[] getAdmins() {
+		return fingerprintAdmins.stream().toArray();
+	}
+}
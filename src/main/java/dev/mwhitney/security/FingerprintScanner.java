@@ -3,16 +3,30 @@ package dev.mwhitney.security;
 import java.io.IOException;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.SwingUtilities;
 
+import dev.mwhitney.enums.AuthTier;
+import dev.mwhitney.enums.ScanState;
+import dev.mwhitney.enums.SensorPriority;
 import dev.mwhitney.main.NotificationPopup;
 import sk.mimac.fingerprint.FingerprintException;
 import sk.mimac.fingerprint.FingerprintSensor;
+import sk.mimac.fingerprint.MatchResult;
 import sk.mimac.fingerprint.adafruit.AdafruitSensor;
 
 /**
@@ -22,35 +36,116 @@ import sk.mimac.fingerprint.adafruit.AdafruitSensor;
  */
 public class FingerprintScanner {
 	
+	/** A <code>long</code> for how long a single command to the fingerprint scanner may take, including its time in the queue, in milliseconds. */
+	private static final long COMMAND_TIMEOUT = 5000;
+	/** A <code>long</code> for how long connecting to the fingerprint scanner may take, in milliseconds. Connecting may probe several baud rates. */
+	private static final long CONNECT_TIMEOUT = 15000;
+	/** An <code>int</code> for the number of fingerprint models uploaded per maintenance command, so a scan never waits on more than a few uploads. */
+	private static final int UPLOAD_CHUNK_SIZE = 8;
+	
 	/** A <tt>FingerprintSensor</tt> object that is responsible for communicating with the fingerprint scanner. */
-	private static FingerprintSensor sensor;
+	private final FingerprintSensor sensor;
+	/** A <tt>SensorExecutor</tt> which owns the fingerprint scanner and runs every command sent to it, one at a time. */
+	private final SensorExecutor sensorExecutor = new SensorExecutor();
+	/** A <tt>TouchSensor</tt> watching the fingerprint scanner's touch-sense output, or <code>null</code> to poll the scanner instead. */
+	private TouchSensor touchSensor = null;
+	/** A <tt>PollingSchedule</tt> for the delays between checks for a finger when the scanner is polled. */
+	private PollingSchedule pollingSchedule = new PollingSchedule(20, 320, 2, 1000);
 	/** An <code>int</code> for the ID of the last registered fingerprint in the system. */
 	private int lastRegisteredFingerprintID = -1;
-	/** An <code>int</code> for the amount of fingerprints registered in the system. */
-	private int fingerprintCount = 0;
-	/** An <code>int[]</code> array containing the ID numbers of all registered fingerprints. */
-	private List<Integer> fingerprintIDs = new ArrayList<Integer>();
-	/** An <code>int[]</code> array containing the fingerprint ID numbers of system Administrators. */
-	private List<Integer> fingerprintAdmins = new ArrayList<Integer>();
+	/** An <code>int</code> for the baud rate currently used to communicate with the fingerprint scanner. */
+	private int baudRate = 57600;
+	/** An <code>int</code> for the number of fingerprint models the fingerprint scanner can store. */
+	private int librarySize = 256;
+	/** An <code>int</code> for the number of positions at the top of the fingerprint scanner's library reserved for Administrator fingerprints. */
+	private int adminPartitionSize = 16;
+	/** A <tt>Map</tt> with the position on the fingerprint scanner of each registered fingerprint ID. Both page maps are only changed while holding this scanner's lock, so they always agree. */
+	private Map<Integer, Integer> fingerprintPages = new ConcurrentHashMap<Integer, Integer>();
+	/** A <tt>Map</tt> with the registered fingerprint ID stored at each position on the fingerprint scanner. */
+	private Map<Integer, Integer> pageFingerprints = new ConcurrentHashMap<Integer, Integer>();
+	/** A <tt>FingerprintRegistry</tt> with the ID numbers of all registered fingerprints and which of them are system Administrators. */
+	private final FingerprintRegistry registry = new FingerprintRegistry(librarySize);
 	
-	/** A <code>boolean</code> for whether or not a scan is underway. */
-	private boolean isScanning = false;
-	/** A <code>boolean</code> for whether or not a scan is actively being cancelled. */
-	private boolean cancellingScan = false;
+	/** A <tt>Map</tt> with the minimum match confidence required for each <tt>AuthTier</tt>. */
+	private final Map<AuthTier, Integer> confidenceThresholds = new EnumMap<AuthTier, Integer>(AuthTier.class);
+	/** A <tt>MatchResult</tt> for the last successful fingerprint scan, or <code>null</code> if the last scan found no match. */
+	private MatchResult lastMatch = null;
+	/** A <code>long</code> for how long the last successful image capture took, in nanoseconds. */
+	private long captureTime = 0;
+	/** A <code>long</code> for how long the last feature extraction took, in nanoseconds. */
+	private long extractTime = 0;
+	
+	/** An <tt>AtomicReference</tt> holding the <tt>ScanSession</tt> of the current or last fingerprint scan, or <code>null</code> if there is none. */
+	private final AtomicReference<ScanSession> scanSession = new AtomicReference<ScanSession>();
 	
 	/**
 	 * <ul>
 	 * <p>	<b><i>FingerprintScanner</i></b>
 	 * <p>	<code>public FingerprintScanner()</code>
-	 * <p>	Creates a new <tt>FingerprintScanner</tt>.
+	 * <p>	Creates a new <tt>FingerprintScanner</tt>, first trying to connect at the scanner's factory default baud rate of 57600.
 	 * <p>	Note: There should only be one object of this class active at a time.
 	 * </ul>
 	 */
 	public FingerprintScanner() {
+		this(57600);
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>FingerprintScanner</i></b>
+	 * <p>	<code>public FingerprintScanner(int baudRate)</code>
+	 * <p>	Creates a new <tt>FingerprintScanner</tt>, first trying to connect at the passed baud rate.
+	 * 		The scanner keeps a negotiated baud rate after a restart, so passing the rate last negotiated avoids probing the factory default first.
+	 * 		If there is no reply at the passed rate, the other rates are tried, starting with 57600.
+	 * <p>	Note: There should only be one object of this class active at a time.
+	 * @param baudRate - an <code>int</code> for the baud rate to try first.
+	 * </ul>
+	 */
+	public FingerprintScanner(int baudRate) {
 		//	Creates the FingerprintSensor object and gives it the serial port to connect to later.
 		//	For GPIO, used '/dev/ttyS0'
-		sensor = new AdafruitSensor("/dev/ttyUSB0");
-		connectSensor();
+		this(new AdafruitSensor("/dev/ttyUSB0", baudRate));
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>FingerprintScanner</i></b>
+	 * <p>	<code>public FingerprintScanner(FingerprintSensor fingerprintSensor)</code>
+	 * <p>	Creates a new <tt>FingerprintScanner</tt> which communicates through the passed <tt>FingerprintSensor</tt>.
+	 * 		This allows the scanner to run against the <tt>AdafruitSensorEmulator</tt> of the tests and benchmarks instead of the hardware, such as to measure scan throughput and latency.
+	 * <p>	Note: Each scanner only talks to its own sensor, so there should only be one object of this class active per sensor.
+	 * @param fingerprintSensor - the <tt>FingerprintSensor</tt> to connect to and send every command to.
+	 * </ul>
+	 */
+	public FingerprintScanner(FingerprintSensor fingerprintSensor) {
+		sensor = fingerprintSensor;
+		for(AuthTier tier : AuthTier.values()) {
+			confidenceThresholds.put(tier, tier.getDefaultThreshold());
+		}
+		if(connectSensor()) {
+			readLibrarySize();
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>readLibrarySize</i></b>
+	 * <p>	<code>private void readLibrarySize()</code>
+	 * <p>	Reads the number of fingerprint models the fingerprint scanner can store.
+	 * 		If it cannot be read, the previous size is kept.
+	 * </ul>
+	 */
+	private void readLibrarySize() {
+		try {
+			final int size = execute(SensorPriority.INTERACTIVE, COMMAND_TIMEOUT, () -> sensor.readParameters()).getLibrarySize();
+			if(size > 0) {
+				librarySize = size;
+				registry.setCapacity(size);
+			}
+		} catch (FingerprintException fe) {
+			System.out.println("<!> Error reading sensor parameters. (FE reaLibSiz)");
+			fe.printStackTrace();
+		}
 	}
 	
 	/**
@@ -63,7 +158,10 @@ public class FingerprintScanner {
 	 */
 	private boolean connectSensor() {
 		try {
-			sensor.connect();
+			execute(SensorPriority.INTERACTIVE, CONNECT_TIMEOUT, () -> {
+				sensor.connect();
+				return null;
+			});
 		} catch (FingerprintException fe) {
 			System.out.println("<!> Error connecting sensor. (FE conSen)");
 			fe.printStackTrace();
@@ -72,6 +170,40 @@ public class FingerprintScanner {
 		return true;
 	}
 	
+	/**
+	 * <ul>
+	 * <p>	<b><i>negotiateBaudRate</i></b>
+	 * <p>	<code>public int negotiateBaudRate(int targetBaudRate)</code>
+	 * <p>	Raises the baud rate used to communicate with the fingerprint scanner to the passed rate, if the scanner supports it.
+	 * 		The scanner is reconnected at the new rate. If the handshake at the new rate fails, the connection falls back to the previous rate.
+	 * <p>	A higher baud rate mostly speeds up transferring fingerprint models, such as during the startup model sync.
+	 * @param targetBaudRate - an <code>int</code> for the desired baud rate. Must be a multiple of 9600, up to 115200.
+	 * @return the baud rate in use after the negotiation.
+	 * </ul>
+	 */
+	public int negotiateBaudRate(int targetBaudRate) {
+		try {
+			baudRate = execute(SensorPriority.INTERACTIVE, CONNECT_TIMEOUT, () -> sensor.negotiateBaudRate(targetBaudRate));
+		} catch (FingerprintException | IllegalArgumentException e) {
+			System.out.println("<!> Error negotiating sensor baud rate. (FE negBauRat)");
+			e.printStackTrace();
+		}
+		System.out.println("<#> Sensor baud rate: " + baudRate);
+		return baudRate;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getBaudRate</i></b>
+	 * <p>	<code>public int getBaudRate()</code>
+	 * <p>	Gets the baud rate currently used to communicate with the fingerprint scanner.
+	 * @return an <code>int</code> for the baud rate in use.
+	 * </ul>
+	 */
+	public int getBaudRate() {
+		return baudRate;
+	}
+	
 	/**
 	 * <ul>
 	 * <p>	<b><i>disconnectSensor</i></b>
@@ -79,10 +211,12 @@ public class FingerprintScanner {
 	 * <p>	Disconnects the fingerprint scanner.
 	 * <p>	<b>WARNING:</b> This method closes the connection to the fingerprint scanner.
 	 * 		It is only intended to be used before exiting the application.
+	 * 		Any queued command is dropped and any ongoing scan is ended first.
 	 * @return <code>true</code> if the connection was successfully closed; <code>false</code> otherwise.
 	 * </ul>
 	 */
 	public boolean disconnectSensor() {
+		sensorExecutor.shutdown();
 		try {
 			sensor.close();
 		} catch (IOException ioe) {
@@ -93,12 +227,77 @@ public class FingerprintScanner {
 		return true;
 	}
 	
+	/**
+	 * <ul>
+	 * <p>	<b><i>execute</i></b>
+	 * <p>	<code>private {@literal<T>} T execute(SensorPriority priority, long timeout, Callable{@literal<T>} command) throws FingerprintException</code>
+	 * <p>	Runs the passed command on the fingerprint scanner's <tt>SensorExecutor</tt> and waits for its result.
+	 * @param priority - the <tt>SensorPriority</tt> of the command.
+	 * @param timeout - a <code>long</code> for how long the command may take, including its time in the queue, in milliseconds. <code>0</code> for no deadline.
+	 * @param command - a <tt>Callable</tt> which communicates with the fingerprint scanner.
+	 * @return the result of the command.
+	 * @throws FingerprintException if the command failed, missed its deadline or could not be run.
+	 * </ul>
+	 */
+	private <T> T execute(SensorPriority priority, long timeout, Callable<T> command) throws FingerprintException {
+		try {
+			return sensorExecutor.submit(priority, timeout, command).get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new FingerprintException("Interrupted while waiting for sensor command", "sensor.interrupted", ie);
+		} catch (ExecutionException ee) {
+			final Throwable cause = ee.getCause();
+			if(cause instanceof FingerprintException) {
+				throw (FingerprintException) cause;
+			}
+			else if(cause instanceof TimeoutException) {
+				throw new FingerprintException("Sensor command missed its deadline of " + timeout + " ms", "sensor.not.responding", cause);
+			}
+			else if(cause instanceof RejectedExecutionException) {
+				throw new FingerprintException(cause.getMessage(), "sensor.cant.write", cause);
+			}
+			else if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new FingerprintException("Sensor command failed", "sensor.bad.data", cause);
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>saveModelsInChunks</i></b>
+	 * <p>	<code>private Map{@literal<Integer, FingerprintException>} saveModelsInChunks(Map{@literal<Integer, byte[]>} pageModels)</code>
+	 * <p>	Saves the passed fingerprint models on the scanner as a series of small maintenance commands.
+	 * 		A scan started in the meantime runs between two chunks, instead of waiting for the whole upload.
+	 * @param pageModels - a set of fingerprint models and their respective positions on the scanner.
+	 * @return a <tt>Map{@literal<Integer, FingerprintException>}</tt> of the positions that could not be saved and their errors.
+	 * </ul>
+	 */
+	private Map<Integer, FingerprintException> saveModelsInChunks(Map<Integer, byte[]> pageModels) {
+		final Map<Integer, FingerprintException> failures = new HashMap<Integer, FingerprintException>();
+		final List<Map.Entry<Integer, byte[]>> pending = new ArrayList<Map.Entry<Integer, byte[]>>(pageModels.entrySet());
+		for(int start = 0; start < pending.size(); start += UPLOAD_CHUNK_SIZE) {
+			final Map<Integer, byte[]> chunk = new HashMap<Integer, byte[]>();
+			for(Map.Entry<Integer, byte[]> pageModel : pending.subList(start, Math.min(start + UPLOAD_CHUNK_SIZE, pending.size()))) {
+				chunk.put(pageModel.getKey(), pageModel.getValue());
+			}
+			try {
+				failures.putAll(execute(SensorPriority.MAINTENANCE, 0, () -> sensor.saveModels(chunk)));
+			} catch (FingerprintException fe) {
+				for(Integer page : chunk.keySet()) {
+					failures.put(page, fe);
+				}
+			}
+		}
+		return failures;
+	}
+	
 	/**
 	 * <ul>
 	 * <p>	<b><i>scanFingerprint</i></b>
 	 * <p>	<code>public int scanFingerprint()</code>
 	 * <p>	Scans for an authorized fingerprint.
-	 * <p>	Checks for a finger on the scanner every 100 milliseconds.
+	 * <p>	Waits for a finger on the scanner using {@link #captureFingerprint(ScanSession)}.
 	 * 		Once a finger is detected, it is scanned and compared.
 	 * 		If the fingerprint is recognized; the method returns its ID number.
 	 * 		If the fingerprint is not recognized; the method returns <code>-1</code>.
@@ -108,36 +307,55 @@ public class FingerprintScanner {
 	 * </ul>
 	 */
 	public int scanFingerprint(NotificationPopup statusNotification) {
-		isScanning = true;
-		
+		final ScanSession session = startScanSession();
+		try {
+			return execute(SensorPriority.AUTHENTICATION, 0, () -> performScan(session));
+		} catch (FingerprintException fe) {
+			System.out.println("<!> Error scanning fingerprint. (FE scaFin2)");
+			fe.printStackTrace();
+			return -1;
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>performScan</i></b>
+	 * <p>	<code>private int performScan(ScanSession session)</code>
+	 * <p>	Performs the scan started by {@link #scanFingerprint(NotificationPopup)} on the sensor's thread.
+	 * @param session - the <tt>ScanSession</tt> of the scan.
+	 * @return the scanned fingerprint's ID number if it is registered; <code>-1</code> otherwise. Returns <code>-2</code> if the scan was cancelled.
+	 * </ul>
+	 */
+	private int performScan(ScanSession session) {
 		try {
 			//	Wait for a finger to placed on the scanner, then scan the fingerprint.
-			while (!sensor.hasFingerprint()) {
-				System.out.println("Checked for finger...");
-				if(cancellingScan) {
-					System.out.println("...I'm supposed to cancel!");
-					return -2;
-				}
-				Thread.sleep(100);
+			if (!session.begin() || !captureFingerprint(session)) {
+				return -2;
 			}
 			
 			//	Check if the fingerprint is authorized.
-			final Integer fingerID = sensor.searchFingerprint();
+			final Integer fingerID = searchFingerprint(session, 0, librarySize);
 			if (fingerID != null) {
 				//	The fingerprint is known and authorized.
 				System.out.println("## Scanned: Fingerprint ID #" + fingerID);
-				isScanning = false;
 				return fingerID;
 			}
 		} catch (FingerprintException fe) {
+			if(session.isCancelled()) {
+				return -2;
+			}
 			System.out.println("<!> Error scanning fingerprint. (FE scaFin)");
 			fe.printStackTrace();
 		} catch (InterruptedException ie) {
+			if(session.isCancelled()) {
+				return -2;
+			}
 			System.out.println("<!> Error scanning fingerprint. (IE scaFin)");
 			ie.printStackTrace();
+		} finally {
+			session.finish();
 		}
 		//	The fingerprint has not been authorized.
-		isScanning = false;
 		return -1;
 	}
 	
@@ -146,59 +364,417 @@ public class FingerprintScanner {
 	 * <p>	<b><i>scanFingerprintAdmin</i></b>
 	 * <p>	<code>public boolean scanFingerprintAdmin()</code>
 	 * <p>	Scans for an authorized, Administrator-level fingerprint.
-	 * <p>	Checks for a finger on the scanner every 100 milliseconds.
-	 * 		Once a finger is detected, it is scanned and compared.
-	 * 		If the fingerprint is authorized and designated as an Administrator; the method returns <code>true</code>.
+	 * <p>	Waits for a finger on the scanner using {@link #captureFingerprint(ScanSession)}.
+	 * 		Once a finger is detected, it is scanned and compared against the Administrator partition of the scanner's library only.
+	 * 		If the fingerprint is authorized, designated as an Administrator and matched with the <code>ADMIN</code> tier's confidence; the method returns <code>true</code>.
 	 * 		If the fingerprint has not been authorized or is not designated as an Administrator; the method returns <code>false</code>.
 	 * @param statusNotification - the <tt>NotificationPopup</tt> to display status notifications on.
 	 * @return <code>true</code> if the fingerprint is authorized and an Administrator; <code>false</code> otherwise.
 	 * </ul>
 	 */
 	public boolean scanFingerprintAdmin(NotificationPopup statusNotification) {
-		isScanning = true;
-		
+		final ScanSession session = startScanSession();
+		try {
+			return execute(SensorPriority.AUTHENTICATION, 0, () -> performAdminScan(session));
+		} catch (FingerprintException fe) {
+			System.out.println("<!> Error scanning admin fingerprint. (FE scaFinAdm2)");
+			fe.printStackTrace();
+			return false;
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>performAdminScan</i></b>
+	 * <p>	<code>private boolean performAdminScan(ScanSession session)</code>
+	 * <p>	Performs the scan started by {@link #scanFingerprintAdmin(NotificationPopup)} on the sensor's thread.
+	 * @param session - the <tt>ScanSession</tt> of the scan.
+	 * @return <code>true</code> if the fingerprint is authorized and an Administrator; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	private boolean performAdminScan(ScanSession session) {
 		try {
 			//	Wait for a finger to placed on the scanner, then scan the fingerprint.
-			while (!sensor.hasFingerprint()) {
-				System.out.println("Checked for finger...");
-				if(cancellingScan) {
-					System.out.println("...I'm supposed to cancel!");
-					return false;
-				}
-				Thread.sleep(100);
+			if (!session.begin() || !captureFingerprint(session)) {
+				return false;
 			}
 			
-			//	Check if the fingerprint is authorized.
-			final Integer fingerID = sensor.searchFingerprint();
-			if (fingerID != null && fingerprintAdmins.contains(fingerID)) {
+			//	Check if the fingerprint is authorized. Only the Administrator partition is searched.
+			final Integer fingerID = searchFingerprint(session, getAdminPartitionStart(), librarySize - getAdminPartitionStart());
+			if (fingerID != null && registry.isAdmin(fingerID) && meetsConfidence(AuthTier.ADMIN)) {
 				//	The fingerprint is known and authorized.
 				System.out.println("## Scanned Admin: Fingerprint ID #" + fingerID);
-				isScanning = false;
 				return true;
 			}
 		} catch (FingerprintException fe) {
-			System.out.println("<!> Error scanning admin fingerprint. (FE scaFinAdm)");
-			fe.printStackTrace();
+			if(!session.isCancelled()) {
+				System.out.println("<!> Error scanning admin fingerprint. (FE scaFinAdm)");
+				fe.printStackTrace();
+			}
 		} catch (InterruptedException ie) {
-			System.out.println("<!> Error scanning admin fingerprint. (IE scaFinAdm)");
-			ie.printStackTrace();
+			if(!session.isCancelled()) {
+				System.out.println("<!> Error scanning admin fingerprint. (IE scaFinAdm)");
+				ie.printStackTrace();
+			}
+		} finally {
+			session.finish();
 		}
 		//	The fingerprint has not been authorized or is not an Administrator.
-		isScanning = false;
 		return false;
 	}
 	
+	/**
+	 * <ul>
+	 * <p>	<b><i>captureFingerprint</i></b>
+	 * <p>	<code>private boolean captureFingerprint(ScanSession session) throws FingerprintException, InterruptedException</code>
+	 * <p>	Waits for a finger on the scanner, then extracts the features of its fingerprint into the scanner's first slot.
+	 * <p>	Features are only extracted after an image was captured. If the image is not clear enough, the finger is captured again.
+	 * @param session - the <tt>ScanSession</tt> of the scan, which is moved into the <code>CAPTURING</code> state during extraction.
+	 * @return <code>true</code> once the fingerprint's features have been extracted; <code>false</code> if the scan was cancelled.
+	 * @throws FingerprintException if there is a problem communicating with the fingerprint scanner.
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 * </ul>
+	 */
+	private boolean captureFingerprint(ScanSession session) throws FingerprintException, InterruptedException {
+		while (true) {
+			if(!waitForFinger(session) || !session.advance(ScanState.CAPTURING)) {
+				return false;
+			}
+			final long extractStart = System.nanoTime();
+			final boolean extracted = sensor.extractFeatures(1);
+			extractTime = System.nanoTime() - extractStart;
+			if(extracted) {
+				return true;
+			}
+			System.out.println("<#> Fingerprint image unclear, capturing again.");
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>searchFingerprint</i></b>
+	 * <p>	<code>private Integer searchFingerprint(ScanSession session, int startPage, int count) throws FingerprintException</code>
+	 * <p>	Searches part of the fingerprint scanner's stored models for the fingerprint captured by {@link #captureFingerprint(ScanSession)}.
+	 * 		Prints how long the capture, extraction and search stages of the scan took.
+	 * @param session - the <tt>ScanSession</tt> of the scan, which is moved into the <code>MATCHING</code> state.
+	 * @param startPage - an <code>int</code> for the first position on the scanner to search.
+	 * @param count - an <code>int</code> for the number of positions to search.
+	 * @return an <tt>Integer</tt> for the ID of the matching fingerprint, or <code>null</code> if none matches.
+	 * @throws FingerprintException if there is a problem communicating with the fingerprint scanner.
+	 * </ul>
+	 */
+	private Integer searchFingerprint(ScanSession session, int startPage, int count) throws FingerprintException {
+		session.advance(ScanState.MATCHING);
+		final long searchStart = System.nanoTime();
+		lastMatch = sensor.search(1, startPage, count);
+		final long searchTime = System.nanoTime() - searchStart;
+		System.out.println("<#> Scan timings: capture " + captureTime/1000000 + " ms, extract " + extractTime/1000000 + " ms, search " + searchTime/1000000 + " ms."
+				+ (lastMatch != null ? " Confidence: " + lastMatch.getConfidence() : ""));
+		return lastMatch != null ? pageFingerprints.get(lastMatch.getId()) : null;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>meetsConfidence</i></b>
+	 * <p>	<code>public boolean meetsConfidence(AuthTier tier)</code>
+	 * <p>	Checks whether or not the last scanned fingerprint was matched with enough confidence for the passed <tt>AuthTier</tt>.
+	 * <p>	This allows stricter matching for sensitive actions without changing the fingerprint scanner's security level before each scan.
+	 * @param tier - the <tt>AuthTier</tt> of the action being authorized.
+	 * @return <code>true</code> if the last scan matched with at least the tier's minimum confidence; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public boolean meetsConfidence(AuthTier tier) {
+		return lastMatch != null && lastMatch.getConfidence() >= confidenceThresholds.get(tier);
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setConfidenceThreshold</i></b>
+	 * <p>	<code>public void setConfidenceThreshold(AuthTier tier, int threshold)</code>
+	 * <p>	Sets the minimum match confidence required for the passed <tt>AuthTier</tt>.
+	 * @param tier - the <tt>AuthTier</tt> to set the minimum confidence of.
+	 * @param threshold - an <code>int</code> for the minimum confidence.
+	 * </ul>
+	 */
+	public void setConfidenceThreshold(AuthTier tier, int threshold) {
+		confidenceThresholds.put(tier, threshold);
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>waitForFinger</i></b>
+	 * <p>	<code>private boolean waitForFinger(ScanSession session) throws FingerprintException, InterruptedException</code>
+	 * <p>	Waits for a finger to be placed on the scanner and captures its image. No features are extracted.
+	 * <p>	If a <tt>TouchSensor</tt> is set, the thread sleeps until the scanner's touch-sense output signals a touch,
+	 * 		and the image is only captured then. Otherwise, the scanner is checked for a finger following the <tt>PollingSchedule</tt>.
+	 * 		Polling starts fast, so a finger placed right away is captured quickly, then backs off while no finger is placed.
+	 * 		A failed capture backs off the same way with a <tt>TouchSensor</tt> too, since a partial or wet finger keeps signalling a touch.
+	 * <p>	Cancelling the session interrupts this thread, which ends any sleep or wait for the scanner immediately.
+	 * @param session - the <tt>ScanSession</tt> of the scan, which is moved into the <code>WAITING</code> state.
+	 * @return <code>true</code> once an image has been captured; <code>false</code> if the scan was cancelled.
+	 * @throws FingerprintException if there is a problem communicating with the fingerprint scanner.
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 * </ul>
+	 */
+	private boolean waitForFinger(ScanSession session) throws FingerprintException, InterruptedException {
+		pollingSchedule.reset();
+		while (true) {
+			if(!session.advance(ScanState.WAITING)) {
+				System.out.println("<#> Fingerprint scan cancelled.");
+				return false;
+			}
+			//	Only query the scanner once it reports a touch.
+			if(touchSensor != null && !touchSensor.awaitTouch(100)) {
+				continue;
+			}
+			final long captureStart = System.nanoTime();
+			if(sensor.captureImage()) {
+				captureTime = System.nanoTime() - captureStart;
+				return true;
+			}
+			//	Back off after a missed capture. The touch line stays held by a partial or wet finger, so it can't be relied on to pace retries.
+			Thread.sleep(pollingSchedule.nextInterval());
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getAdminPartitionStart</i></b>
+	 * <p>	<code>private int getAdminPartitionStart()</code>
+	 * <p>	Gets the first position of the Administrator partition, which spans the top positions of the scanner's library.
+	 * @return an <code>int</code> for the first position of the Administrator partition.
+	 * </ul>
+	 */
+	private int getAdminPartitionStart() {
+		return librarySize - adminPartitionSize;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>assignPage</i></b>
+	 * <p>	<code>private synchronized int assignPage(int fingerID, boolean admin)</code>
+	 * <p>	Assigns the fingerprint under the passed ID a position on the scanner within the partition matching its Administrator status.
+	 * <p>	A fingerprint already within the right partition keeps its position.
+	 * 		Otherwise, the position equal to its ID is preferred, followed by the lowest free position in the partition.
+	 * <p>	Synchronized, since positions are assigned both on the sensor's thread and on callers' threads, and two fingerprints must never get the same free position.
+	 * @param fingerID - the ID number of the fingerprint.
+	 * @param admin - <code>true</code> to assign a position within the Administrator partition; <code>false</code> otherwise.
+	 * @return an <code>int</code> for the assigned position, or <code>-1</code> if the partition is full.
+	 * </ul>
+	 */
+	private synchronized int assignPage(int fingerID, boolean admin) {
+		final int start = admin ? getAdminPartitionStart() : 0;
+		final int end = admin ? librarySize : getAdminPartitionStart();
+		final Integer currentPage = fingerprintPages.get(fingerID);
+		if(currentPage != null && currentPage >= start && currentPage < end) {
+			return currentPage;
+		}
+		
+		int page = (fingerID >= start && fingerID < end && !pageFingerprints.containsKey(fingerID)) ? fingerID : -1;
+		for(int candidate = start; page < 0 && candidate < end; candidate++) {
+			if(!pageFingerprints.containsKey(candidate)) {
+				page = candidate;
+			}
+		}
+		if(page >= 0) {
+			releasePage(fingerID);
+			fingerprintPages.put(fingerID, page);
+			pageFingerprints.put(page, fingerID);
+		}
+		return page;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>releasePage</i></b>
+	 * <p>	<code>private synchronized void releasePage(int fingerID)</code>
+	 * <p>	Frees the position on the scanner assigned to the fingerprint under the passed ID.
+	 * @param fingerID - the ID number of the fingerprint.
+	 * </ul>
+	 */
+	private synchronized void releasePage(int fingerID) {
+		final Integer page = fingerprintPages.remove(fingerID);
+		if(page != null) {
+			pageFingerprints.remove(page);
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>assignPages</i></b>
+	 * <p>	<code>private synchronized Map{@literal<Integer, byte[]>} assignPages(Map{@literal<Integer, byte[]>} fingerprintModels, Set{@literal<Integer>} movedIDs)</code>
+	 * <p>	Assigns every passed fingerprint model a position on the scanner and drops the positions of fingerprints that are no longer registered.
+	 * 		Models that do not fit into their partition are reported and left out.
+	 * @param fingerprintModels - a set of fingerprint models and their respective ID numbers.
+	 * @param movedIDs - a <tt>Set{@literal<Integer>}</tt> which receives the IDs of the models whose position changed.
+	 * @return a <tt>Map{@literal<Integer, byte[]>}</tt> of the fingerprint models and their respective positions on the scanner.
+	 * </ul>
+	 */
+	private synchronized Map<Integer, byte[]> assignPages(Map<Integer, byte[]> fingerprintModels, Set<Integer> movedIDs) {
+		for(Integer fingerID : new ArrayList<Integer>(fingerprintPages.keySet())) {
+			if(!fingerprintModels.containsKey(fingerID)) {
+				releasePage(fingerID);
+			}
+		}
+		
+		final Map<Integer, byte[]> pageModels = new HashMap<Integer, byte[]>();
+		for (Map.Entry<Integer, byte[]> fingerprintModel : fingerprintModels.entrySet()) {
+			final Integer previousPage = fingerprintPages.get(fingerprintModel.getKey());
+			final int page = assignPage(fingerprintModel.getKey(), isFingerprintAdmin(fingerprintModel.getKey()));
+			if(page < 0) {
+				System.out.println("<!> No free scanner position for fingerprint #" + fingerprintModel.getKey() + ". (assPag)");
+				continue;
+			}
+			if(previousPage == null || previousPage != page) {
+				movedIDs.add(fingerprintModel.getKey());
+			}
+			pageModels.put(page, fingerprintModel.getValue());
+		}
+		return pageModels;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getFingerprintPages</i></b>
+	 * <p>	<code>public synchronized Map{@literal<Integer, Integer>} getFingerprintPages()</code>
+	 * <p>	Gets the position on the fingerprint scanner of each registered fingerprint.
+	 * @return a <tt>Map{@literal<Integer, Integer>}</tt> of fingerprint IDs and their respective positions.
+	 * </ul>
+	 */
+	public synchronized Map<Integer, Integer> getFingerprintPages() {
+		return new HashMap<Integer, Integer>(fingerprintPages);
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setFingerprintPages</i></b>
+	 * <p>	<code>public synchronized void setFingerprintPages(Map{@literal<Integer, Integer>} pages)</code>
+	 * <p>	Sets the position on the fingerprint scanner of each registered fingerprint, such as the positions stored by the <tt>FileManager</tt>.
+	 * 		Positions outside of the scanner's library, or already taken by another fingerprint, are ignored.
+	 * @param pages - a <tt>Map{@literal<Integer, Integer>}</tt> of fingerprint IDs and their respective positions.
+	 * </ul>
+	 */
+	public synchronized void setFingerprintPages(Map<Integer, Integer> pages) {
+		fingerprintPages.clear();
+		pageFingerprints.clear();
+		for(Map.Entry<Integer, Integer> page : pages.entrySet()) {
+			if(page.getValue() >= 0 && page.getValue() < librarySize && !pageFingerprints.containsKey(page.getValue())) {
+				fingerprintPages.put(page.getKey(), page.getValue());
+				pageFingerprints.put(page.getValue(), page.getKey());
+			}
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setAdminPartitionSize</i></b>
+	 * <p>	<code>public void setAdminPartitionSize(int size)</code>
+	 * <p>	Sets the number of positions at the top of the scanner's library reserved for Administrator fingerprints.
+	 * 		Fingerprints are moved between partitions during the next model sync.
+	 * @param size - an <code>int</code> for the size of the Administrator partition. Must be between 1 and half of the library size.
+	 * @throws IllegalArgumentException if the size is out of range.
+	 * </ul>
+	 */
+	public void setAdminPartitionSize(int size) {
+		if(size < 1 || size > librarySize / 2) {
+			throw new IllegalArgumentException("Invalid admin partition size " + size + " for library size " + librarySize);
+		}
+		adminPartitionSize = size;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setFingerprintAdmin</i></b>
+	 * <p>	<code>public boolean setFingerprintAdmin(int fingerID, boolean admin, byte[] model)</code>
+	 * <p>	Promotes or demotes the fingerprint under the passed ID.
+	 * 		Its model is moved into the partition matching its new status on the scanner, then removed from its previous position.
+	 * @param fingerID - the ID number of the fingerprint.
+	 * @param admin - <code>true</code> to make the fingerprint an Administrator; <code>false</code> otherwise.
+	 * @param model - a <code>byte[]</code> array containing the fingerprint's model.
+	 * @return <code>true</code> if the fingerprint was moved successfully; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public boolean setFingerprintAdmin(int fingerID, boolean admin, byte[] model) {
+		if(model == null) {
+			System.out.println("<!> Error moving fingerprint #" + fingerID + ", its model is missing. (setFinAdm)");
+			return false;
+		}
+		final Integer oldPage = fingerprintPages.get(fingerID);
+		final int newPage = assignPage(fingerID, admin);
+		if(newPage < 0) {
+			System.out.println("<!> Error moving fingerprint #" + fingerID + ", its partition is full. (setFinAdm)");
+			return false;
+		}
+		if(oldPage == null || oldPage != newPage) {
+			try {
+				execute(SensorPriority.INTERACTIVE, COMMAND_TIMEOUT, () -> {
+					sensor.saveModel(model, newPage);
+					if(oldPage != null) {
+						sensor.deleteModel(oldPage);
+					}
+					return null;
+				});
+			} catch (FingerprintException fe) {
+				System.out.println("<!> Error moving fingerprint #" + fingerID + " on sensor. (FE setFinAdm)");
+				fe.printStackTrace();
+				synchronized(this) {
+					releasePage(fingerID);
+					//	The old position was freed by the move, so another fingerprint may have taken it meanwhile.
+					if(oldPage != null && !pageFingerprints.containsKey(oldPage)) {
+						fingerprintPages.put(fingerID, oldPage);
+						pageFingerprints.put(oldPage, fingerID);
+					}
+				}
+				return false;
+			}
+		}
+		
+		if(admin) {
+			addFingerprintAdmin(fingerID);
+		}
+		else {
+			removeFingerprintAdmin(fingerID);
+		}
+		return true;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setTouchSensor</i></b>
+	 * <p>	<code>public void setTouchSensor(TouchSensor touchSensor)</code>
+	 * <p>	Sets the <tt>TouchSensor</tt> used to detect a finger on the scanner.
+	 * 		If <code>null</code>, the scanner is polled for a finger instead.
+	 * @param touchSensor - the <tt>TouchSensor</tt> watching the scanner's touch-sense output.
+	 * </ul>
+	 */
+	public void setTouchSensor(TouchSensor touchSensor) {
+		this.touchSensor = touchSensor;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>setPollingSchedule</i></b>
+	 * <p>	<code>public void setPollingSchedule(PollingSchedule pollingSchedule)</code>
+	 * <p>	Sets the <tt>PollingSchedule</tt> used when the scanner is polled for a finger.
+	 * @param pollingSchedule - the <tt>PollingSchedule</tt> to use.
+	 * </ul>
+	 */
+	public void setPollingSchedule(PollingSchedule pollingSchedule) {
+		this.pollingSchedule = pollingSchedule;
+	}
+	
 	/**
 	 * <ul>
 	 * <p>	<b><i>cancelFingerprintScan</i></b>
 	 * <p>	<code>public void cancelFingerprintScan()</code>
 	 * <p>	Calls for a cancellation of any ongoing fingerprint scan.
+	 * 		The scan ends immediately, even while it is waiting on the fingerprint scanner. May be called from any thread.
 	 * </ul>
 	 */
 	public void cancelFingerprintScan() {
-		if(isScanning) {
-			isScanning = false;
-			cancellingScan = true;
+		final ScanSession session = scanSession.get();
+		if(session != null) {
+			session.cancel();
 		}
 	}
 	
@@ -212,9 +788,39 @@ public class FingerprintScanner {
 	 * </ul>
 	 */
 	public boolean checkForScanCancellation() {
-		final boolean isCancelling = cancellingScan;
-		cancellingScan = false;
-		return isCancelling;
+		final ScanSession session = scanSession.get();
+		if(session != null && session.isCancelled()) {
+			scanSession.compareAndSet(session, null);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>startScanSession</i></b>
+	 * <p>	<code>private ScanSession startScanSession()</code>
+	 * <p>	Starts a new <tt>ScanSession</tt>, replacing the last one. The scan begins once the sensor's thread runs it.
+	 * @return the new <tt>ScanSession</tt>.
+	 * </ul>
+	 */
+	private ScanSession startScanSession() {
+		final ScanSession session = new ScanSession();
+		scanSession.set(session);
+		return session;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getScanState</i></b>
+	 * <p>	<code>public ScanState getScanState()</code>
+	 * <p>	Gets the state of the current or last fingerprint scan.
+	 * @return the <tt>ScanState</tt> of the scan, or <code>IDLE</code> if there is none.
+	 * </ul>
+	 */
+	public ScanState getScanState() {
+		final ScanSession session = scanSession.get();
+		return session != null ? session.getState() : ScanState.IDLE;
 	}
 	
 	/**
@@ -231,16 +837,37 @@ public class FingerprintScanner {
 	 * </ul>
 	 */
 	public Entry<Integer, byte[]> registerFingerprint(NotificationPopup statusNotification) {
+		final ScanSession session = startScanSession();
+		try {
+			return execute(SensorPriority.INTERACTIVE, 0, () -> performRegistration(session, statusNotification));
+		} catch (FingerprintException fe) {
+			System.out.println("<!> Error registering fingerprint. (FE regFin2)");
+			fe.printStackTrace();
+			return null;
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>performRegistration</i></b>
+	 * <p>	<code>private Entry{@literal<Integer, byte[]>} performRegistration(ScanSession session, NotificationPopup statusNotification)</code>
+	 * <p>	Performs the registration started by {@link #registerFingerprint(NotificationPopup)} on the sensor's thread.
+	 * @param session - the <tt>ScanSession</tt> of the registration.
+	 * @param statusNotification - the <tt>NotificationPopup</tt> to display status notifications on.
+	 * @return the new fingerprint's ID number and model, or <code>null</code> if registration failed.
+	 * </ul>
+	 */
+	private Entry<Integer, byte[]> performRegistration(ScanSession session, NotificationPopup statusNotification) {
 		byte[] model = null;
 		Integer fingerID;
 		try {
 			//	Wait for a finger to placed on the scanner, then perform the first scan of the fingerprint.
-			while(!sensor.hasFingerprint()) {
-				Thread.sleep(100);
+			if(!session.begin() || !captureFingerprint(session)) {
+				return null;
 			}
 			
 			//	If the fingerprint already exists, notify user and cancel registration.
-			fingerID = sensor.searchFingerprint();
+			fingerID = searchFingerprint(session, 0, librarySize);
 			if(fingerID!=null) {
 				System.out.println("<##> REGISTRATION --> Fingerprint already registered under ID #" + fingerID + "!");
 				return null;
@@ -254,64 +881,167 @@ public class FingerprintScanner {
 			});
 			
 			//	Perform another scan, overwriting the previous scan if the fingerprint is still on the sensor.
-			while(sensor.hasFingerprint()) {
+			session.advance(ScanState.WAITING);
+			while(sensor.captureImage()) {
 				Thread.sleep(50);
 			}
 			
 			//	Finally, continuously attempt to create the fingerprint model from the final scan.
+			pollingSchedule.reset();
 			while (model == null) {
-				Thread.sleep(100);
+				Thread.sleep(pollingSchedule.nextInterval());
 				model = sensor.createModel();
 			}
+			if(!session.advance(ScanState.MATCHING)) {
+				return null;
+			}
 			
 			//	Ensures that the fingerprint is stored under a nonexistent ID.
-			fingerID = 0;
-			for(int newFingerID = 0; fingerprintIDs.contains(newFingerID); newFingerID++) {
-				fingerID = newFingerID + 1;
+			fingerID = registry.allocate();
+			final int page = fingerID < 0 ? -1 : assignPage(fingerID, false);
+			if(page < 0) {
+				System.out.println("<!> Error registering fingerprint, the scanner's library is full. (regFin)");
+				if(fingerID >= 0) {
+					registry.remove(fingerID);
+				}
+				return null;
 			}
 			
-			//	Store the model on the fingerprint scanner.
+			//	Store the model on the fingerprint scanner, outside of the Administrator partition.
+			try {
+				sensor.saveStoredModel(page);
+			} catch (FingerprintException fe) {
+				releasePage(fingerID);
+				registry.remove(fingerID);
+				throw fe;
+			}
 			lastRegisteredFingerprintID = fingerID;
-			fingerprintCount++;
-			fingerprintIDs.add(fingerID);
-			sensor.saveStoredModel(fingerID);
 			System.out.println("## Registration Completed for Finger #" + fingerID + ".");
 		} catch (FingerprintException fe) {
-			System.out.println("<!> Error registering fingerprint. (FE regFin)");
-			System.out.println(fe.getStackTrace()[0]);
+			if(!session.isCancelled()) {
+				System.out.println("<!> Error registering fingerprint. (FE regFin)");
+				System.out.println(fe.getStackTrace()[0]);
+			}
 			return null;
 		} catch (InterruptedException ie) {
-			System.out.println("<!> Error registering fingerprint. (IE regFin)");
-			ie.printStackTrace();
+			if(!session.isCancelled()) {
+				System.out.println("<!> Error registering fingerprint. (IE regFin)");
+				ie.printStackTrace();
+			}
 			return null;
+		} finally {
+			session.finish();
 		}
 		//	Return the fingerprint model for file storage.
 		return new SimpleEntry<Integer, byte[]>(fingerID, model);
 	}
 	
+	/**
+	 * <ul>
+	 * <p>	<b><i>syncFingerprintModels</i></b>
+	 * <p>	<code>public Set{@literal<Integer>} syncFingerprintModels(Map{@literal<Integer, byte[]>} fingerprintModels, Set{@literal<Integer>} unchangedIDs)</code>
+	 * <p>	Reconciles the fingerprint scanner's internal memory with the passed fingerprint models, without clearing it first.
+	 * <p>	The scanner's index table is read to find out which positions hold a model.
+	 * 		Models that are missing from the scanner, or that are not listed as unchanged since they were last sent to it, are uploaded.
+	 * 		Positions that hold a model which is not in the passed set are cleared.
+	 * 		When the scanner already holds exactly the passed models, this only costs reading the index table.
+	 * <p>	Each model is kept at the position assigned to its fingerprint, within the partition matching its Administrator status.
+	 * 		Models that had to move to another partition are uploaded again.
+	 * @param fingerprintModels - a set of fingerprint models and their respective ID numbers.
+	 * @param unchangedIDs - the IDs of the models whose content has not changed since they were last sent to the scanner.
+	 * @return a <tt>Set{@literal<Integer>}</tt> of the IDs whose models are now on the scanner, or <code>null</code> if the scanner could not be reconciled.
+	 * </ul>
+	 */
+	public Set<Integer> syncFingerprintModels(Map<Integer, byte[]> fingerprintModels, Set<Integer> unchangedIDs) {
+		final BitSet occupied;
+		try {
+			occupied = execute(SensorPriority.MAINTENANCE, COMMAND_TIMEOUT, () -> sensor.readIndexTable(librarySize));
+		} catch (FingerprintException fe) {
+			System.out.println("<!> Error reading sensor index table. (FE synFinMod)");
+			fe.printStackTrace();
+			return null;
+		}
+		final Set<Integer> movedIDs = new HashSet<Integer>();
+		final Map<Integer, byte[]> pageModels = assignPages(fingerprintModels, movedIDs);
+		
+		//	Clear positions holding models that are no longer registered.
+		//	Contiguous stale positions are deleted with one command each, and every range gets its own deadline, so even a full library can be cleared.
+		final BitSet stalePages = (BitSet) occupied.clone();
+		for (Integer page : pageModels.keySet()) {
+			stalePages.clear(page);
+		}
+		for (int start = stalePages.nextSetBit(0); start >= 0; start = stalePages.nextSetBit(start)) {
+			final int rangeStart = start;
+			final int rangeCount = stalePages.nextClearBit(start) - start;
+			try {
+				execute(SensorPriority.MAINTENANCE, COMMAND_TIMEOUT, () -> {
+					sensor.deleteRange(rangeStart, rangeCount);
+					return null;
+				});
+			} catch (FingerprintException fe) {
+				System.out.println("<!> Error clearing stale models from sensor. (FE synFinMod2)");
+				fe.printStackTrace();
+				return null;
+			}
+			start += rangeCount;
+		}
+		
+		//	Upload only the models that are missing, have changed or were moved to another position.
+		final Map<Integer, byte[]> outdatedModels = new HashMap<Integer, byte[]>();
+		for (Map.Entry<Integer, byte[]> pageModel : pageModels.entrySet()) {
+			final int fingerID = pageFingerprints.get(pageModel.getKey());
+			if(!occupied.get(pageModel.getKey()) || !unchangedIDs.contains(fingerID) || movedIDs.contains(fingerID)) {
+				outdatedModels.put(pageModel.getKey(), pageModel.getValue());
+			}
+		}
+		System.out.println("<#> Sensor holds " + occupied.cardinality() + " models, uploading " + outdatedModels.size() + " of " + fingerprintModels.size() + ".");
+		final Map<Integer, FingerprintException> failures = saveModelsInChunks(outdatedModels);
+		
+		//	Register every model that is now on the scanner.
+		final Set<Integer> syncedIDs = new HashSet<Integer>();
+		for (Integer page : pageModels.keySet()) {
+			syncedIDs.add(pageFingerprints.get(page));
+		}
+		for (Map.Entry<Integer, FingerprintException> failure : failures.entrySet()) {
+			final int fingerID = pageFingerprints.get(failure.getKey());
+			System.out.println("<!> Error uploading fingerprint #" + fingerID + " to sensor. (FE synFinMod3)");
+			failure.getValue().printStackTrace();
+			syncedIDs.remove(fingerID);
+		}
+		registry.setAll(syncedIDs.stream().mapToInt(Integer::intValue).toArray());
+		return syncedIDs;
+	}
+	
 	/**
 	 * <ul>
 	 * <p>	<b><i>uploadFingerprintModels</i></b>
 	 * <p>	<code>public boolean uploadFingerprintModels(Map{@literal<Integer, byte[]>} fingerprintModels)</code>
 	 * <p>	Sends all of the passed fingerprint models to the fingerprint scanner. These models are saved on the scanner's internal memory.
-	 * @param fingerprintModels - a set of fingerprint models and their respective numerical positions.
-	 * @return <code>true</code> if the models were uploaded successfully; <code>false</code> otherwise.
+	 * <p>	The models are sent in small batches, so a scan started during the upload does not wait for all of them.
+	 * 		A model that fails to upload does not stop the rest of the upload.
+	 * 		Instead, each failure is reported and only the successfully uploaded models are registered.
+	 * <p>	Each model is stored at the position assigned to its fingerprint, within the partition matching its Administrator status.
+	 * @param fingerprintModels - a set of fingerprint models and their respective ID numbers.
+	 * @return <code>true</code> if all of the models were uploaded successfully; <code>false</code> otherwise.
 	 * </ul>
 	 */
 	public boolean uploadFingerprintModels(Map<Integer, byte[]> fingerprintModels) {
 		//	Save every model onto the fingerprint scanner with their correct positions.
-		try {
-			for (Map.Entry<Integer, byte[]> fingerprintModel : fingerprintModels.entrySet()) {
-				sensor.saveModel(fingerprintModel.getValue(), fingerprintModel.getKey());
-				fingerprintIDs.add(fingerprintModel.getKey());
+		final Map<Integer, byte[]> pageModels = assignPages(fingerprintModels, new HashSet<Integer>());
+		final Map<Integer, FingerprintException> failures = saveModelsInChunks(pageModels);
+		for (Integer page : pageModels.keySet()) {
+			final Integer fingerID = pageFingerprints.get(page);
+			if(!failures.containsKey(page)) {
+				registry.add(fingerID);
 			}
-			setFingerprintCount(fingerprintModels.size());
-			return true;
-		} catch (FingerprintException fe) {
-			System.out.println("<!> Error uploading fingerprints to sensor. (FE uplFinMod)");
-			fe.printStackTrace();
 		}
-		return false;
+		
+		//	Report every model that could not be uploaded.
+		for (Map.Entry<Integer, FingerprintException> failure : failures.entrySet()) {
+			System.out.println("<!> Error uploading fingerprint #" + pageFingerprints.get(failure.getKey()) + " to sensor. (FE uplFinMod)");
+			failure.getValue().printStackTrace();
+		}
+		return failures.isEmpty() && pageModels.size() == fingerprintModels.size();
 	}
 	
 	/**
@@ -327,8 +1057,11 @@ public class FingerprintScanner {
 	public boolean uploadFingerprintModels(Map<Integer, byte[]> fingerprintModels, boolean overwrite) {
 		if(overwrite) {
 			try {
-				sensor.clearAllSaved();
-				fingerprintIDs.clear();
+				execute(SensorPriority.MAINTENANCE, COMMAND_TIMEOUT, () -> {
+					sensor.clearAllSaved();
+					return null;
+				});
+				registry.setAll(new int[0]);
 			} catch (FingerprintException fe) {
 				System.out.println("<!> Error uploading fingerprints to sensor. (FE uplFinMod2)");
 				fe.printStackTrace();
@@ -340,28 +1073,43 @@ public class FingerprintScanner {
 	
 	/**
 	 * <ul>
-	 * <p>	<b><i>getFingerprintCount</i></b>
-	 * <p>	<code>public int getFingerprintCount()</code>
-	 * <p>	Gets the number of fingerprints registered in the system.
-	 * @return fingerprintCount - the number of registered fingerprints.
+	 * <p>	<b><i>removeFingerprint</i></b>
+	 * <p>	<code>public boolean removeFingerprint(int fingerID)</code>
+	 * <p>	Removes the fingerprint under the passed ID number from the fingerprint scanner's internal memory.
+	 * 		Only the one model is deleted on the scanner, so the remaining fingerprint models do not have to be uploaded again.
+	 * @param fingerID - the ID number of the fingerprint to remove.
+	 * @return <code>true</code> if the fingerprint was removed successfully; <code>false</code> otherwise.
 	 * </ul>
 	 */
-	public int getFingerprintCount() {
-		return fingerprintCount;
+	public boolean removeFingerprint(int fingerID) {
+		final Integer page = fingerprintPages.get(fingerID);
+		if(page != null) {
+			try {
+				execute(SensorPriority.INTERACTIVE, COMMAND_TIMEOUT, () -> {
+					sensor.deleteModel(page);
+					return null;
+				});
+			} catch (FingerprintException fe) {
+				System.out.println("<!> Error removing fingerprint from sensor. (FE remFin)");
+				fe.printStackTrace();
+				return false;
+			}
+			releasePage(fingerID);
+		}
+		registry.remove(fingerID);
+		return true;
 	}
 	
 	/**
 	 * <ul>
-	 * <p>	<b><i>setFingerprintCount</i></b>
-	 * <p>	<code>public void setFingerprintCount(int numberOfPrints)</code>
-	 * <p>	Sets the number of fingerprints registered in the system.
-	 * <p>	Note: The <code>uploadFingerprintModels</code> method calls on this method.
-	 * 		Therefore, depending on the reasoning, it may not be necessary.
-	 * @param numberOfPrints - the number of registered fingerprints.
+	 * <p>	<b><i>getFingerprintCount</i></b>
+	 * <p>	<code>public int getFingerprintCount()</code>
+	 * <p>	Gets the number of fingerprints registered in the system.
+	 * @return the number of registered fingerprints.
 	 * </ul>
 	 */
-	public void setFingerprintCount(int numberOfPrints) {
-		fingerprintCount = numberOfPrints;
+	public int getFingerprintCount() {
+		return registry.size();
 	}
 	
 	/**
@@ -382,12 +1130,12 @@ public class FingerprintScanner {
 	 * <ul>
 	 * <p>	<b><i>getFingerprintIDs</i></b>
 	 * <p>	<code>public int[] getFingerprintIDs()</code>
-	 * <p>	Gets an array of ID numbers for all registered fingerprints in the system.
+	 * <p>	Gets an array of ID numbers for all registered fingerprints in the system, in ascending order.
 	 * @return an <code>int[]</code> array containing the fingerprint IDs.
 	 * </ul>
 	 */
 	public int[] getFingerprintIDs() {
-		return fingerprintIDs.stream().mapToInt(i -> i).toArray();
+		return registry.getIDs();
 	}
 	
 	/**
@@ -398,8 +1146,8 @@ public class FingerprintScanner {
 	 * @param fingerprintIDArray - an <code>int[]</code> array of registered fingerprint IDs.
 	 * </ul>
 	 */
-	public void setFingerprintIDs(Integer[] fingerprintIDArray) {
-		fingerprintIDs = Arrays.asList(fingerprintIDArray);
+	public void setFingerprintIDs(int[] fingerprintIDArray) {
+		registry.setAll(fingerprintIDArray);
 	}
 	
 	/**
@@ -412,58 +1160,54 @@ public class FingerprintScanner {
 	 * </ul>
 	 */
 	public boolean isFingerprintAdmin(int fingerID) {
-		return fingerprintAdmins.contains(fingerID);
+		return registry.isAdmin(fingerID);
 	}
 	
 	/**
 	 * <ul>
 	 * <p>	<b><i>getFingerprintAdmins</i></b>
 	 * <p>	<code>public int[] getFingerprintAdmins()</code>
-	 * <p>	Get an array containing the fingerprint ID numbers of administrators.
+	 * <p>	Get an array containing the fingerprint ID numbers of administrators, in ascending order.
 	 * @return an <code>int[]</code> array containing the administrators' fingerprint IDs.
 	 * </ul>
 	 */
 	public int[] getFingerprintAdmins() {
-		return fingerprintAdmins.stream().mapToInt(i -> i).toArray();
+		return registry.getAdmins();
 	}
 	
 	/**
 	 * <ul>
 	 * <p>	<b><i>setFingerprintAdmins</i></b>
-	 * <p>	<code>public void[] setFingerprintAdmins(Integer[] admins)</code>
+	 * <p>	<code>public void setFingerprintAdmins(int[] admins)</code>
 	 * <p>	Sets the fingerprint administrators ID list.
-	 * @param an <code>Integer[]</code> array containing the administrators' fingerprint IDs.
+	 * @param admins - an <code>int[]</code> array containing the administrators' fingerprint IDs.
 	 * </ul>
 	 */
-	public void setFingerprintAdmins(Integer[] admins) {
-		fingerprintAdmins = Arrays.asList(admins);
+	public void setFingerprintAdmins(int[] admins) {
+		registry.setAllAdmins(admins);
 	}
 	
 	/**
 	 * <ul>
 	 * <p>	<b><i>addFingerprintAdmin</i></b>
-	 * <p>	<code>public void[] addFingerprintAdmin(int fingerID)</code>
+	 * <p>	<code>public void addFingerprintAdmin(int fingerID)</code>
 	 * <p>	Adds the fingerprint to the administrators ID list.
 	 * @param fingerID - the ID number of the fingerprint to add.
 	 * </ul>
 	 */
 	public void addFingerprintAdmin(int fingerID) {
-		if(!isFingerprintAdmin(fingerID)) {
-			fingerprintAdmins.add(fingerID);
-		}
+		registry.setAdmin(fingerID, true);
 	}
 	
 	/**
 	 * <ul>
 	 * <p>	<b><i>removeFingerprintAdmin</i></b>
-	 * <p>	<code>public void[] removeFingerprintAdmin(int fingerID)</code>
+	 * <p>	<code>public void removeFingerprintAdmin(int fingerID)</code>
 	 * <p>	Removes the fingerprint from the administrators ID list.
 	 * @param fingerID - the ID number of the fingerprint to remove.
 	 * </ul>
 	 */
 	public void removeFingerprintAdmin(int fingerID) {
-		if(isFingerprintAdmin(fingerID)) {
-			fingerprintAdmins.remove(fingerprintAdmins.indexOf(fingerID));
-		}
+		registry.setAdmin(fingerID, false);
 	}
 }
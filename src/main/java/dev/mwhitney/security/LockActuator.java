@@ -0,0 +1,54 @@
+package dev.mwhitney.security;
+
+import java.io.IOException;
+
+/**
+ *
+ * An interface for the hardware, or stand-in for hardware, that switches the door lock relay.
+ * A <tt>RelayLock</tt> calls every method from its own single thread, so implementations do not need to be thread-safe.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public interface LockActuator {
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>setup</i></b>
+	 * <p>	<code>public void setup() throws IOException</code>
+	 * <p>	Prepares the actuator for use. Called once, before any other method.
+	 * @throws IOException if the actuator cannot be set up.
+	 * </ul>
+	 */
+	public void setup() throws IOException;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>activate</i></b>
+	 * <p>	<code>public void activate() throws IOException</code>
+	 * <p>	Activates the relay, unlocking the door.
+	 * @throws IOException if the relay cannot be switched.
+	 * </ul>
+	 */
+	public void activate() throws IOException;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>deactivate</i></b>
+	 * <p>	<code>public void deactivate() throws IOException</code>
+	 * <p>	Deactivates the relay, locking the door.
+	 * @throws IOException if the relay cannot be switched.
+	 * </ul>
+	 */
+	public void deactivate() throws IOException;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>shutdown</i></b>
+	 * <p>	<code>public void shutdown() throws IOException</code>
+	 * <p>	Leaves the relay deactivated and releases the actuator. Called once, after every other method.
+	 * @throws IOException if the actuator cannot be released.
+	 * </ul>
+	 */
+	public void shutdown() throws IOException;
+}
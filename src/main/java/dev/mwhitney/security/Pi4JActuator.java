@@ -0,0 +1,112 @@
+package dev.mwhitney.security;
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.io.gpio.digital.DigitalOutput;
+import com.pi4j.io.gpio.digital.DigitalOutputConfigBuilder;
+import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.library.pigpio.PiGpio;
+import com.pi4j.plugin.pigpio.PiGpioPlugin;
+import com.pi4j.plugin.pigpio.provider.gpio.digital.PiGpioDigitalInputProvider;
+import com.pi4j.plugin.pigpio.provider.gpio.digital.PiGpioDigitalOutputProvider;
+
+/**
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class Pi4JActuator implements LockActuator {
+
+	/* 
+	 * DEBUG PIN STATE:
+	 * relayPin.addListener(System.out::println);
+	 */
+
+	/** An <code>int</code> for the BCM number of the GPIO pin wired to the relay. */
+	private final int pin;
+	/** The native <tt>PiGpio</tt> instance behind the pigpio providers, which must be released on shutdown. */
+	private PiGpio piGpio = null;
+	/** The <tt>Context</tt> used to help interface with the Raspberry Pi's GPIO pins. */
+	private Context pi4j = null;
+	/** A <tt>DigitalOutput</tt> object used for communicating with the door lock relay. */
+	private DigitalOutput relayPin = null;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>Pi4JActuator</i></b>
+	 * <p>	<code>public Pi4JActuator(int pin)</code>
+	 * <p>	Creates a new <tt>Pi4JActuator</tt>, which switches the relay through Pi4J and the pigpio library.
+	 * @param pin - an <code>int</code> for the BCM number of the GPIO pin wired to the relay.
+	 * </ul>
+	 */
+	public Pi4JActuator(int pin) {
+		this.pin = pin;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>setup</i></b>
+	 * <p>	<code>public void setup()</code>
+	 * <p>	Creates a <tt>Context</tt> with only the pigpio digital providers, instead of every provider found on the classpath, then the relay pin.
+	 * </ul>
+	 */
+	@Override
+	public void setup() {
+		piGpio = PiGpio.newNativeInstance();
+		pi4j = Pi4J.newContextBuilder()
+				.noAutoDetect()
+				.add(PiGpioDigitalInputProvider.newInstance(piGpio), PiGpioDigitalOutputProvider.newInstance(piGpio))
+				.build();
+		final DigitalOutputConfigBuilder relayConfig = DigitalOutput.newConfigBuilder(pi4j)
+			       .id("relay")
+			       .name("Relay")
+			       .address(pin)
+			       .shutdown(DigitalState.LOW)
+			       .initial(DigitalState.LOW)
+			       .provider(PiGpioPlugin.DIGITAL_OUTPUT_PROVIDER_ID);
+		relayPin = pi4j.create(relayConfig);
+	}
+
+	@Override
+	public void activate() {
+		relayPin.high();
+	}
+
+	@Override
+	public void deactivate() {
+		relayPin.low();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>shutdown</i></b>
+	 * <p>	<code>public void shutdown()</code>
+	 * <p>	Shuts down the relay pin and the <tt>Context</tt>, then releases the native <tt>PiGpio</tt> instance.
+	 * 		Parts which were never created, such as when <code>setup()</code> failed, are skipped.
+	 * </ul>
+	 */
+	@Override
+	public void shutdown() {
+		if(relayPin != null) {
+			relayPin.shutdown(pi4j);
+		}
+		if(pi4j != null) {
+			pi4j.shutdown();
+		}
+		if(piGpio != null) {
+			piGpio.shutdown();
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getContext</i></b>
+	 * <p>	<code>public Context getContext()</code>
+	 * <p>	Gets the <tt>Context</tt> used to interface with the Raspberry Pi's GPIO pins, so other components can share it.
+	 * @return the <tt>Context</tt> of this <tt>Pi4JActuator</tt>, or <code>null</code> if it has not been set up.
+	 * </ul>
+	 */
+	public Context getContext() {
+		return pi4j;
+	}
+}
@@ -0,0 +1,82 @@
+package dev.mwhitney.security;
+
+/**
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class PollingSchedule {
+
+	/** A <code>long</code> for the delay between polls right after polling starts, in milliseconds. */
+	private final long minInterval;
+	/** A <code>long</code> for the largest delay between polls, in milliseconds. */
+	private final long maxInterval;
+	/** A <code>double</code> for the factor the delay grows by after each idle poll. */
+	private final double backoffFactor;
+	/** A <code>long</code> for how long polling stays at the smallest delay before backing off, in milliseconds. */
+	private final long fastPeriod;
+
+	/** A <code>long</code> for the time polling started, in nanoseconds. */
+	private long startTime;
+	/** A <code>long</code> for the current delay between polls, in milliseconds. */
+	private long interval;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>PollingSchedule</i></b>
+	 * <p>	<code>public PollingSchedule(long minInterval, long maxInterval, double backoffFactor, long fastPeriod)</code>
+	 * <p>	Creates a new <tt>PollingSchedule</tt>.
+	 * <p>	Polling starts at the smallest delay and stays there during the fast period.
+	 * 		After that, the delay grows by the backoff factor on every poll until it reaches the largest delay.
+	 * @param minInterval - a <code>long</code> for the smallest delay between polls, in milliseconds.
+	 * @param maxInterval - a <code>long</code> for the largest delay between polls, in milliseconds.
+	 * @param backoffFactor - a <code>double</code> for the factor the delay grows by after each idle poll. Must be a finite number of at least 1.
+	 * @param fastPeriod - a <code>long</code> for how long polling stays at the smallest delay, in milliseconds.
+	 * @throws IllegalArgumentException if the intervals or the backoff factor are out of range.
+	 * </ul>
+	 */
+	public PollingSchedule(long minInterval, long maxInterval, double backoffFactor, long fastPeriod) {
+		//	Written so a NaN backoff factor, for which every comparison is false, is also rejected.
+		if(minInterval < 1 || maxInterval < minInterval || !(backoffFactor >= 1) || Double.isInfinite(backoffFactor) || fastPeriod < 0) {
+			throw new IllegalArgumentException("Invalid polling schedule: " + minInterval + "-" + maxInterval + " ms, x" + backoffFactor + ", fast for " + fastPeriod + " ms");
+		}
+		this.minInterval = minInterval;
+		this.maxInterval = maxInterval;
+		this.backoffFactor = backoffFactor;
+		this.fastPeriod = fastPeriod;
+		reset();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>reset</i></b>
+	 * <p>	<code>public void reset()</code>
+	 * <p>	Restarts the schedule at the smallest delay. Should be called whenever polling starts.
+	 * </ul>
+	 */
+	public void reset() {
+		startTime = System.nanoTime();
+		interval = minInterval;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>nextInterval</i></b>
+	 * <p>	<code>public long nextInterval()</code>
+	 * <p>	Gets the delay to wait before the next poll, and backs off the delay after it once the fast period has passed.
+	 * @return a <code>long</code> for the delay before the next poll, in milliseconds.
+	 * </ul>
+	 */
+	public long nextInterval() {
+		final long current = interval;
+		if((System.nanoTime() - startTime)/1000000 >= fastPeriod) {
+			interval = Math.min(maxInterval, (long) Math.ceil(interval * backoffFactor));
+		}
+		return current;
+	}
+
+	@Override
+	public String toString() {
+		return minInterval + "-" + maxInterval + " ms (x" + backoffFactor + " after " + fastPeriod + " ms)";
+	}
+}
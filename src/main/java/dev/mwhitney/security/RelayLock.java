@@ -1,11 +1,13 @@
 package dev.mwhitney.security;
 
-import com.pi4j.Pi4J;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import com.pi4j.context.Context;
-import com.pi4j.io.gpio.digital.DigitalOutput;
-import com.pi4j.io.gpio.digital.DigitalOutputConfigBuilder;
-import com.pi4j.io.gpio.digital.DigitalState;
-import com.pi4j.plugin.pigpio.PiGpioPlugin;
 
 /**
  * 
@@ -14,56 +16,138 @@ import com.pi4j.plugin.pigpio.PiGpioPlugin;
  */
 public class RelayLock {
 	
-	/* 
-	 * DEBUG PIN STATE:
-	 * relayPin.addListener(System.out::println);
-	 */
-	
-	/** The <tt>Context</tt> used to help interface with the Raspberry Pi's GPIO pins. */
-	private Context pi4j = null;
-	/** A <tt>DigitalOutput</tt> object used for communicating with the door lock relay. */
-	private DigitalOutput relayPin = null;
+	/** The <tt>LockActuator</tt> which switches the door lock relay. */
+	private final LockActuator actuator;
+	/** An <tt>ExecutorService</tt> with a single thread, which sets up the actuator and then switches the relay in the order requested. */
+	private final ExecutorService relayExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "RelayLock");
+		thread.setDaemon(true);
+		return thread;
+	});
+	/** A <tt>CompletableFuture</tt> completed once the actuator is ready. */
+	private final CompletableFuture<Void> ready;
+	/** A <code>long</code> for how long the first relay activation took to switch the pin, in microseconds, or <code>-1</code> if there has been none. */
+	private volatile long firstActivationLatency = -1;
 	
 	/**
 	 * <ul>
 	 * <p>	<b><i>RelayLock</i></b>
 	 * <p>	<code>public RelayLock()</code>
-	 * <p>	Creates a new <tt>RelayLock</tt>.
+	 * <p>	Creates a new <tt>RelayLock</tt> which switches the relay on GPIO 21 through Pi4J.
 	 * <p>	Note: There should only be one object of this class active at a time.
 	 * </ul>
 	 */
 	public RelayLock() {
-		pi4j = Pi4J.newAutoContext();
-		final DigitalOutputConfigBuilder relayConfig = DigitalOutput.newConfigBuilder(pi4j)
-			       .id("relay")
-			       .name("Relay")
-			       .address(21)
-			       .shutdown(DigitalState.LOW)
-			       .initial(DigitalState.LOW)
-			       .provider(PiGpioPlugin.DIGITAL_OUTPUT_PROVIDER_ID);
-		relayPin = pi4j.create(relayConfig);
+		this(new Pi4JActuator(21));
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>RelayLock</i></b>
+	 * <p>	<code>public RelayLock(LockActuator actuator)</code>
+	 * <p>	Creates a new <tt>RelayLock</tt> which switches the relay using the passed <tt>LockActuator</tt>.
+	 * <p>	The actuator is set up in the background, so this constructor returns right away.
+	 * 		Relay requests made before the actuator is ready are queued, then run in order once it is.
+	 * <p>	Note: There should only be one object of this class active at a time.
+	 * @param actuator - the <tt>LockActuator</tt> to switch the relay with.
+	 * </ul>
+	 */
+	public RelayLock(LockActuator actuator) {
+		this.actuator = actuator;
+		ready = CompletableFuture.runAsync(() -> {
+			final long setupStart = System.nanoTime();
+			try {
+				actuator.setup();
+				
+				//	Warm up the write path with a harmless write, so the first activation is as quick as later ones.
+				actuator.deactivate();
+			} catch (IOException ioe) {
+				throw new UncheckedIOException(ioe);
+			}
+			System.out.println("<#> Relay ready in " + (System.nanoTime() - setupStart)/1000000 + " ms.");
+		}, relayExecutor);
+		ready.exceptionally(throwable -> {
+			System.out.println("<!> Error setting up the relay. (RE RelLoc)");
+			throwable.printStackTrace();
+			return null;
+		});
 	}
 	
 	/**
 	 * <ul>
 	 * <p>	<b><i>activateRelay</i></b>
-	 * <p>	<code>public void activateRelay()</code>
+	 * <p>	<code>public CompletableFuture{@literal<Long>} activateRelay()</code>
 	 * <p>	Activates the connected relay, turning it on.
+	 * 		If the actuator is not ready yet, the relay is activated as soon as it is.
+	 * <p>	The time taken to switch the relay is printed, along with any time the request spent queued.
+	 * @return a <tt>CompletableFuture</tt> completed with the time taken to switch the relay in microseconds, or completed exceptionally if it could not be switched.
 	 * </ul>
 	 */
-	public void activateRelay() {
-		relayPin.high();
+	public CompletableFuture<Long> activateRelay() {
+		final long requestTime = System.nanoTime();
+		final CompletableFuture<Long> switched = runWhenReady("activating", () -> actuator.activate());
+		switched.thenAccept(switchTime -> {
+			if(firstActivationLatency < 0) {
+				firstActivationLatency = switchTime;
+			}
+			System.out.println("<#> Relay activated in " + switchTime + " us (queued " + ((System.nanoTime() - requestTime)/1000 - switchTime)/1000 + " ms, first activation " + firstActivationLatency + " us).");
+		});
+		return switched;
 	}
 	
 	/**
 	 * <ul>
 	 * <p>	<b><i>deactivateRelay</i></b>
-	 * <p>	<code>public void deactivateRelay()</code>
+	 * <p>	<code>public CompletableFuture{@literal<Long>} deactivateRelay()</code>
 	 * <p>	Deactivates the connected relay, turning it off.
+	 * 		If the actuator is not ready yet, the relay is deactivated as soon as it is.
+	 * @return a <tt>CompletableFuture</tt> completed with the time taken to switch the relay in microseconds, or completed exceptionally if it could not be switched.
+	 * </ul>
+	 */
+	public CompletableFuture<Long> deactivateRelay() {
+		return runWhenReady("deactivating", () -> actuator.deactivate());
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getContext</i></b>
+	 * <p>	<code>public Context getContext()</code>
+	 * <p>	Gets the <tt>Context</tt> used to interface with the Raspberry Pi's GPIO pins, so other components can share it.
+	 * 		Waits until the actuator is ready.
+	 * @return the <tt>Context</tt> of this <tt>RelayLock</tt>'s <tt>Pi4JActuator</tt>,
+	 * 		or <code>null</code> if the relay is switched by another actuator or could not be set up.
 	 * </ul>
 	 */
-	public void deactivateRelay() {
-		relayPin.low();
+	public Context getContext() {
+		if(!(actuator instanceof Pi4JActuator)) {
+			return null;
+		}
+		ready.exceptionally(throwable -> null).join();
+		return ready.isCompletedExceptionally() ? null : ((Pi4JActuator) actuator).getContext();
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getActuator</i></b>
+	 * <p>	<code>public LockActuator getActuator()</code>
+	 * <p>	Gets the <tt>LockActuator</tt> which switches the relay, such as to inspect a <tt>SimulatedActuator</tt>'s transitions.
+	 * @return the <tt>LockActuator</tt> of this <tt>RelayLock</tt>.
+	 * </ul>
+	 */
+	public LockActuator getActuator() {
+		return actuator;
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>getFirstActivationLatency</i></b>
+	 * <p>	<code>public long getFirstActivationLatency()</code>
+	 * <p>	Gets how long the first relay activation took to switch the pin.
+	 * @return a <code>long</code> for the latency in microseconds, or <code>-1</code> if the relay has not been activated yet.
+	 * </ul>
+	 */
+	public long getFirstActivationLatency() {
+		return firstActivationLatency;
 	}
 	
 	/**
@@ -71,10 +155,65 @@ public class RelayLock {
 	 * <p>	<b><i>prepareForShutdown</i></b>
 	 * <p>	<code>public void prepareForShutdown()</code>
 	 * <p>	Prepares the relevant GPIO pins and all connected components for shutdown.
+	 * 		Any queued relay request runs first.
 	 * </ul>
 	 */
 	public void prepareForShutdown() {
-		relayPin.shutdown(pi4j);
-		pi4j.shutdown();
+		runWhenReady("shutting down", () -> actuator.shutdown());
+		relayExecutor.shutdown();
+		try {
+			relayExecutor.awaitTermination(2, TimeUnit.SECONDS);
+		} catch (InterruptedException ie) {
+			System.out.println("<!> Interrupted while shutting down the relay. (IE preForShu)");
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * <ul>
+	 * <p>	<b><i>runWhenReady</i></b>
+	 * <p>	<code>private CompletableFuture{@literal<Long>} runWhenReady(String action, RelayTask task)</code>
+	 * <p>	Queues the passed task on the relay's thread. Tasks run one at a time, in the order they were queued, once the GPIO pins are ready.
+	 * 		If the actuator could not be set up, the task is dropped and reported.
+	 * @param action - a <tt>String</tt> describing the task, used when reporting errors.
+	 * @param task - a <tt>RelayTask</tt> which uses the actuator.
+	 * @return a <tt>CompletableFuture</tt> completed with the time the task took in microseconds, or completed exceptionally if it was dropped or failed, including with an unchecked exception.
+	 * </ul>
+	 */
+	private CompletableFuture<Long> runWhenReady(String action, RelayTask task) {
+		final CompletableFuture<Long> done = new CompletableFuture<Long>();
+		relayExecutor.execute(() -> {
+			if(ready.isCompletedExceptionally()) {
+				System.out.println("<!> Error " + action + " relay, its actuator is unavailable. (runWheRea)");
+				done.completeExceptionally(new IOException("Relay actuator is unavailable"));
+				return;
+			}
+			try {
+				final long taskStart = System.nanoTime();
+				task.run();
+				done.complete((System.nanoTime() - taskStart)/1000);
+			} catch (IOException ioe) {
+				System.out.println("<!> Error " + action + " relay. (IOE runWheRea)");
+				ioe.printStackTrace();
+				done.completeExceptionally(ioe);
+			} catch (RuntimeException re) {
+				//	GPIO failures, such as those from Pi4J, are unchecked. The future must still complete, so the request is answered.
+				System.out.println("<!> Error " + action + " relay. (RE runWheRea)");
+				re.printStackTrace();
+				done.completeExceptionally(re);
+			}
+		});
+		return done;
+	}
+	
+	/**
+	 * 
+	 * A task which switches the relay using the actuator, and may fail with an <tt>IOException</tt>.
+	 * 
+	 * @author Matthew Whitney
+	 *
+	 */
+	private interface RelayTask {
+		public void run() throws IOException;
 	}
 }
@@ -0,0 +1,111 @@
+package dev.mwhitney.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import dev.mwhitney.enums.ScanState;
+
+/**
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class ScanSession {
+
+	/** An <tt>AtomicReference</tt> holding the current <tt>ScanState</tt> of this scan. */
+	private final AtomicReference<ScanState> state = new AtomicReference<ScanState>(ScanState.IDLE);
+	/** The <tt>Thread</tt> running this scan, which is interrupted when the scan is cancelled, or <code>null</code> if the scan has not begun. */
+	private Thread worker = null;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>begin</i></b>
+	 * <p>	<code>public synchronized boolean begin()</code>
+	 * <p>	Marks the current thread as the one running this scan.
+	 * 		A scan may be created and cancelled while it is still queued, before any thread runs it.
+	 * @return <code>true</code> if the scan may go ahead; <code>false</code> if it was cancelled before it began.
+	 * </ul>
+	 */
+	public synchronized boolean begin() {
+		worker = Thread.currentThread();
+		return !getState().isFinal();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>advance</i></b>
+	 * <p>	<code>public boolean advance(ScanState next)</code>
+	 * <p>	Moves this scan into the passed state, unless it has already reached a final state.
+	 * @param next - the <tt>ScanState</tt> to move into.
+	 * @return <code>true</code> if the state was changed; <code>false</code> if the scan was already cancelled or done.
+	 * </ul>
+	 */
+	public boolean advance(ScanState next) {
+		ScanState current;
+		do {
+			current = state.get();
+			if(current.isFinal()) {
+				return false;
+			}
+		} while(!state.compareAndSet(current, next));
+		return true;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>cancel</i></b>
+	 * <p>	<code>public synchronized boolean cancel()</code>
+	 * <p>	Cancels this scan and interrupts its thread, so any wait for a finger or for the fingerprint scanner ends immediately.
+	 * 		A scan which has not begun yet is skipped once its turn comes. May be called from any thread.
+	 * @return <code>true</code> if the scan was cancelled; <code>false</code> if it was already cancelled or done.
+	 * </ul>
+	 */
+	public synchronized boolean cancel() {
+		if(!advance(ScanState.CANCELLED)) {
+			return false;
+		}
+		if(worker != null) {
+			worker.interrupt();
+		}
+		return true;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>finish</i></b>
+	 * <p>	<code>public synchronized void finish()</code>
+	 * <p>	Ends this scan, keeping the <code>CANCELLED</code> state if it was cancelled.
+	 * 		Must be called by the scanning thread once the scan is over,
+	 * 		so an interrupt caused by a cancellation does not leak into the thread's next task.
+	 * </ul>
+	 */
+	public synchronized void finish() {
+		advance(ScanState.DONE);
+		if(Thread.currentThread() == worker) {
+			Thread.interrupted();
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>isCancelled</i></b>
+	 * <p>	<code>public boolean isCancelled()</code>
+	 * <p>	Checks if this scan was cancelled.
+	 * @return <code>true</code> if the scan was cancelled; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public boolean isCancelled() {
+		return state.get() == ScanState.CANCELLED;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getState</i></b>
+	 * <p>	<code>public ScanState getState()</code>
+	 * <p>	Gets the current state of this scan.
+	 * @return the current <tt>ScanState</tt>.
+	 * </ul>
+	 */
+	public ScanState getState() {
+		return state.get();
+	}
+}
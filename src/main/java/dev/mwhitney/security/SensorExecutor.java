@@ -0,0 +1,178 @@
+package dev.mwhitney.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dev.mwhitney.enums.SensorPriority;
+
+/**
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class SensorExecutor {
+
+	/** A <tt>PriorityBlockingQueue</tt> of the commands waiting to run, ordered by priority, then by submission. */
+	private final PriorityBlockingQueue<SensorCommand<?>> queue = new PriorityBlockingQueue<SensorCommand<?>>();
+	/** An <tt>AtomicLong</tt> numbering submitted commands, so commands of equal priority run in submission order. */
+	private final AtomicLong sequence = new AtomicLong();
+	/** The <tt>Thread</tt> which owns the fingerprint scanner and runs every command. */
+	private final Thread owner;
+	/** A <code>boolean</code> for whether or not this executor still accepts commands. */
+	private volatile boolean running = true;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>SensorExecutor</i></b>
+	 * <p>	<code>public SensorExecutor()</code>
+	 * <p>	Creates a new <tt>SensorExecutor</tt> and starts its thread.
+	 * <p>	Every command for the fingerprint scanner should be submitted here, so only one thread ever talks to it
+	 * 		and the packets of two commands can never interleave on the serial connection.
+	 * <p>	Note: There should only be one object of this class active at a time.
+	 * </ul>
+	 */
+	public SensorExecutor() {
+		owner = new Thread(this::runCommands, "SensorExecutor");
+		owner.setDaemon(true);
+		owner.start();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>submit</i></b>
+	 * <p>	<code>public {@literal<T>} CompletableFuture{@literal<T>} submit(SensorPriority priority, long timeout, Callable{@literal<T>} command)</code>
+	 * <p>	Queues the passed command to run on the fingerprint scanner's thread.
+	 * <p>	The queued command with the highest priority runs next, so an authentication scan overtakes queued maintenance.
+	 * 		A running command is never interrupted by a more urgent one. Long maintenance should be submitted in small steps instead.
+	 * <p>	If the timeout passes, the returned future fails with a <tt>TimeoutException</tt>.
+	 * 		A command that is still queued by then is skipped. A running command is left to finish, but its result is dropped.
+	 * <p>	A command submitted from the executor's own thread runs immediately, since waiting on it there could never end.
+	 * @param priority - the <tt>SensorPriority</tt> of the command.
+	 * @param timeout - a <code>long</code> for how long the command may take, including its time in the queue, in milliseconds. <code>0</code> for no deadline.
+	 * @param command - a <tt>Callable</tt> which communicates with the fingerprint scanner.
+	 * @return a <tt>CompletableFuture</tt> completed with the command's result, or failed with its exception.
+	 * </ul>
+	 */
+	public <T> CompletableFuture<T> submit(SensorPriority priority, long timeout, Callable<T> command) {
+		final SensorCommand<T> sensorCommand = new SensorCommand<T>(priority, sequence.getAndIncrement(), command);
+		if(!running) {
+			sensorCommand.future.completeExceptionally(new RejectedExecutionException("Sensor executor is shut down"));
+			return sensorCommand.future;
+		}
+		if(timeout > 0) {
+			sensorCommand.future.orTimeout(timeout, TimeUnit.MILLISECONDS);
+		}
+
+		if(Thread.currentThread() == owner) {
+			sensorCommand.run();
+		}
+		else {
+			queue.add(sensorCommand);
+			//	A shutdown may have drained the queue between the check above and adding the command.
+			if(!running && queue.remove(sensorCommand)) {
+				sensorCommand.future.completeExceptionally(new RejectedExecutionException("Sensor executor is shut down"));
+			}
+		}
+		return sensorCommand.future;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>shutdown</i></b>
+	 * <p>	<code>public void shutdown()</code>
+	 * <p>	Stops accepting commands and fails every command still queued.
+	 * 		The running command is interrupted, then given a moment to finish, so the fingerprint scanner can be closed safely afterwards.
+	 * </ul>
+	 */
+	public void shutdown() {
+		running = false;
+		owner.interrupt();
+		try {
+			owner.join(1000);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+
+		final List<SensorCommand<?>> remaining = new ArrayList<SensorCommand<?>>();
+		queue.drainTo(remaining);
+		for(SensorCommand<?> sensorCommand : remaining) {
+			sensorCommand.future.completeExceptionally(new RejectedExecutionException("Sensor executor is shut down"));
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>runCommands</i></b>
+	 * <p>	<code>private void runCommands()</code>
+	 * <p>	Runs queued commands one at a time, until this executor is shut down.
+	 * </ul>
+	 */
+	private void runCommands() {
+		while(running) {
+			final SensorCommand<?> sensorCommand;
+			try {
+				sensorCommand = queue.take();
+			} catch (InterruptedException ie) {
+				continue;
+			}
+			sensorCommand.run();
+			//	Keep an interrupt aimed at one command from ending the next one.
+			Thread.interrupted();
+		}
+	}
+
+	/**
+	 *
+	 * A command queued on a <tt>SensorExecutor</tt>, together with the future receiving its result.
+	 *
+	 * @author Matthew Whitney
+	 *
+	 */
+	private static class SensorCommand<T> implements Comparable<SensorCommand<?>> {
+
+		/** The <tt>SensorPriority</tt> of this command. */
+		private final SensorPriority priority;
+		/** A <code>long</code> for the order this command was submitted in. */
+		private final long sequence;
+		/** The <tt>Callable</tt> to run. */
+		private final Callable<T> command;
+		/** The <tt>CompletableFuture</tt> receiving this command's result. */
+		private final CompletableFuture<T> future = new CompletableFuture<T>();
+
+		private SensorCommand(SensorPriority priority, long sequence, Callable<T> command) {
+			this.priority = priority;
+			this.sequence = sequence;
+			this.command = command;
+		}
+
+		/**
+		 * <ul>
+		 * <p>	<b><i>run</i></b>
+		 * <p>	<code>private void run()</code>
+		 * <p>	Runs this command and completes its future, unless the future already timed out while queued.
+		 * </ul>
+		 */
+		private void run() {
+			if(future.isDone()) {
+				return;
+			}
+			try {
+				future.complete(command.call());
+			} catch (Exception e) {
+				future.completeExceptionally(e);
+			}
+		}
+
+		@Override
+		public int compareTo(SensorCommand<?> other) {
+			final int byPriority = priority.compareTo(other.priority);
+			return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package dev.mwhitney.security;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class SimulatedActuator implements LockActuator {
+
+	/** An <code>int</code> for the most transitions kept. Older ones are dropped, so a long-running simulation does not grow without bound. */
+	public static final int MAX_TRANSITIONS = 4096;
+
+	/** A <tt>Deque</tt> of the most recent relay transitions, in the order they happened. */
+	private final Deque<Transition> transitions = new ArrayDeque<Transition>();
+	/** A <code>boolean</code> for whether or not the simulated relay is currently active. */
+	private boolean active = false;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>SimulatedActuator</i></b>
+	 * <p>	<code>public SimulatedActuator()</code>
+	 * <p>	Creates a new <tt>SimulatedActuator</tt>, which switches no hardware and instead records every relay transition with a timestamp.
+	 * <p>	This allows the unlock path to run without a Raspberry Pi, such as to load test open cycles and remote unlocks and measure their actuation latency.
+	 * </ul>
+	 */
+	public SimulatedActuator() {}
+
+	@Override
+	public void setup() {
+		System.out.println("<#> Using simulated relay, the door lock will not be switched.");
+	}
+
+	@Override
+	public void activate() {
+		record(true);
+	}
+
+	@Override
+	public void deactivate() {
+		record(false);
+	}
+
+	@Override
+	public void shutdown() {
+		record(false);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>isActive</i></b>
+	 * <p>	<code>public synchronized boolean isActive()</code>
+	 * <p>	Checks whether or not the simulated relay is currently active.
+	 * @return <code>true</code> if the relay is active; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public synchronized boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>getTransitions</i></b>
+	 * <p>	<code>public synchronized List{@literal<Transition>} getTransitions()</code>
+	 * <p>	Gets a snapshot of the most recent relay transitions, at most {@link #MAX_TRANSITIONS}, in the order they happened.
+	 * 		Writes that did not change the relay's state are not included.
+	 * @return a <tt>List{@literal<Transition>}</tt> of the transitions.
+	 * </ul>
+	 */
+	public synchronized List<Transition> getTransitions() {
+		return new ArrayList<Transition>(transitions);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>clearTransitions</i></b>
+	 * <p>	<code>public synchronized void clearTransitions()</code>
+	 * <p>	Forgets every recorded transition, such as between load test runs.
+	 * </ul>
+	 */
+	public synchronized void clearTransitions() {
+		transitions.clear();
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>record</i></b>
+	 * <p>	<code>private synchronized void record(boolean nowActive)</code>
+	 * <p>	Sets the simulated relay's state, and records a transition if it changed, dropping the oldest one if {@link #MAX_TRANSITIONS} are kept.
+	 * @param nowActive - <code>true</code> if the relay is now active; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	private synchronized void record(boolean nowActive) {
+		if(active != nowActive) {
+			active = nowActive;
+			if(transitions.size() == MAX_TRANSITIONS) {
+				transitions.removeFirst();
+			}
+			transitions.addLast(new Transition(System.nanoTime(), nowActive));
+		}
+	}
+
+	/**
+	 *
+	 * A change of the simulated relay's state, and when it happened.
+	 *
+	 * @author Matthew Whitney
+	 *
+	 */
+	public static class Transition {
+
+		/** A <code>long</code> for when the transition happened, from <code>System.nanoTime()</code>. */
+		private final long time;
+		/** A <code>boolean</code> for whether or not the relay became active. */
+		private final boolean active;
+
+		private Transition(long time, boolean active) {
+			this.time = time;
+			this.active = active;
+		}
+
+		/**
+		 * <ul>
+		 * <p>	<b><i>getTime</i></b>
+		 * <p>	<code>public long getTime()</code>
+		 * <p>	Gets when the transition happened, comparable with other <code>System.nanoTime()</code> values.
+		 * @return a <code>long</code> for the time of the transition, in nanoseconds.
+		 * </ul>
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 * <ul>
+		 * <p>	<b><i>isActive</i></b>
+		 * <p>	<code>public boolean isActive()</code>
+		 * <p>	Checks whether the relay became active or inactive.
+		 * @return <code>true</code> if the relay became active; <code>false</code> otherwise.
+		 * </ul>
+		 */
+		public boolean isActive() {
+			return active;
+		}
+
+		@Override
+		public String toString() {
+			return (active ? "activated" : "deactivated") + " at " + time + " ns";
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package dev.mwhitney.security;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class SysfsActuator implements LockActuator {
+
+	/** The folder of the Linux sysfs GPIO interface. */
+	private static final String GPIO_FOLDER = "/sys/class/gpio/";
+
+	/** An <code>int</code> for the number of the GPIO pin wired to the relay, as known to the kernel. */
+	private final int pin;
+	/** A <code>boolean</code> for whether or not the pin was exported by this actuator, and so should be unexported on shutdown. */
+	private boolean exported = false;
+	/** A <tt>RandomAccessFile</tt> kept open on the pin's value file, so switching the relay is a single write. */
+	private RandomAccessFile valueFile = null;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>SysfsActuator</i></b>
+	 * <p>	<code>public SysfsActuator(int pin)</code>
+	 * <p>	Creates a new <tt>SysfsActuator</tt>, which switches the relay through the Linux sysfs GPIO interface.
+	 * 		No native library is needed, so this works on any Linux board that still provides <code>/sys/class/gpio</code>.
+	 * @param pin - an <code>int</code> for the number of the GPIO pin wired to the relay, as known to the kernel.
+	 * </ul>
+	 */
+	public SysfsActuator(int pin) {
+		this.pin = pin;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>setup</i></b>
+	 * <p>	<code>public void setup() throws IOException</code>
+	 * <p>	Exports the pin if needed, then makes it an output which starts low.
+	 * 		Right after an export, the pin's files may take a moment to become writable, so they are retried for up to a second.
+	 * @throws IOException if the pin cannot be exported or configured.
+	 * </ul>
+	 */
+	@Override
+	public void setup() throws IOException {
+		final File pinFolder = new File(GPIO_FOLDER + "gpio" + pin);
+		if(!pinFolder.exists()) {
+			writeFile(GPIO_FOLDER + "export", String.valueOf(pin));
+			exported = true;
+		}
+
+		//	Writing 'low' sets the direction to output and the value to low in one step.
+		for(int attempt = 1; ; attempt++) {
+			try {
+				writeFile(pinFolder.getPath() + "/direction", "low");
+				break;
+			} catch (IOException ioe) {
+				if(attempt >= 20) {
+					throw ioe;
+				}
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while waiting for GPIO " + pin + " to be exported", ie);
+				}
+			}
+		}
+		valueFile = new RandomAccessFile(pinFolder.getPath() + "/value", "rw");
+	}
+
+	@Override
+	public void activate() throws IOException {
+		writeValue('1');
+	}
+
+	@Override
+	public void deactivate() throws IOException {
+		writeValue('0');
+	}
+
+	@Override
+	public void shutdown() throws IOException {
+		try {
+			deactivate();
+			valueFile.close();
+		} finally {
+			if(exported) {
+				writeFile(GPIO_FOLDER + "unexport", String.valueOf(pin));
+			}
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>writeValue</i></b>
+	 * <p>	<code>private void writeValue(char value) throws IOException</code>
+	 * <p>	Writes the passed value to the start of the pin's value file.
+	 * @param value - a <code>char</code> for the new value, either <code>'0'</code> or <code>'1'</code>.
+	 * @throws IOException if the value cannot be written.
+	 * </ul>
+	 */
+	private void writeValue(char value) throws IOException {
+		valueFile.seek(0);
+		valueFile.write(value);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>writeFile</i></b>
+	 * <p>	<code>private void writeFile(String path, String text) throws IOException</code>
+	 * <p>	Writes the passed text to the sysfs file at the passed path.
+	 * @param path - a <tt>String</tt> for the path of the file.
+	 * @param text - a <tt>String</tt> with the text to write.
+	 * @throws IOException if the file cannot be written.
+	 * </ul>
+	 */
+	private void writeFile(String path, String text) throws IOException {
+		try (FileWriter writer = new FileWriter(path)) {
+			writer.write(text);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package dev.mwhitney.security;
+
+import com.pi4j.context.Context;
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalInputConfigBuilder;
+import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.io.gpio.digital.PullResistance;
+import com.pi4j.plugin.pigpio.PiGpioPlugin;
+
+/**
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class TouchSensor {
+
+	/** An <code>Object</code> used to wait for and signal touches on the fingerprint scanner. */
+	private final Object touchLock = new Object();
+	/** A <tt>DigitalInput</tt> object connected to the fingerprint scanner's touch-sense (WAKEUP) output. */
+	private DigitalInput touchPin = null;
+	/** A <code>boolean</code> for whether or not the touch-sense output is low while a finger is on the scanner. */
+	private final boolean activeLow;
+	/** A <code>boolean</code> for whether or not the scanner has been touched since the last wait. */
+	private boolean touched = false;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>TouchSensor</i></b>
+	 * <p>	<code>public TouchSensor(Context pi4j, int pin, boolean activeLow)</code>
+	 * <p>	Creates a new <tt>TouchSensor</tt> which watches the fingerprint scanner's touch-sense output on the passed GPIO pin.
+	 * <p>	Note: There should only be one object of this class active at a time.
+	 * @param pi4j - the <tt>Context</tt> used to help interface with the Raspberry Pi's GPIO pins.
+	 * @param pin - an <code>int</code> for the BCM number of the GPIO pin wired to the touch-sense output.
+	 * @param activeLow - a <code>boolean</code> for whether or not the touch-sense output is low while a finger is on the scanner.
+	 * </ul>
+	 */
+	public TouchSensor(Context pi4j, int pin, boolean activeLow) {
+		this.activeLow = activeLow;
+		final DigitalInputConfigBuilder touchConfig = DigitalInput.newConfigBuilder(pi4j)
+				.id("touch")
+				.name("Touch")
+				.address(pin)
+				.pull(activeLow ? PullResistance.PULL_UP : PullResistance.PULL_DOWN)
+				.debounce(3000L)
+				.provider(PiGpioPlugin.DIGITAL_INPUT_PROVIDER_ID);
+		touchPin = pi4j.create(touchConfig);
+		touchPin.addListener(event -> {
+			if(isTouchState(event.state())) {
+				synchronized(touchLock) {
+					touched = true;
+					touchLock.notifyAll();
+				}
+			}
+		});
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>isTouched</i></b>
+	 * <p>	<code>public boolean isTouched()</code>
+	 * <p>	Checks whether or not a finger is currently on the fingerprint scanner.
+	 * @return <code>true</code> if a finger is on the scanner; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	public boolean isTouched() {
+		return isTouchState(touchPin.state());
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>awaitTouch</i></b>
+	 * <p>	<code>public boolean awaitTouch(long timeout) throws InterruptedException</code>
+	 * <p>	Waits until a finger is placed on the fingerprint scanner, or until the timeout passes.
+	 * <p>	The calling thread sleeps until the touch-sense output signals a touch, so the scanner is not queried over serial while idle.
+	 * 		Returns immediately if a finger is already on the scanner.
+	 * @param timeout - a <code>long</code> for the maximum time to wait, in milliseconds.
+	 * @return <code>true</code> if a finger was detected; <code>false</code> if the timeout passed first.
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 * </ul>
+	 */
+	public boolean awaitTouch(long timeout) throws InterruptedException {
+		synchronized(touchLock) {
+			if(!touched && !isTouched()) {
+				touchLock.wait(timeout);
+			}
+			final boolean detected = touched || isTouched();
+			touched = false;
+			return detected;
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>prepareForShutdown</i></b>
+	 * <p>	<code>public void prepareForShutdown(Context pi4j)</code>
+	 * <p>	Prepares the touch-sense GPIO pin for shutdown.
+	 * @param pi4j - the <tt>Context</tt> the pin was created with.
+	 * </ul>
+	 */
+	public void prepareForShutdown(Context pi4j) {
+		touchPin.shutdown(pi4j);
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>isTouchState</i></b>
+	 * <p>	<code>private boolean isTouchState(DigitalState state)</code>
+	 * <p>	Checks whether or not the passed pin state means a finger is on the scanner.
+	 * @param state - the <tt>DigitalState</tt> of the touch-sense pin.
+	 * @return <code>true</code> if the state signals a touch; <code>false</code> otherwise.
+	 * </ul>
+	 */
+	private boolean isTouchState(DigitalState state) {
+		return state == (activeLow ? DigitalState.LOW : DigitalState.HIGH);
+	}
+}
@@ -8,6 +8,7 @@ package sk.mimac.fingerprint;
  * <li>sensor.cant.write - Can't write to serial port</li>
  * <li>sensor.cant.read - Can't read from serial port</li>
  * <li>sensor.not.responding - Received no response for sent request</li>
+ * <li>sensor.interrupted - Waiting for response was interrupted</li>
  * </ul>
  * 
  * @author Milan Fabian
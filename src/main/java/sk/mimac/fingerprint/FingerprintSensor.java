@@ -1,6 +1,8 @@
 package sk.mimac.fingerprint;
 
 import java.io.Closeable;
+import java.util.BitSet;
+import java.util.Map;
 
 /**
  * General interface for communication with fingerprint sensor.
@@ -17,6 +19,25 @@ public interface FingerprintSensor extends Closeable {
      */
     void clearAllSaved() throws FingerprintException;
 
+    /**
+     * Removes saved fingerprint model from sensor's internal memory.
+     *
+     * @param number position in sensor's internal memory
+     * @throws FingerprintException if there is problem with communication to
+     * sensor
+     */
+    void deleteModel(int number) throws FingerprintException;
+
+    /**
+     * Removes range of saved fingerprint models from sensor's internal memory.
+     *
+     * @param number position of the first model in sensor's internal memory
+     * @param count of models to remove
+     * @throws FingerprintException if there is problem with communication to
+     * sensor
+     */
+    void deleteRange(int number, int count) throws FingerprintException;
+
     /**
      * Connect to the sensor. Must be called before calling any other method.
      *
@@ -24,6 +45,18 @@ public interface FingerprintSensor extends Closeable {
      */
     void connect() throws FingerprintException;
 
+    /**
+     * Change baud rate of the sensor's serial interface and reconnect at the
+     * new baud rate. If the sensor doesn't respond at the new baud rate, the
+     * connection falls back to the previous one.
+     *
+     * @param baudRate multiple of 9600, from 9600 to 115200
+     * @return baud rate used after the negotiation
+     * @throws FingerprintException if there is problem with communication to
+     * sensor
+     */
+    int negotiateBaudRate(int baudRate) throws FingerprintException;
+
     /**
      * Create model of fingerprint placed on sensor. The same finger must have
      * been previously checked by {@link #hasFingerprint() hasFingerprint}
@@ -46,6 +79,44 @@ public interface FingerprintSensor extends Closeable {
      */
     boolean hasFingerprint() throws FingerprintException;
 
+    /**
+     * Capture image of finger placed on the sensor into sensor's image
+     * buffer. No features are extracted from the image.
+     *
+     * @return true if finger was placed on sensor and image was captured,
+     * false otherwise
+     * @throws FingerprintException if there is problem with communication to
+     * sensor
+     */
+    boolean captureImage() throws FingerprintException;
+
+    /**
+     * Extract features from image captured by
+     * {@link #captureImage() captureImage} into one of sensor's character
+     * buffers.
+     *
+     * @param slot number of character buffer, 1 or 2
+     * @return true if features were extracted, false if the image is not
+     * clear enough
+     * @throws FingerprintException if there is problem with communication to
+     * sensor
+     */
+    boolean extractFeatures(int slot) throws FingerprintException;
+
+    /**
+     * Search part of sensor's internal memory for match with features
+     * extracted by {@link #extractFeatures(int) extractFeatures}.
+     *
+     * @param slot number of character buffer with the features, 1 or 2
+     * @param startPage position of the first model to compare
+     * @param count of models to compare
+     * @return matched fingerprint with its confidence or null if fingerprint
+     * doesn't match any stored fingerprint
+     * @throws FingerprintException if there is problem with communication to
+     * sensor
+     */
+    MatchResult search(int slot, int startPage, int count) throws FingerprintException;
+
     /**
      * Saves previously created fingerprint model to sensor's internal memory.
      *
@@ -56,6 +127,17 @@ public interface FingerprintSensor extends Closeable {
      */
     void saveModel(byte[] model, int number) throws FingerprintException;
 
+    /**
+     * Saves multiple fingerprint models to sensor's internal memory. Failure
+     * to save one model doesn't stop saving of the remaining ones.
+     *
+     * @param models fingerprint models mapped by their position in sensor's
+     * internal memory
+     * @return exceptions mapped by position of each model which failed, empty
+     * if all models were saved
+     */
+    Map<Integer, FingerprintException> saveModels(Map<Integer, byte[]> models);
+
     /**
      * Save fingerprint model which was created by
      * {@link #createModel() createModel} method to sensor's internal memory.
@@ -77,6 +159,27 @@ public interface FingerprintSensor extends Closeable {
      */
     Integer searchFingerprint() throws FingerprintException;
 
+    /**
+     * Get number of fingerprint models saved in sensor's internal memory.
+     *
+     * @return count of saved models
+     * @throws FingerprintException if there is problem with communication to
+     * sensor
+     */
+    int getModelCount() throws FingerprintException;
+
+    /**
+     * Read which positions of sensor's internal memory hold a saved
+     * fingerprint model.
+     *
+     * @param librarySize number of positions to read, usually the library
+     * size from {@link #readParameters() readParameters}
+     * @return set with bit set for each occupied position
+     * @throws FingerprintException if there is problem with communication to
+     * sensor
+     */
+    BitSet readIndexTable(int librarySize) throws FingerprintException;
+
     /**
      * Read basic parameters from the fingerprint sensor.
      * 
@@ -0,0 +1,47 @@
+package sk.mimac.fingerprint;
+
+/**
+ * Result of successful search for fingerprint in sensor's internal memory.
+ *
+ * @author Matthew Whitney
+ */
+public class MatchResult {
+
+    private final int id;
+
+    private final int confidence;
+
+    private final long searchDuration;
+
+    public MatchResult(int id, int confidence, long searchDuration) {
+        this.id = id;
+        this.confidence = confidence;
+        this.searchDuration = searchDuration;
+    }
+
+    /**
+     * @return position of matched fingerprint in sensor's internal memory
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return match score reported by the sensor, higher is more certain
+     */
+    public int getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * @return time the search took, in milliseconds
+     */
+    public long getSearchDuration() {
+        return searchDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "MatchResult{id=" + id + ", confidence=" + confidence + ", searchDuration=" + searchDuration + " ms}";
+    }
+}
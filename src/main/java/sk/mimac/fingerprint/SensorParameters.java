@@ -10,6 +10,8 @@ public class SensorParameters {
 
     private int librarySize;
 
+    private int baudRate;
+
     public int getSecurityLevel() {
         return securityLevel;
     }
@@ -26,4 +28,12 @@ public class SensorParameters {
         this.librarySize = librarySize;
     }
 
+    public int getBaudRate() {
+        return baudRate;
+    }
+
+    public void setBaudRate(int baudRate) {
+        this.baudRate = baudRate;
+    }
+
 }
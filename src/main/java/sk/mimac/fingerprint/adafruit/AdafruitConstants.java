@@ -56,4 +56,5 @@ public class AdafruitConstants {
     public static final int FINGERPRINT_VERIFYPASSWORD = 0x13;
     public static final int FINGERPRINT_READ_SYS_INFO = 0x16;
     public static final int FINGERPRINT_TEMPLATECOUNT = 0x1D;
+    public static final int FINGERPRINT_READ_INDEX_TABLE = 0x1F;
 }
@@ -0,0 +1,276 @@
+package sk.mimac.fingerprint.adafruit;
+
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_STARTCODE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.*;
+import sk.mimac.fingerprint.FingerprintException;
+
+/**
+ * Decoder for packets sent by the fingerprint sensor. Received bytes are read
+ * from the serial stream in bulk into a ring buffer, where the packet header
+ * and checksum are validated in place. The decoded packet is kept in a reused
+ * buffer, so no memory is allocated per received byte. The only allocation
+ * per packet is the copy made by {@link #copyPacket()}, which
+ * {@link AdafruitSensor} takes of every command reply; bulk template data
+ * is read straight from {@link #getPacket()} without copying.
+ * <p>
+ * Packets with wrong start code, address, length or checksum are counted and
+ * skipped. The decoder then resynchronizes on the next start code, keeping
+ * any bytes already received after it.
+ * <p>
+ * When serial events are available, the decoder sleeps until it is notified
+ * through {@link #dataAvailable()} instead of polling the stream.
+ * <p>
+ * Waiting for a reply can be interrupted. The reply which may still arrive
+ * is then dropped by {@link #drainInterruptedReply()} before the next
+ * request, so it isn't mistaken for the reply to that request.
+ *
+ * @author Matthew Whitney
+ */
+public class AdafruitFrameDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdafruitFrameDecoder.class);
+
+    /** Size of packet header (start code, address, type and length). */
+    public static final int HEADER_LENGTH = 9;
+    /** Largest packet length accepted (256 bytes of data and 2 bytes of checksum). */
+    public static final int MAX_PACKET_LENGTH = 258;
+
+    /** Time in which whole packet has to be received. */
+    public static final long PACKET_TIMEOUT_MS = 750;
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+    private static final long EVENT_WAIT_MS = 50;
+    private static final long POLL_WAIT_MS = 5;
+
+    private final InputStream input;
+    private final Object lock = new Object();
+    private volatile boolean eventDriven;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] packet = new byte[MAX_PACKET_LENGTH];
+    private int head;
+    private int tail;
+    private int packetLength;
+    private volatile long corruptPackets;
+    private volatile boolean replyInterrupted;
+
+    /**
+     * Construct decoder reading from given stream.
+     *
+     * @param input stream connected to the sensor
+     */
+    public AdafruitFrameDecoder(InputStream input) {
+        this.input = input;
+    }
+
+    /**
+     * Read next packet from the sensor. After this method returns, the packet
+     * type and its data are available through {@link #getPacket()}.
+     *
+     * @throws FingerprintException if there is problem with communication to
+     * sensor or no valid packet is received in time
+     */
+    public void readPacket() throws FingerprintException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PACKET_TIMEOUT_MS);
+        try {
+            while (true) {
+                fill(1, deadline);
+                if (peek(0) != (byte) (FINGERPRINT_STARTCODE >> 8)) {
+                    head++;
+                    continue;
+                }
+                fill(HEADER_LENGTH, deadline);
+                if (!isHeaderValid()) {
+                    skipCorruptPacket("bad header");
+                    continue;
+                }
+                int length = (peek(7) & 0xFF) << 8 | peek(8) & 0xFF;
+                if (length < 2 || length > MAX_PACKET_LENGTH) {
+                    skipCorruptPacket("bad length " + length);
+                    continue;
+                }
+                fill(HEADER_LENGTH + length, deadline);
+                if (!isChecksumValid(length)) {
+                    skipCorruptPacket("bad checksum");
+                    continue;
+                }
+
+                packet[0] = peek(6);
+                for (int i = 0; i < length - 2; i++) {
+                    packet[1 + i] = peek(HEADER_LENGTH + i);
+                }
+                packetLength = length - 1;
+                head += HEADER_LENGTH + length;
+                return;
+            }
+        } catch (IOException ex) {
+            throw new FingerprintException("Can't read data from sensor", "sensor.cant.read", ex);
+        }
+    }
+
+    /**
+     * Discard all received data which weren't decoded yet, for example stale
+     * replies left after a failed request.
+     */
+    public void discard() {
+        head = tail;
+        try {
+            input.skip(input.available());
+        } catch (IOException ex) {
+            logger.debug("Can't discard received data: " + ex);
+        }
+    }
+
+    /**
+     * Drop the reply to a request whose wait was interrupted, waiting for it
+     * at most {@link #PACKET_TIMEOUT_MS}. Does nothing if no wait was
+     * interrupted since the last call, or if the current thread is still
+     * interrupted. Should be called before sending a new request.
+     */
+    public void drainInterruptedReply() {
+        if (!replyInterrupted || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        replyInterrupted = false;
+        try {
+            readPacket();
+            logger.debug("Dropped reply to interrupted request");
+        } catch (FingerprintException ex) {
+            logger.debug("No reply to interrupted request: " + ex.getMessage());
+        }
+        discard();
+    }
+
+    /**
+     * Notify the decoder that new data were received. Should be called from
+     * the serial port's data available event.
+     */
+    public void dataAvailable() {
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Set whether {@link #dataAvailable()} is called when data are received.
+     * If not, the stream is polled for available data.
+     *
+     * @param eventDriven true if data available events are delivered
+     */
+    public void setEventDriven(boolean eventDriven) {
+        this.eventDriven = eventDriven;
+    }
+
+    /**
+     * Get number of corrupted packets which were skipped since the decoder
+     * was created. Useful as an indicator of the serial link quality.
+     *
+     * @return count of corrupted packets
+     */
+    public long getCorruptPacketCount() {
+        return corruptPackets;
+    }
+
+    /**
+     * Get buffer with last received packet. First byte is the packet type,
+     * following bytes are packet data. Buffer is reused by the next call of
+     * {@link #readPacket() readPacket}.
+     *
+     * @return buffer with packet, valid up to {@link #getPacketLength()}
+     */
+    public byte[] getPacket() {
+        return packet;
+    }
+
+    /**
+     * @return length of last received packet (type and data)
+     */
+    public int getPacketLength() {
+        return packetLength;
+    }
+
+    /**
+     * @return type of last received packet
+     */
+    public byte getPacketType() {
+        return packet[0];
+    }
+
+    /**
+     * Copy last received packet into a new array, which stays valid after the
+     * next call of {@link #readPacket() readPacket}. Allocates on every call.
+     *
+     * @return copy of last received packet (type and data)
+     */
+    public byte[] copyPacket() {
+        return Arrays.copyOf(packet, packetLength);
+    }
+
+    private boolean isHeaderValid() {
+        if (peek(1) != (byte) FINGERPRINT_STARTCODE) {
+            return false;
+        }
+        for (int i = 2; i < 6; i++) {
+            if (peek(i) != (byte) 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isChecksumValid(int length) {
+        int sum = 0;
+        for (int i = 6; i < HEADER_LENGTH + length - 2; i++) {
+            sum += peek(i) & 0xFF;
+        }
+        int checksum = (peek(HEADER_LENGTH + length - 2) & 0xFF) << 8 | peek(HEADER_LENGTH + length - 1) & 0xFF;
+        return (sum & 0xFFFF) == checksum;
+    }
+
+    private void skipCorruptPacket(String reason) {
+        // Skip only the start code byte, next packet may begin inside this one
+        head++;
+        corruptPackets++;
+        logger.debug("Skipped corrupted packet (" + reason + "), " + corruptPackets + " so far");
+    }
+
+    private byte peek(int offset) {
+        return buffer[(head + offset) & BUFFER_MASK];
+    }
+
+    private void fill(int count, long deadline) throws IOException, FingerprintException {
+        while (tail - head < count) {
+            waitForInputAvailable(tail - head, deadline);
+            int offset = tail & BUFFER_MASK;
+            int free = Math.min(BUFFER_SIZE - (tail - head), BUFFER_SIZE - offset);
+            int read = input.read(buffer, offset, Math.min(free, Math.max(input.available(), 1)));
+            if (read < 0) {
+                throw new IOException("End of stream");
+            }
+            tail += read;
+        }
+    }
+
+    private void waitForInputAvailable(int index, long deadline) throws IOException, FingerprintException {
+        synchronized (lock) {
+            while (input.available() == 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    throw new FingerprintException("Timeout at index " + index, "sensor.not.responding");
+                }
+                try {
+                    lock.wait(Math.min(remaining, eventDriven ? EVENT_WAIT_MS : POLL_WAIT_MS));
+                } catch (InterruptedException ex) {
+                    replyInterrupted = true;
+                    Thread.currentThread().interrupt();
+                    throw new FingerprintException("Interrupted while waiting for sensor", "sensor.interrupted", ex);
+                }
+            }
+        }
+    }
+}
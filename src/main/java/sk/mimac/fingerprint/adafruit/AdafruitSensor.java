@@ -3,6 +3,7 @@ package sk.mimac.fingerprint.adafruit;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_ACKPACKET;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_COMMANDPACKET;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_DATAPACKET;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_DELETE;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_DOWNLOAD;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_EMPTY;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_ENDDATAPACKET;
@@ -12,20 +13,25 @@ import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_HISPEE
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_IMAGE2TZ;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_NOTFOUND;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_OK;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_READ_INDEX_TABLE;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_READ_SYS_PARAM;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_REGMODEL;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_SET_SYS_PARAM;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_STARTCODE;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_STORE;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_TEMPLATECOUNT;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_UPLOAD;
 import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_VERIFYPASSWORD;
 
 import sk.mimac.fingerprint.FingerprintSensor;
 import gnu.io.NRSerialPort;
+import gnu.io.SerialPortEvent;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.*;
 import sk.mimac.fingerprint.FingerprintException;
+import sk.mimac.fingerprint.MatchResult;
 import sk.mimac.fingerprint.SensorParameters;
 
 /**
@@ -38,8 +44,22 @@ public class AdafruitSensor implements FingerprintSensor {
 
     private static final Logger logger = LoggerFactory.getLogger(AdafruitSensor.class);
 
-    private final NRSerialPort serial;
-    private DataInputStream input;
+    /** Length of fingerprint model transferred to and from the sensor. */
+    private static final int MODEL_LENGTH = 512;
+    /** Length of data in one packet of the model. */
+    private static final int MODEL_PACKET_LENGTH = 128;
+    /** Length of encoded model data packets followed by the store command. */
+    private static final int MODEL_FRAMES_LENGTH = (MODEL_LENGTH / MODEL_PACKET_LENGTH) * (MODEL_PACKET_LENGTH + 11) + 4 + 11;
+    /** Baud rates tried when the sensor doesn't respond at the configured one. */
+    private static final int[] BAUD_RATES = {57600, 115200, 38400, 19200, 9600};
+
+    private final String serialPort;
+    private final InputStream streamInput;
+    private final OutputStream streamOutput;
+    private int baudRate;
+    private NRSerialPort serial;
+    private volatile AdafruitFrameDecoder decoder;
+    private volatile boolean streamEvents;
     private OutputStream output;
 
     /**
@@ -58,26 +78,152 @@ public class AdafruitSensor implements FingerprintSensor {
      * @param baudRate of the sensor's serial interface (default is 57600)
      */
     public AdafruitSensor(String serialPort, int baudRate) {
-        serial = new NRSerialPort(serialPort, baudRate);
+        this.serialPort = serialPort;
+        this.streamInput = null;
+        this.streamOutput = null;
+        this.baudRate = baudRate;
+    }
+
+    /**
+     * Construct sensor class communicating over given streams instead of a
+     * serial port, for example with the {@code AdafruitSensorEmulator} of the
+     * tests and benchmarks. Baud rate
+     * changes are still sent to the sensor, but don't affect the streams.
+     * The input stream is polled, unless its writer calls
+     * {@link #dataAvailable()}.
+     *
+     * @param input stream with data received from the sensor
+     * @param output stream for data sent to the sensor
+     */
+    public AdafruitSensor(InputStream input, OutputStream output) {
+        this.serialPort = null;
+        this.streamInput = input;
+        this.streamOutput = output;
+        this.baudRate = 57600;
     }
 
     @Override
     public void connect() throws FingerprintException {
-        if (!serial.connect()) {
-            throw new FingerprintException("Can't connect to fingerprint sensor", "sensor.cant.connect");
+        int initialBaudRate = baudRate;
+        openPort(initialBaudRate);
+        try {
+            verifyPassword();
+            return;
+        } catch (FingerprintException ex) {
+            if (!"sensor.not.responding".equals(ex.getKey())) {
+                throw ex;
+            }
+            // Baud rate may have been changed by previous negotiation, try the others
+            for (int rate : BAUD_RATES) {
+                if (rate == initialBaudRate) {
+                    continue;
+                }
+                closePort();
+                openPort(rate);
+                try {
+                    verifyPassword();
+                    logger.info("Fingerprint sensor found at baud rate " + rate);
+                    return;
+                } catch (FingerprintException ignore) {
+                }
+            }
+            closePort();
+            openPort(initialBaudRate);
+            throw ex;
         }
-        input = new DataInputStream(serial.getInputStream());
-        output = serial.getOutputStream();
-        writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_VERIFYPASSWORD, 0, 0, 0, 0});
+    }
+
+    @Override
+    public int negotiateBaudRate(int newBaudRate) throws FingerprintException {
+        if (newBaudRate < 9600 || newBaudRate > 115200 || newBaudRate % 9600 != 0) {
+            throw new IllegalArgumentException("Unsupported baud rate " + newBaudRate);
+        }
+        if (newBaudRate == baudRate) {
+            return baudRate;
+        }
+        int oldBaudRate = baudRate;
+        writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_SET_SYS_PARAM, 0x04, (byte) (newBaudRate / 9600)});
         byte[] reply = getReply();
-        if ((reply[0] != FINGERPRINT_ACKPACKET) || (reply[1] != FINGERPRINT_OK)) {
-            throw new FingerprintException("Can't initialize fingerprint sensor, reply is: " + bytesToHex(reply), "sensor.cant.connect");
+        if (reply[0] != FINGERPRINT_ACKPACKET || reply[1] != FINGERPRINT_OK) {
+            logger.warn("Fingerprint sensor refused baud rate " + newBaudRate + ": " + bytesToHex(reply));
+            return baudRate;
         }
+        closePort();
+        openPort(newBaudRate);
+        try {
+            verifyPassword();
+            return baudRate;
+        } catch (FingerprintException ex) {
+            logger.warn("No handshake at baud rate " + newBaudRate + ", falling back to " + oldBaudRate + ": " + ex);
+        }
+        closePort();
+        baudRate = oldBaudRate;
+        connect();
+        return baudRate;
+    }
+
+    /**
+     * Notify the sensor that data were written to the input stream given to
+     * {@link #AdafruitSensor(InputStream, OutputStream)}, like the serial port
+     * does with its events. After the first notification, the sensor waits
+     * for them instead of polling the stream, so the writer has to notify
+     * after every write.
+     */
+    public void dataAvailable() {
+        AdafruitFrameDecoder current = decoder;
+        if (current == null) {
+            return;
+        }
+        if (!streamEvents) {
+            streamEvents = true;
+            current.setEventDriven(true);
+        }
+        current.dataAvailable();
     }
 
     @Override
     public void close() throws IOException {
-        if (serial.isConnected()) {
+        closePort();
+        if (streamInput != null) {
+            try {
+                streamInput.close();
+            } finally {
+                streamOutput.close();
+            }
+        }
+    }
+
+    private void openPort(int rate) throws FingerprintException {
+        if (streamInput != null) {
+            // No serial events for plain streams, the decoder polls them unless notified
+            baudRate = rate;
+            decoder = new AdafruitFrameDecoder(streamInput);
+            decoder.setEventDriven(streamEvents);
+            output = streamOutput;
+            return;
+        }
+        serial = new NRSerialPort(serialPort, rate);
+        if (!serial.connect()) {
+            throw new FingerprintException("Can't connect to fingerprint sensor", "sensor.cant.connect");
+        }
+        baudRate = rate;
+        decoder = new AdafruitFrameDecoder(serial.getInputStream());
+        output = serial.getOutputStream();
+        try {
+            serial.addEventListener(event -> {
+                if (event.getEventType() == SerialPortEvent.DATA_AVAILABLE) {
+                    decoder.dataAvailable();
+                }
+            });
+            serial.notifyOnDataAvailable(true);
+            decoder.setEventDriven(true);
+        } catch (TooManyListenersException ex) {
+            logger.warn("Can't listen for serial port events, polling instead: " + ex);
+        }
+    }
+
+    private void closePort() {
+        if (serial != null && serial.isConnected()) {
             try {
                 serial.disconnect();
             } catch (Exception ex) {
@@ -86,17 +232,50 @@ public class AdafruitSensor implements FingerprintSensor {
         }
     }
 
+    private void verifyPassword() throws FingerprintException {
+        writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_VERIFYPASSWORD, 0, 0, 0, 0});
+        byte[] reply = getReply();
+        if ((reply[0] != FINGERPRINT_ACKPACKET) || (reply[1] != FINGERPRINT_OK)) {
+            throw new FingerprintException("Can't initialize fingerprint sensor, reply is: " + bytesToHex(reply), "sensor.cant.connect");
+        }
+    }
+
+    /**
+     * @return baud rate currently used for communication with the sensor
+     */
+    public int getBaudRate() {
+        return baudRate;
+    }
+
     @Override
     public boolean hasFingerprint() throws FingerprintException {
-        if (!getImage()) {
+        if (!captureImage()) {
             return false;
         }
-        return image2tz((byte) 1);
+        return extractFeatures(1);
+    }
+
+    @Override
+    public boolean captureImage() throws FingerprintException {
+        return getImage();
+    }
+
+    @Override
+    public boolean extractFeatures(int slot) throws FingerprintException {
+        return image2tz((byte) slot);
     }
 
     @Override
     public Integer searchFingerprint() throws FingerprintException {
-        writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_HISPEEDSEARCH, 0x01, 0x00, 0x00, 0x01, 0x00});
+        MatchResult match = search(1, 0, 256);
+        return match == null ? null : match.getId();
+    }
+
+    @Override
+    public MatchResult search(int slot, int startPage, int count) throws FingerprintException {
+        long start = System.nanoTime();
+        writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_HISPEEDSEARCH, (byte) slot,
+            (byte) (startPage >> 8), (byte) startPage, (byte) (count >> 8), (byte) count});
         byte[] reply = getReply();
         if (reply[0] != FINGERPRINT_ACKPACKET) {
             throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
@@ -110,8 +289,9 @@ public class AdafruitSensor implements FingerprintSensor {
                 int confidence = reply[4] & 0xFF;
                 confidence <<= 8;
                 confidence |= reply[5] & 0xFF;
-                logger.debug("Found fingerprint with number " + fingerID + " with confidence " + confidence);
-                return fingerID;
+                long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                logger.debug("Found fingerprint with number " + fingerID + " with confidence " + confidence + " in " + duration + " ms");
+                return new MatchResult(fingerID, confidence, duration);
             case FINGERPRINT_NOTFOUND:
                 return null;
             default:
@@ -140,19 +320,101 @@ public class AdafruitSensor implements FingerprintSensor {
         }
     }
 
+    @Override
+    public void deleteModel(int number) throws FingerprintException {
+        deleteRange(number, 1);
+    }
+
+    @Override
+    public void deleteRange(int number, int count) throws FingerprintException {
+        writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_DELETE, (byte) (number >> 8), (byte) (number & 0xFF), (byte) (count >> 8), (byte) (count & 0xFF)});
+        byte[] reply = getReply();
+        if (reply[0] != FINGERPRINT_ACKPACKET || reply[1] != FINGERPRINT_OK) {
+            throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
+        }
+    }
+
     @Override
     public void saveModel(byte[] model, int number) throws FingerprintException {
+        byte[] frames = new byte[MODEL_FRAMES_LENGTH];
+        encodeModel(model, number, frames);
+        downloadModel(frames);
+        checkStoreReply();
+    }
+
+    @Override
+    public Map<Integer, FingerprintException> saveModels(Map<Integer, byte[]> models) {
+        Map<Integer, FingerprintException> failures = new LinkedHashMap<>();
+        Iterator<Map.Entry<Integer, byte[]>> iterator = models.entrySet().iterator();
+        byte[] frames = new byte[MODEL_FRAMES_LENGTH];
+        byte[] nextFrames = new byte[MODEL_FRAMES_LENGTH];
+        Map.Entry<Integer, byte[]> model = encodeNextModel(iterator, frames, failures);
+        while (model != null) {
+            Map.Entry<Integer, byte[]> nextModel = null;
+            boolean nextEncoded = false;
+            try {
+                downloadModel(frames);
+                // Encode next model while the sensor is storing this one
+                nextModel = encodeNextModel(iterator, nextFrames, failures);
+                nextEncoded = true;
+                checkStoreReply();
+            } catch (FingerprintException ex) {
+                logger.warn("Can't save fingerprint model " + model.getKey() + ": " + ex);
+                failures.put(model.getKey(), ex);
+                decoder.discard();
+            }
+            if (!nextEncoded) {
+                nextModel = encodeNextModel(iterator, nextFrames, failures);
+            }
+            byte[] swap = frames;
+            frames = nextFrames;
+            nextFrames = swap;
+            model = nextModel;
+        }
+        return failures;
+    }
+
+    private Map.Entry<Integer, byte[]> encodeNextModel(Iterator<Map.Entry<Integer, byte[]>> iterator, byte[] frames, Map<Integer, FingerprintException> failures) {
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, byte[]> model = iterator.next();
+            try {
+                encodeModel(model.getValue(), model.getKey(), frames);
+                return model;
+            } catch (FingerprintException ex) {
+                failures.put(model.getKey(), ex);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Encode data packets of the model followed by the store command, so they
+     * can be sent to the sensor in one write.
+     */
+    private void encodeModel(byte[] model, int number, byte[] frames) throws FingerprintException {
+        if (model.length < MODEL_LENGTH) {
+            throw new FingerprintException("Fingerprint model is too short: " + model.length, "sensor.bad.data");
+        }
+        int offset = 0;
+        for (int i = 0; i < MODEL_LENGTH; i += MODEL_PACKET_LENGTH) {
+            byte packetType = i + MODEL_PACKET_LENGTH < MODEL_LENGTH ? FINGERPRINT_DATAPACKET : FINGERPRINT_ENDDATAPACKET;
+            offset += encodePacket(packetType, model, i, MODEL_PACKET_LENGTH, frames, offset);
+        }
+        byte[] store = new byte[]{FINGERPRINT_STORE, 0x01, (byte) (number >> 8), (byte) (number & 0xFF)};
+        encodePacket(FINGERPRINT_COMMANDPACKET, store, 0, store.length, frames, offset);
+    }
+
+    private void downloadModel(byte[] frames) throws FingerprintException {
         writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_DOWNLOAD, 0x01});
         byte[] reply = getReply();
         if (reply[0] != FINGERPRINT_ACKPACKET || reply[1] != FINGERPRINT_OK) {
             throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
         }
-        writePacket(FINGERPRINT_DATAPACKET, Arrays.copyOfRange(model, 0, 128));
-        writePacket(FINGERPRINT_DATAPACKET, Arrays.copyOfRange(model, 128, 256));
-        writePacket(FINGERPRINT_DATAPACKET, Arrays.copyOfRange(model, 256, 384));
-        writePacket(FINGERPRINT_ENDDATAPACKET, Arrays.copyOfRange(model, 384, 512));
-        writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_STORE, 0x01, (byte) (number >> 8), (byte) (number & 0xFF)});
-        reply = getReply();
+        writeData(frames, MODEL_FRAMES_LENGTH);
+    }
+
+    private void checkStoreReply() throws FingerprintException {
+        byte[] reply = getReply();
         if (reply[0] != FINGERPRINT_ACKPACKET || reply[1] != FINGERPRINT_OK) {
             throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
         }
@@ -167,16 +429,49 @@ public class AdafruitSensor implements FingerprintSensor {
         }
     }
 
+    @Override
+    public int getModelCount() throws FingerprintException {
+        writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_TEMPLATECOUNT});
+        byte[] reply = getReply();
+        if (reply[0] != FINGERPRINT_ACKPACKET || reply[1] != FINGERPRINT_OK) {
+            throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
+        }
+        return (reply[2] & 0xFF) << 8 | reply[3] & 0xFF;
+    }
+
+    @Override
+    public BitSet readIndexTable(int librarySize) throws FingerprintException {
+        BitSet occupied = new BitSet(librarySize);
+        // Each page of the index table covers 256 positions
+        for (int page = 0; page * 256 < librarySize; page++) {
+            writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_READ_INDEX_TABLE, (byte) page});
+            byte[] reply = getReply();
+            if (reply[0] != FINGERPRINT_ACKPACKET || reply[1] != FINGERPRINT_OK || reply.length < 34) {
+                throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
+            }
+            for (int i = 0; i < 32; i++) {
+                for (int bit = 0; bit < 8; bit++) {
+                    int position = page * 256 + i * 8 + bit;
+                    if (position < librarySize && (reply[2 + i] & (1 << bit)) != 0) {
+                        occupied.set(position);
+                    }
+                }
+            }
+        }
+        return occupied;
+    }
+
     @Override
     public SensorParameters readParameters() throws FingerprintException {
         writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_READ_SYS_PARAM});
         byte[] reply = getReply();
-        if (reply[0] != FINGERPRINT_ACKPACKET && reply[1] != FINGERPRINT_OK) {
+        if (reply[0] != FINGERPRINT_ACKPACKET || reply[1] != FINGERPRINT_OK || reply.length < 18) {
             throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
         }
         SensorParameters parameters = new SensorParameters();
         parameters.setLibrarySize((reply[6] & 0xFF) << 8 | reply[7] & 0xFF);
         parameters.setSecurityLevel(reply[9]);
+        parameters.setBaudRate(((reply[16] & 0xFF) << 8 | reply[17] & 0xFF) * 9600);
         return parameters;
     }
 
@@ -184,7 +479,7 @@ public class AdafruitSensor implements FingerprintSensor {
     public void setSecurityLevel(int securityLevel) throws FingerprintException {
         writePacket(FINGERPRINT_COMMANDPACKET, new byte[]{FINGERPRINT_SET_SYS_PARAM, 0x05, (byte) securityLevel});
         byte[] reply = getReply();
-        if (reply[0] != FINGERPRINT_ACKPACKET && reply[1] != FINGERPRINT_OK) {
+        if (reply[0] != FINGERPRINT_ACKPACKET || reply[1] != FINGERPRINT_OK) {
             throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
         }
     }
@@ -215,14 +510,16 @@ public class AdafruitSensor implements FingerprintSensor {
             throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
         }
         // Read model
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        while (reply[0] != FINGERPRINT_ENDDATAPACKET) {
-            reply = getReply();
-            if (reply[0] != FINGERPRINT_DATAPACKET && reply[0] != FINGERPRINT_ENDDATAPACKET) {
-                throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(reply), "sensor.bad.data");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(512);
+        byte packetType;
+        do {
+            decoder.readPacket();
+            packetType = decoder.getPacketType();
+            if (packetType != FINGERPRINT_DATAPACKET && packetType != FINGERPRINT_ENDDATAPACKET) {
+                throw new FingerprintException("Got wrong data from fingerprint sensor: " + bytesToHex(decoder.copyPacket()), "sensor.bad.data");
             }
-            outputStream.write(reply, 1, reply.length - 1);
-        }
+            outputStream.write(decoder.getPacket(), 1, decoder.getPacketLength() - 1);
+        } while (packetType != FINGERPRINT_ENDDATAPACKET);
         return outputStream.toByteArray();
     }
 
@@ -240,82 +537,70 @@ public class AdafruitSensor implements FingerprintSensor {
         }
     }
 
+    /**
+     * Get number of corrupted packets received from the sensor and skipped
+     * since the connection was opened.
+     *
+     * @return count of corrupted packets
+     */
+    public long getCorruptPacketCount() {
+        return decoder == null ? 0 : decoder.getCorruptPacketCount();
+    }
+
     private void writePacket(byte packetType, byte[] packet) throws FingerprintException {
-        int length = packet.length + 2;
         byte[] data = new byte[packet.length + 11];
+        encodePacket(packetType, packet, 0, packet.length, data, 0);
+        writeData(data, data.length);
+    }
 
-        data[0] = (byte) (FINGERPRINT_STARTCODE >> 8);
-        data[1] = (byte) FINGERPRINT_STARTCODE;
-        data[2] = 0xFFFFFFFF >> 24;
-        data[3] = 0xFFFFFFFF >> 16;
-        data[4] = 0xFFFFFFFF >> 8;
-        data[5] = 0xFFFFFFFF;
-        data[6] = packetType;
-        data[7] = (byte) (length >> 8);
-        data[8] = (byte) length;
-
-        int sum = (length >> 8) + (length & 0xFF) + packetType;
-        for (int i = 0; i < packet.length; i++) {
-            data[9 + i] = packet[i];
-            sum += ((int) packet[i]) & 0xFF;
-        }
-
-        data[9 + packet.length] = (byte) (sum >> 8);
-        data[10 + packet.length] = (byte) (sum & 0xFF);
+    private void writeData(byte[] data, int length) throws FingerprintException {
+        decoder.drainInterruptedReply();
         try {
-            output.write(data);
+            output.write(data, 0, length);
             output.flush();
         } catch (IOException ex) {
             throw new FingerprintException("Can't write data to sensor", "sensor.cant.write", ex);
         }
     }
 
-    private byte[] getReply() throws FingerprintException {
-        List<Byte> reply = new ArrayList<>(10);
-        int index = 0;
-        int length = 0;
-        try {
-            while (true) {
-                waitForInputAvailable(index);
-                byte data = (byte) input.read();
-                if ((index == 0) && (data != (byte) (FINGERPRINT_STARTCODE >> 8))) {
-                    continue;
-                }
-                reply.add(data);
+    /**
+     * Encode packet for the sensor into given buffer.
+     *
+     * @param packetType type of the packet
+     * @param packet buffer with packet data
+     * @param offset of packet data in the buffer
+     * @param count of packet data bytes
+     * @param data buffer for the encoded packet, needs count + 11 bytes
+     * @param dataOffset of encoded packet in the buffer
+     * @return number of bytes written to data buffer
+     */
+    static int encodePacket(byte packetType, byte[] packet, int offset, int count, byte[] data, int dataOffset) {
+        int length = count + 2;
 
-                if (index == 8) {
-                    if ((reply.get(0) != (byte) (FINGERPRINT_STARTCODE >> 8)) || (reply.get(1) != (byte) FINGERPRINT_STARTCODE)) {
-                        throw new FingerprintException("Bad packet", "sensor.bad.data");
-                    }
-                    length = ((reply.get(7) & 0xFF) << 8) | reply.get(8) & 0xFF;
-                }
-                if (index >= (length + 8)) {
-                    byte[] result = new byte[length - 1];
-                    result[0] = reply.get(6);
-                    for (int i = 0; i < (length - 2); i++) {
-                        result[1 + i] = reply.get(9 + i);
-                    }
-                    return result;
-                }
-                index++;
-            }
-        } catch (IOException ex) {
-            throw new FingerprintException("Can't read data from sensor", "sensor.cant.read", ex);
+        data[dataOffset] = (byte) (FINGERPRINT_STARTCODE >> 8);
+        data[dataOffset + 1] = (byte) FINGERPRINT_STARTCODE;
+        data[dataOffset + 2] = 0xFFFFFFFF >> 24;
+        data[dataOffset + 3] = 0xFFFFFFFF >> 16;
+        data[dataOffset + 4] = 0xFFFFFFFF >> 8;
+        data[dataOffset + 5] = 0xFFFFFFFF;
+        data[dataOffset + 6] = packetType;
+        data[dataOffset + 7] = (byte) (length >> 8);
+        data[dataOffset + 8] = (byte) length;
+
+        int sum = (length >> 8) + (length & 0xFF) + packetType;
+        for (int i = 0; i < count; i++) {
+            data[dataOffset + 9 + i] = packet[offset + i];
+            sum += ((int) packet[offset + i]) & 0xFF;
         }
+
+        data[dataOffset + 9 + count] = (byte) (sum >> 8);
+        data[dataOffset + 10 + count] = (byte) (sum & 0xFF);
+        return count + 11;
     }
 
-    public void waitForInputAvailable(int index) throws IOException, FingerprintException {
-        int timer = 0;
-        while (input.available() == 0) {
-            try {
-                Thread.sleep(5);
-            } catch (InterruptedException ignore) {
-            }
-            timer++;
-            if (timer >= 150) {
-                throw new FingerprintException("Timeout at index " + index, "sensor.not.responding");
-            }
-        }
+    private byte[] getReply() throws FingerprintException {
+        decoder.readPacket();
+        return decoder.copyPacket();
     }
 
     private static final char[] hexArray = "0123456789ABCDEF".toCharArray();
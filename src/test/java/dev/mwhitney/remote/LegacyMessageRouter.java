@@ -0,0 +1,97 @@
+package dev.mwhitney.remote;
+
+import java.util.function.Consumer;
+
+import dev.mwhitney.enums.RemoteCMD;
+import dev.mwhitney.listeners.MessageListener;
+
+/**
+ *
+ * A copy of the text message parsing the <tt>RemoteClient</tt> did before the <tt>RemoteCommandRouter</tt>, with <code>trim()</code>, <code>startsWith()</code> and <code>replaceFirst()</code>.
+ * It is kept as the baseline the router is measured and checked against, and is not used by the application.
+ * <p>	<b>Note:</b> The only change from the original is that each command is passed on with a <tt>CommandAck</tt>, as the <tt>MessageListener</tt> now requires one.
+ * 		The original knew neither request IDs nor the <code>STATS</code> command.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class LegacyMessageRouter {
+
+	/** A <tt>Consumer</tt> given every <tt>CommandAck</tt> once it is completed. */
+	private final Consumer<CommandAck> ackHandler;
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>LegacyMessageRouter</i></b>
+	 * <p>	<code>public LegacyMessageRouter(Consumer{@literal<CommandAck>} ackHandler)</code>
+	 * <p>	Creates a new <tt>LegacyMessageRouter</tt>.
+	 * @param ackHandler - a <tt>Consumer</tt> given the <tt>CommandAck</tt> of every routed command once it is completed.
+	 * </ul>
+	 */
+	public LegacyMessageRouter(Consumer<CommandAck> ackHandler) {
+		this.ackHandler = ackHandler;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>route</i></b>
+	 * <p>	<code>public void route(String message, MessageListener listener)</code>
+	 * <p>	Parses the passed message and fires the appropriate method of the passed listener, as the original <code>onTextMessage</code> did.
+	 * 		Commands without arguments are passed <code>null</code> arguments, and a bare <code>!security:unlock</code> is passed one empty <tt>String</tt>.
+	 * @param message - a <tt>String</tt> with the message received from the server.
+	 * @param listener - the <tt>MessageListener</tt> to fire.
+	 * </ul>
+	 */
+	public void route(String message, MessageListener listener) {
+		final long receivedTime = System.nanoTime();
+		//	Fire the appropriate listener method based on the received message's type.
+		message = message.trim();
+		if(message.startsWith("#broadcast")) {
+			listener.broadcastReceived(message.replaceFirst("#broadcast=", "").trim());
+		}
+		else if(message.startsWith("#command")) {
+			//	Message and Variable Preparation
+			message = message.replaceFirst("#command=", "").trim();
+			RemoteCMD command = null;
+			String[] args = null;
+
+			//	Command Handling
+			if(message.equals("!security:lock")) {
+				command = RemoteCMD.LOCK;
+			}
+			else if(message.startsWith("!security:unlock")) {
+				command = RemoteCMD.UNLOCK;
+				args = message.replaceFirst("!security:unlock", "").trim().split(" ");
+			}
+			else if(message.equals("!security:system:lock")) {
+				command = RemoteCMD.SYSTEM_LOCK;
+			}
+			else if(message.equals("!security:system:unlock")) {
+				command = RemoteCMD.SYSTEM_UNLOCK;
+			}
+			else if(message.equals("!security:manualunlocks:enable")) {
+				command = RemoteCMD.MANUALUNLOCKS_ENABLE;
+			}
+			else if(message.equals("!security:manualunlocks:disable")) {
+				command = RemoteCMD.MANUALUNLOCKS_DISABLE;
+			}
+			else {
+				command = RemoteCMD.UNRECOGNIZED;
+				if(message.length() > 40) message = message.substring(0, 39).concat("...");
+				System.out.println("<!> Unrecognized Command Received from Server: " + message);
+			}
+
+			//	Forward Command and Arguments
+			listener.commandReceived(command, args, new CommandAck(0, command, receivedTime, ackHandler));
+		}
+		else if(message.startsWith("#connection")) {
+			listener.connectionMessageReceived(message.replaceFirst("#connection=", "").trim());
+		}
+		else if(message.startsWith("#response")) {
+			listener.responseMessageReceived(message.replaceFirst("#response=", "").trim());
+		}
+		else {
+			listener.messageReceived(message);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package dev.mwhitney.remote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.mwhitney.enums.RemoteCMD;
+import dev.mwhitney.listeners.MessageListener;
+
+/**
+ *
+ * Tests that the <tt>RemoteCommandRouter</tt> fires the same listener methods, with the same content, as the <tt>LegacyMessageRouter</tt> it replaced.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class RemoteCommandRouterTest {
+
+	/** An array of <tt>String</tt>s with every message the server sent before request IDs, with and without surrounding whitespace. */
+	private static final String[] MESSAGES = {
+			"#command=!security:lock",
+			"#command=!security:unlock",
+			"#command=!security:unlock 5",
+			"  #command= !security:unlock 30 \n",
+			"#command=!security:system:lock",
+			"#command=!security:system:unlock",
+			"#command=!security:manualunlocks:enable",
+			"#command=!security:manualunlocks:disable",
+			"#command=!security:reboot now",
+			"#broadcast=The door was unlocked.",
+			" #broadcast= Welcome home ",
+			"#connection=keep-alive",
+			"#response=Registered.",
+			"Hello there.",
+	};
+
+	@Test
+	public void routesLikeLegacyParser() {
+		final RemoteCommandRouter router = new RemoteCommandRouter(ack -> {});
+		final LegacyMessageRouter legacyRouter = new LegacyMessageRouter(ack -> {});
+		for(String message : MESSAGES) {
+			final List<String> routed = new ArrayList<String>();
+			final List<String> legacyRouted = new ArrayList<String>();
+			router.route(message, new RecordingListener(routed));
+			legacyRouter.route(message, new RecordingListener(legacyRouted));
+			assertEquals(legacyRouted, routed, "Routed differently: " + message);
+		}
+	}
+
+	/**
+	 *
+	 * A <tt>MessageListener</tt> which records each fired method and its content.
+	 * The legacy parser passed <code>null</code> or one empty <tt>String</tt> for commands without arguments, where the router passes an empty array,
+	 * so all three are recorded alike.
+	 *
+	 */
+	private static class RecordingListener implements MessageListener {
+
+		/** The <tt>List</tt> of recorded methods and content. */
+		private final List<String> record;
+
+		/**
+		 * <ul>
+		 * <p>	<b><i>RecordingListener</i></b>
+		 * <p>	<code>private RecordingListener(List{@literal<String>} record)</code>
+		 * <p>	Creates a new <tt>RecordingListener</tt> which adds to the passed <tt>List</tt>.
+		 * @param record - the <tt>List</tt> to add each fired method and its content to.
+		 * </ul>
+		 */
+		private RecordingListener(List<String> record) {
+			this.record = record;
+		}
+
+		@Override
+		public void messageReceived(String message) {
+			record.add("message " + message);
+		}
+
+		@Override
+		public void broadcastReceived(String broadcastMessage) {
+			record.add("broadcast " + broadcastMessage);
+		}
+
+		@Override
+		public void commandReceived(RemoteCMD command, String[] args, CommandAck ack) {
+			final boolean noArgs = args == null || args.length == 0 || (args.length == 1 && args[0].isEmpty());
+			record.add("command " + command + " " + (noArgs ? "[]" : Arrays.toString(args)));
+		}
+
+		@Override
+		public void connectionMessageReceived(String connectionMessage) {
+			record.add("connection " + connectionMessage);
+		}
+
+		@Override
+		public void responseMessageReceived(String responseMessage) {
+			record.add("response " + responseMessage);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package dev.mwhitney.remote;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import dev.mwhitney.enums.CommandOutcome;
+import dev.mwhitney.enums.RemoteCMD;
+import dev.mwhitney.enums.RemoteMessageType;
+
+/**
+ *
+ * Tests that <tt>RemoteFrame</tt>s survive encoding and decoding, and are smaller than the text messages they replace.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class RemoteFrameTest {
+
+	@Test
+	public void encodesCommandAsTagAndArguments() {
+		final byte[] data = new RemoteFrame(42, RemoteCMD.UNLOCK, 5).encode();
+		//	Sent as text, this is "#command=42 !security:unlock 5", 30 bytes.
+		assertEquals(4, data.length);
+
+		final RemoteFrame frame = RemoteFrame.decode(data);
+		assertEquals(RemoteMessageType.COMMAND, frame.getType());
+		assertEquals(42, frame.getRequestId());
+		assertEquals(RemoteCMD.UNLOCK, frame.getCommand());
+		assertArrayEquals(new long[] { 5 }, frame.getValues());
+		assertEquals("!security:unlock 5", frame.getText());
+	}
+
+	@Test
+	public void encodesAckAsOutcomeAndTimes() {
+		final byte[] data = new RemoteFrame(42, CommandOutcome.DONE, 1250, 1180, 70).encode();
+		//	Sent as text, this is "#ack=42 DONE total=1250 queue=1180 relay=70", 43 bytes.
+		assertEquals(9, data.length);
+
+		final RemoteFrame frame = RemoteFrame.decode(data);
+		assertEquals(RemoteMessageType.ACK, frame.getType());
+		assertEquals(CommandOutcome.DONE, frame.getOutcome());
+		assertArrayEquals(new long[] { 1250, 1180, 70 }, frame.getValues());
+
+		//	Times which do not apply are -1, and large IDs take more than one byte.
+		final RemoteFrame rejected = RemoteFrame.decode(new RemoteFrame(Integer.MAX_VALUE, CommandOutcome.REJECTED, 15, -1, -1).encode());
+		assertEquals(Integer.MAX_VALUE, rejected.getRequestId());
+		assertEquals("REJECTED total=15 queue=-1 relay=-1", rejected.getText());
+	}
+
+	@Test
+	public void encodesOtherTypesAsText() {
+		final byte[] data = new RemoteFrame(RemoteMessageType.CONNECTION, 1, "keep-alive").encode();
+		//	Sent as text, this is "#connection=keep-alive", 22 bytes.
+		assertEquals(12, data.length);
+
+		final RemoteFrame frame = RemoteFrame.decode(data);
+		assertEquals(RemoteMessageType.CONNECTION, frame.getType());
+		assertEquals("keep-alive", frame.getText());
+		assertEquals(0, frame.getValues().length);
+		assertThrows(IllegalArgumentException.class, () -> new RemoteFrame(RemoteMessageType.COMMAND, 1, "!security:lock"));
+	}
+
+	@Test
+	public void decodesUnknownCommandAsUnrecognized() {
+		final byte[] data = new RemoteFrame(7, RemoteCMD.LOCK).encode();
+		data[2] = 99;
+		final RemoteFrame frame = RemoteFrame.decode(data);
+		assertEquals(RemoteCMD.UNRECOGNIZED, frame.getCommand());
+		assertEquals(7, frame.getRequestId());
+	}
+
+	@Test
+	public void rejectsMalformedFrames() {
+		final byte[] data = new RemoteFrame(300, RemoteCMD.UNLOCK, 5).encode();
+		assertThrows(IllegalArgumentException.class, () -> RemoteFrame.decode(new byte[0]));
+		//	Cut off inside the two-byte request ID.
+		assertThrows(IllegalArgumentException.class, () -> RemoteFrame.decode(Arrays.copyOf(data, 2)));
+		//	Another version.
+		data[0] = (byte) (1 << 4 | data[0] & 0x0F);
+		assertThrows(IllegalArgumentException.class, () -> RemoteFrame.decode(data));
+	}
+}
@@ -0,0 +1,188 @@
+package dev.mwhitney.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sk.mimac.fingerprint.adafruit.AdafruitSensorEmulator.fingerModel;
+
+import java.awt.Dimension;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import dev.mwhitney.enums.ScanState;
+import dev.mwhitney.main.NotificationPopup;
+import sk.mimac.fingerprint.adafruit.AdafruitConstants;
+import sk.mimac.fingerprint.adafruit.AdafruitSensor;
+import sk.mimac.fingerprint.adafruit.AdafruitSensorEmulator;
+
+/**
+ *
+ * Tests the <tt>FingerprintScanner</tt> against an <tt>AdafruitSensorEmulator</tt>, through registration, scanning and removal,
+ * including replies that arrive corrupted or not at all.
+ *
+ * @author Matthew Whitney
+ *
+ */
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+public class FingerprintScannerEmulatorTest {
+
+	/** A <code>long</code> for how long the emulator takes to search, in milliseconds, so the registration's matching state can be observed. */
+	private static final long SEARCH_LATENCY = 300;
+
+	/** The <tt>AdafruitSensorEmulator</tt> standing in for the fingerprint scanner. */
+	private AdafruitSensorEmulator emulator;
+	/** The <tt>AdafruitSensor</tt> talking to the emulator. */
+	private AdafruitSensor sensor;
+	/** The <tt>FingerprintScanner</tt> under test. */
+	private FingerprintScanner scanner;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		emulator = new AdafruitSensorEmulator();
+		emulator.start();
+		sensor = emulator.createSensor();
+		scanner = new FingerprintScanner(sensor);
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		scanner.disconnectSensor();
+		emulator.close();
+	}
+
+	@Test
+	public void registersScansAndRemovesFingerprint() throws Exception {
+		final byte[] finger = fingerModel(1);
+		final Entry<Integer, byte[]> registered = register(scanner, emulator, finger);
+		assertNotNull(registered, "Registration failed");
+		assertArrayEquals(finger, registered.getValue(), "Registered model differs from the finger");
+		final int fingerID = registered.getKey();
+		final int page = scanner.getFingerprintPages().get(fingerID);
+		assertArrayEquals(finger, emulator.getLibrary().get(page), "Model was not stored on the sensor");
+
+		emulator.placeFinger(finger);
+		assertEquals(fingerID, scanner.scanFingerprint(null));
+		emulator.placeFinger(fingerModel(2));
+		assertEquals(-1, scanner.scanFingerprint(null));
+
+		assertTrue(scanner.removeFingerprint(fingerID));
+		assertFalse(emulator.getLibrary().containsKey(page), "Model was not deleted from the sensor");
+		emulator.placeFinger(finger);
+		assertEquals(-1, scanner.scanFingerprint(null));
+	}
+
+	@Test
+	public void recoversFromCorruptedReply() {
+		final byte[] finger = fingerModel(3);
+		store(scanner, emulator, 7, finger);
+
+		emulator.placeFinger(finger);
+		emulator.setCorruptRate(1);
+		assertEquals(-1, scanner.scanFingerprint(null));
+		assertTrue(sensor.getCorruptPacketCount() > 0, "Corrupted reply was not detected by its checksum");
+
+		emulator.setCorruptRate(0);
+		assertEquals(7, scanner.scanFingerprint(null));
+	}
+
+	@Test
+	public void recoversFromDroppedReply() {
+		final byte[] finger = fingerModel(4);
+		store(scanner, emulator, 9, finger);
+
+		emulator.placeFinger(finger);
+		emulator.setDropRate(1);
+		assertEquals(-1, scanner.scanFingerprint(null));
+
+		emulator.setDropRate(0);
+		assertEquals(9, scanner.scanFingerprint(null));
+	}
+
+	@Test
+	public void keepsSeparateSensorsPerScanner() throws IOException {
+		final AdafruitSensorEmulator otherEmulator = new AdafruitSensorEmulator();
+		otherEmulator.start();
+		final FingerprintScanner otherScanner = new FingerprintScanner(otherEmulator.createSensor());
+		try {
+			store(scanner, emulator, 1, fingerModel(5));
+			store(otherScanner, otherEmulator, 2, fingerModel(6));
+
+			emulator.placeFinger(fingerModel(5));
+			otherEmulator.placeFinger(fingerModel(6));
+			assertEquals(1, scanner.scanFingerprint(null));
+			assertEquals(2, otherScanner.scanFingerprint(null));
+		} finally {
+			otherScanner.disconnectSensor();
+			otherEmulator.close();
+		}
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>register</i></b>
+	 * <p>	<code>private static Entry{@literal<Integer, byte[]>} register(FingerprintScanner scanner, AdafruitSensorEmulator emulator, byte[] finger)</code>
+	 * <p>	Registers the passed finger, placing it for the first scan, lifting it once the scan is being matched, then placing it again.
+	 * @param scanner - the <tt>FingerprintScanner</tt> to register with.
+	 * @param emulator - the <tt>AdafruitSensorEmulator</tt> behind the scanner.
+	 * @param finger - a <code>byte[]</code> array with the finger's model.
+	 * @return the registered fingerprint's ID number and model, or <code>null</code> if registration failed.
+	 * </ul>
+	 */
+	private static Entry<Integer, byte[]> register(FingerprintScanner scanner, AdafruitSensorEmulator emulator, byte[] finger) throws Exception {
+		final NotificationPopup popup = new NotificationPopup(new Dimension(800, 480), "", new Dimension(400, 200), 0, false);
+		emulator.setLatency(AdafruitConstants.FINGERPRINT_HISPEEDSEARCH, SEARCH_LATENCY);
+		emulator.placeFinger(finger);
+		final CompletableFuture<Entry<Integer, byte[]>> registration = CompletableFuture.supplyAsync(() -> scanner.registerFingerprint(popup));
+
+		awaitState(scanner, ScanState.MATCHING);
+		emulator.removeFinger();
+		awaitState(scanner, ScanState.WAITING);
+		Thread.sleep(200);
+		emulator.placeFinger(finger);
+
+		final Entry<Integer, byte[]> registered = registration.get();
+		emulator.setLatency(AdafruitConstants.FINGERPRINT_HISPEEDSEARCH, 0);
+		return registered;
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>store</i></b>
+	 * <p>	<code>private static void store(FingerprintScanner scanner, AdafruitSensorEmulator emulator, int fingerID, byte[] finger)</code>
+	 * <p>	Registers the passed finger under the passed ID by uploading its model, as done when models are loaded from file.
+	 * @param scanner - the <tt>FingerprintScanner</tt> to register with.
+	 * @param emulator - the <tt>AdafruitSensorEmulator</tt> behind the scanner.
+	 * @param fingerID - an <code>int</code> for the ID number of the fingerprint.
+	 * @param finger - a <code>byte[]</code> array with the finger's model.
+	 * </ul>
+	 */
+	private static void store(FingerprintScanner scanner, AdafruitSensorEmulator emulator, int fingerID, byte[] finger) {
+		assertTrue(scanner.uploadFingerprintModels(Collections.singletonMap(fingerID, finger)), "Upload failed");
+		assertArrayEquals(finger, emulator.getLibrary().get(scanner.getFingerprintPages().get(fingerID)), "Model was not stored on the sensor");
+	}
+
+	/**
+	 * <ul>
+	 * <p>	<b><i>awaitState</i></b>
+	 * <p>	<code>private static void awaitState(FingerprintScanner scanner, ScanState state)</code>
+	 * <p>	Waits until the scanner's current scan reaches the passed state.
+	 * @param scanner - the <tt>FingerprintScanner</tt> running the scan.
+	 * @param state - the <tt>ScanState</tt> to wait for.
+	 * </ul>
+	 */
+	private static void awaitState(FingerprintScanner scanner, ScanState state) throws InterruptedException {
+		while(scanner.getScanState() != state) {
+			Thread.sleep(5);
+		}
+	}
+}
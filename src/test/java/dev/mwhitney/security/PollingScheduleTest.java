@@ -0,0 +1,35 @@
+package dev.mwhitney.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * Tests the <tt>PollingSchedule</tt>'s backoff and its rejection of settings that would make the poller busy-loop.
+ *
+ * @author Matthew Whitney
+ *
+ */
+public class PollingScheduleTest {
+
+	@Test
+	public void backsOffUpToLargestInterval() {
+		final PollingSchedule schedule = new PollingSchedule(20, 320, 2, 0);
+		final long[] expected = { 20, 40, 80, 160, 320, 320 };
+		for(long interval : expected) {
+			assertEquals(interval, schedule.nextInterval());
+		}
+		schedule.reset();
+		assertEquals(20, schedule.nextInterval());
+	}
+
+	@Test
+	public void rejectsBackoffThatIsNotFinite() {
+		//	As read from a PollBackoff setting of "NaN".
+		assertThrows(IllegalArgumentException.class, () -> new PollingSchedule(20, 320, Double.parseDouble("NaN"), 1000));
+		assertThrows(IllegalArgumentException.class, () -> new PollingSchedule(20, 320, Double.POSITIVE_INFINITY, 1000));
+		assertThrows(IllegalArgumentException.class, () -> new PollingSchedule(20, 320, 0.5, 1000));
+	}
+}
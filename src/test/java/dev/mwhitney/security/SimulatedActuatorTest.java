@@ -0,0 +1,107 @@
+package dev.mwhitney.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import dev.mwhitney.security.SimulatedActuator.Transition;
+
+/**
+ *
+ * Tests the <tt>RelayLock</tt> against a <tt>SimulatedActuator</tt>, checking that relay requests are carried out in order and quickly.
+ *
+ * @author Matthew Whitney
+ *
+ */
+@Timeout(value = 10, unit = TimeUnit.SECONDS)
+public class SimulatedActuatorTest {
+
+	/** An <code>int</code> for the number of open cycles run through the relay. */
+	private static final int CYCLES = 200;
+	/** A <code>long</code> for the longest a simulated relay switch may take, in microseconds. Generous, since the simulated switch only records a timestamp. */
+	private static final long MAX_SWITCH_TIME = 50000;
+
+	@Test
+	public void switchesRelayInRequestOrder() {
+		final SimulatedActuator actuator = new SimulatedActuator();
+		final RelayLock relayLock = new RelayLock(actuator);
+		final List<CompletableFuture<Long>> switches = new ArrayList<CompletableFuture<Long>>();
+		for(int cycle = 0; cycle < CYCLES; cycle++) {
+			switches.add(relayLock.activateRelay());
+			switches.add(relayLock.deactivateRelay());
+		}
+		CompletableFuture.allOf(switches.toArray(new CompletableFuture<?>[0])).join();
+
+		final List<Transition> transitions = actuator.getTransitions();
+		assertEquals(2 * CYCLES, transitions.size());
+		for(int i = 0; i < transitions.size(); i++) {
+			assertEquals(i % 2 == 0, transitions.get(i).isActive(), "Transition " + i + " is out of order");
+			if(i > 0) {
+				assertTrue(transitions.get(i).getTime() >= transitions.get(i - 1).getTime(), "Transition " + i + " happened before the one requested earlier");
+			}
+		}
+		relayLock.prepareForShutdown();
+		assertFalse(actuator.isActive());
+	}
+
+	@Test
+	public void reportsActuationLatency() {
+		final SimulatedActuator actuator = new SimulatedActuator();
+		final RelayLock relayLock = new RelayLock(actuator);
+		for(int cycle = 0; cycle < CYCLES; cycle++) {
+			final long activation = relayLock.activateRelay().join();
+			final long deactivation = relayLock.deactivateRelay().join();
+			assertTrue(activation >= 0 && activation < MAX_SWITCH_TIME, "Activation took " + activation + " us");
+			assertTrue(deactivation >= 0 && deactivation < MAX_SWITCH_TIME, "Deactivation took " + deactivation + " us");
+		}
+		assertTrue(relayLock.getFirstActivationLatency() >= 0);
+		relayLock.prepareForShutdown();
+	}
+
+	@Test
+	public void reportsUncheckedActuatorFailure() {
+		//	GPIO libraries such as Pi4J fail with unchecked exceptions.
+		final SimulatedActuator actuator = new SimulatedActuator() {
+			@Override
+			public void activate() {
+				throw new IllegalStateException("GPIO failure");
+			}
+		};
+		final RelayLock relayLock = new RelayLock(actuator);
+		final CompletionException failure = assertThrows(CompletionException.class, () -> relayLock.activateRelay().join());
+		assertTrue(failure.getCause() instanceof IllegalStateException, "Unexpected failure " + failure.getCause());
+
+		//	The relay's thread keeps handling requests after the failure.
+		assertTrue(relayLock.deactivateRelay().join() >= 0);
+		relayLock.prepareForShutdown();
+	}
+
+	@Test
+	public void keepsOnlyRecentTransitions() {
+		final SimulatedActuator actuator = new SimulatedActuator();
+		for(int i = 0; i < SimulatedActuator.MAX_TRANSITIONS + 11; i++) {
+			if(i % 2 == 0) {
+				actuator.activate();
+			}
+			else {
+				actuator.deactivate();
+			}
+		}
+		final List<Transition> transitions = actuator.getTransitions();
+		assertEquals(SimulatedActuator.MAX_TRANSITIONS, transitions.size());
+		assertTrue(transitions.get(transitions.size() - 1).isActive());
+
+		actuator.clearTransitions();
+		assertTrue(actuator.getTransitions().isEmpty());
+	}
+}
@@ -0,0 +1,600 @@
+package sk.mimac.fingerprint.adafruit;
+
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_ACKPACKET;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_BADLOCATION;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_COMMANDPACKET;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_DATAPACKET;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_DELETE;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_DOWNLOAD;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_EMPTY;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_ENDDATAPACKET;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_ENROLLMISMATCH;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_FEATUREFAIL;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_GETIMAGE;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_HISPEEDSEARCH;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_IMAGE2TZ;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_INVALIDREG;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_LOAD;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_NOFINGER;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_NOTFOUND;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_OK;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_PACKETRECIEVEERR;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_PASSFAIL;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_READ_INDEX_TABLE;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_READ_SYS_PARAM;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_REGMODEL;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_SET_SYS_PARAM;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_STORE;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_TEMPLATECOUNT;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_UPLOAD;
+import static sk.mimac.fingerprint.adafruit.AdafruitConstants.FINGERPRINT_VERIFYPASSWORD;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.*;
+import sk.mimac.fingerprint.FingerprintException;
+
+/**
+ * Software stand-in for the ZFM fingerprint sensor, speaking the same wire
+ * protocol as {@link AdafruitSensor}. Commands are decoded from the input
+ * stream and answered on the output stream by a background thread, so the
+ * whole authentication pipeline can be run and timed without hardware.
+ * <p>
+ * The emulator runs either over in-memory pipes, with the host side created
+ * by {@link #createSensor()}, or over any pair of streams, such as one end of
+ * a pseudo-terminal pair created by
+ * {@code socat pty,raw,echo=0,link=/tmp/ttyEMU0 pty,raw,echo=0,link=/tmp/ttyEMU1}.
+ * The sensor is then opened on the other end, which RXTX may only list when
+ * it is passed in the {@code gnu.io.rxtx.SerialPorts} system property.
+ * Writes to the in-memory pipes notify the decoder at the other end, as
+ * serial port events do, so neither side polls them. Other streams are
+ * polled.
+ * <p>
+ * Fingers are placed and removed with {@link #placeFinger(byte[])} and
+ * {@link #removeFinger()}. A finger is represented by its 512 byte model,
+ * and a search matches stored models equal to it. Latency can be added to
+ * each command, and replies can be replaced by an error code, dropped or
+ * corrupted with given probabilities. Random decisions use a seeded
+ * generator, so runs are repeatable.
+ * <p>
+ * The emulator is kept with the tests, so it isn't shipped in the
+ * application. The benchmarks use it through the project's test jar.
+ *
+ * @author Matthew Whitney
+ */
+public class AdafruitSensorEmulator implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdafruitSensorEmulator.class);
+
+    /** Length of fingerprint model kept in character buffers and library. */
+    public static final int MODEL_LENGTH = 512;
+    /** Length of data in one packet of the model. */
+    private static final int MODEL_PACKET_LENGTH = 128;
+    /** Size of in-memory pipe buffers, enough for a model with store command. */
+    private static final int PIPE_SIZE = 4096;
+
+    private final InputStream input;
+    private final OutputStream output;
+    private final InputStream hostInput;
+    private final OutputStream hostOutput;
+    private final AdafruitFrameDecoder decoder;
+    private final Thread thread;
+    private volatile AdafruitSensor sensor;
+
+    private final Map<Integer, byte[]> library = new ConcurrentHashMap<>();
+    private final byte[][] charBuffers = {new byte[MODEL_LENGTH], new byte[MODEL_LENGTH]};
+    private volatile byte[] finger;
+    private byte[] image;
+    private volatile int librarySize = 256;
+    private volatile int securityLevel = 3;
+    private volatile int baudMultiplier = 6;
+    private volatile int matchConfidence = 100;
+
+    private final Map<Integer, Long> latencies = new ConcurrentHashMap<>();
+    private final Map<Integer, Fault> faults = new ConcurrentHashMap<>();
+    private final Random random = new Random(0);
+    private volatile double dropRate;
+    private volatile double corruptRate;
+    private volatile long commandCount;
+
+    /**
+     * Construct emulator connected to the host through in-memory pipes. The
+     * sensor talking to it is created by {@link #createSensor()}.
+     *
+     * @throws IOException if the pipes can't be connected
+     */
+    public AdafruitSensorEmulator() throws IOException {
+        PipedInputStream commands = new PipedInputStream(PIPE_SIZE);
+        PipedInputStream replies = new PipedInputStream(PIPE_SIZE);
+        this.input = commands;
+        this.decoder = new AdafruitFrameDecoder(input);
+        this.decoder.setEventDriven(true);
+        this.output = new NotifyingOutputStream(new PipedOutputStream(replies), () -> {
+            AdafruitSensor current = sensor;
+            if (current != null) {
+                current.dataAvailable();
+            }
+        });
+        this.hostInput = replies;
+        this.hostOutput = new NotifyingOutputStream(new PipedOutputStream(commands), decoder::dataAvailable);
+        this.thread = createThread();
+    }
+
+    /**
+     * Construct emulator reading commands from given stream and writing
+     * replies to the other one, for example both ends of a pseudo-terminal.
+     *
+     * @param input stream with commands from the host
+     * @param output stream for replies to the host
+     */
+    public AdafruitSensorEmulator(InputStream input, OutputStream output) {
+        this.input = input;
+        this.output = output;
+        this.hostInput = null;
+        this.hostOutput = null;
+        this.decoder = new AdafruitFrameDecoder(input);
+        this.thread = createThread();
+    }
+
+    private Thread createThread() {
+        Thread emulatorThread = new Thread(this::run, "AdafruitSensorEmulator");
+        emulatorThread.setDaemon(true);
+        return emulatorThread;
+    }
+
+    /**
+     * Start answering commands on a background thread.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Create sensor connected to this emulator through in-memory pipes. Only
+     * one sensor should be created for an emulator.
+     *
+     * @return sensor which still needs to be connected
+     * @throws IllegalStateException if the emulator wasn't constructed with
+     * in-memory pipes
+     */
+    public AdafruitSensor createSensor() {
+        if (hostInput == null) {
+            throw new IllegalStateException("Emulator isn't connected through in-memory pipes");
+        }
+        sensor = new AdafruitSensor(hostInput, hostOutput);
+        return sensor;
+    }
+
+    /**
+     * Stop answering commands and close the streams.
+     */
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        try {
+            input.close();
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Place finger on the sensor. Following image captures succeed and
+     * extract the given model.
+     *
+     * @param model of the finger, padded or truncated to 512 bytes
+     */
+    public void placeFinger(byte[] model) {
+        finger = Arrays.copyOf(model, MODEL_LENGTH);
+    }
+
+    /**
+     * Remove finger from the sensor.
+     */
+    public void removeFinger() {
+        finger = null;
+    }
+
+    /**
+     * Create model of an emulated finger, for placing it on the sensor or
+     * storing it. Different seeds give different fingers.
+     *
+     * @param seed telling the finger apart from others
+     * @return 512 byte model of the finger
+     */
+    public static byte[] fingerModel(int seed) {
+        byte[] model = new byte[MODEL_LENGTH];
+        Arrays.fill(model, (byte) seed);
+        model[0] = (byte) 0x03;
+        return model;
+    }
+
+    /**
+     * @return copy of models stored in the library, mapped by their position
+     */
+    public Map<Integer, byte[]> getLibrary() {
+        Map<Integer, byte[]> copy = new TreeMap<>();
+        library.forEach((page, model) -> copy.put(page, model.clone()));
+        return copy;
+    }
+
+    /**
+     * Store model in the library directly, without any commands.
+     *
+     * @param page position in the library
+     * @param model of the fingerprint, padded or truncated to 512 bytes
+     */
+    public void storeModel(int page, byte[] model) {
+        library.put(page, Arrays.copyOf(model, MODEL_LENGTH));
+    }
+
+    /**
+     * @param librarySize number of models the library can hold (default 256)
+     */
+    public void setLibrarySize(int librarySize) {
+        this.librarySize = librarySize;
+    }
+
+    /**
+     * @param matchConfidence confidence reported for every match (default 100)
+     */
+    public void setMatchConfidence(int matchConfidence) {
+        this.matchConfidence = matchConfidence;
+    }
+
+    /**
+     * @return security level last set by the host (default 3)
+     */
+    public int getSecurityLevel() {
+        return securityLevel;
+    }
+
+    /**
+     * @return baud rate last set by the host (default 57600)
+     */
+    public int getBaudRate() {
+        return baudMultiplier * 9600;
+    }
+
+    /**
+     * Delay replies to given command, simulating time the sensor spends
+     * processing it.
+     *
+     * @param command instruction code from {@link AdafruitConstants}
+     * @param millis delay before the reply, 0 to reply right away
+     */
+    public void setLatency(int command, long millis) {
+        if (millis > 0) {
+            latencies.put(command, millis);
+        } else {
+            latencies.remove(command);
+        }
+    }
+
+    /**
+     * Fail given command with an error code instead of executing it.
+     *
+     * @param command instruction code from {@link AdafruitConstants}
+     * @param code confirmation code sent in the reply
+     * @param probability of failing each command, from 0 to 1
+     */
+    public void setFault(int command, int code, double probability) {
+        faults.put(command, new Fault(code, probability));
+    }
+
+    /**
+     * Stop failing given command.
+     *
+     * @param command instruction code from {@link AdafruitConstants}
+     */
+    public void clearFault(int command) {
+        faults.remove(command);
+    }
+
+    /**
+     * @param dropRate probability of sending no reply at all, from 0 to 1
+     */
+    public void setDropRate(double dropRate) {
+        this.dropRate = dropRate;
+    }
+
+    /**
+     * @param corruptRate probability of sending reply with wrong checksum,
+     * from 0 to 1
+     */
+    public void setCorruptRate(double corruptRate) {
+        this.corruptRate = corruptRate;
+    }
+
+    /**
+     * @param seed for the generator deciding which replies are failed,
+     * dropped or corrupted
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * @return number of commands received since the emulator was started
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                decoder.readPacket();
+            } catch (FingerprintException ex) {
+                if ("sensor.not.responding".equals(ex.getKey())) {
+                    // No command in a while, keep waiting
+                    continue;
+                }
+                if (!"sensor.interrupted".equals(ex.getKey())) {
+                    logger.debug("Emulator stopped reading commands: " + ex);
+                }
+                return;
+            }
+            byte[] packet = decoder.copyPacket();
+            if (packet[0] != FINGERPRINT_COMMANDPACKET || packet.length < 2) {
+                logger.debug("Emulator ignored packet of type " + packet[0]);
+                continue;
+            }
+            commandCount++;
+            try {
+                // Missing parameters are read as zero
+                handleCommand(Arrays.copyOf(packet, Math.max(packet.length, 8)));
+            } catch (InterruptedException ex) {
+                return;
+            } catch (IOException ex) {
+                logger.debug("Emulator can't write reply: " + ex);
+                return;
+            }
+        }
+    }
+
+    private void handleCommand(byte[] packet) throws IOException, InterruptedException {
+        int command = packet[1] & 0xFF;
+        Long latency = latencies.get(command);
+        if (latency != null) {
+            TimeUnit.MILLISECONDS.sleep(latency);
+        }
+        Fault fault = faults.get(command);
+        if (fault != null && random.nextDouble() < fault.probability) {
+            reply(FINGERPRINT_ACKPACKET, new byte[]{(byte) fault.code});
+            return;
+        }
+        switch (command) {
+            case FINGERPRINT_VERIFYPASSWORD:
+                boolean zero = (packet[2] | packet[3] | packet[4] | packet[5]) == 0;
+                replyCode(zero ? FINGERPRINT_OK : FINGERPRINT_PASSFAIL);
+                break;
+            case FINGERPRINT_GETIMAGE:
+                image = finger;
+                replyCode(image != null ? FINGERPRINT_OK : FINGERPRINT_NOFINGER);
+                break;
+            case FINGERPRINT_IMAGE2TZ:
+                if (image == null) {
+                    replyCode(FINGERPRINT_FEATUREFAIL);
+                } else {
+                    charBuffers[slotIndex(packet[2])] = image.clone();
+                    replyCode(FINGERPRINT_OK);
+                }
+                break;
+            case FINGERPRINT_REGMODEL:
+                if (Arrays.equals(charBuffers[0], charBuffers[1])) {
+                    replyCode(FINGERPRINT_OK);
+                } else {
+                    replyCode(FINGERPRINT_ENROLLMISMATCH);
+                }
+                break;
+            case FINGERPRINT_HISPEEDSEARCH:
+                search(charBuffers[slotIndex(packet[2])], readShort(packet, 3), readShort(packet, 5));
+                break;
+            case FINGERPRINT_STORE:
+                int storePage = readShort(packet, 3);
+                if (storePage >= librarySize) {
+                    replyCode(FINGERPRINT_BADLOCATION);
+                } else {
+                    library.put(storePage, charBuffers[slotIndex(packet[2])].clone());
+                    replyCode(FINGERPRINT_OK);
+                }
+                break;
+            case FINGERPRINT_LOAD:
+                byte[] loaded = library.get(readShort(packet, 3));
+                if (loaded == null) {
+                    replyCode(FINGERPRINT_BADLOCATION);
+                } else {
+                    charBuffers[slotIndex(packet[2])] = loaded.clone();
+                    replyCode(FINGERPRINT_OK);
+                }
+                break;
+            case FINGERPRINT_UPLOAD:
+                upload(charBuffers[slotIndex(packet[2])]);
+                break;
+            case FINGERPRINT_DOWNLOAD:
+                download(slotIndex(packet[2]));
+                break;
+            case FINGERPRINT_DELETE:
+                int deletePage = readShort(packet, 2);
+                int deleteCount = readShort(packet, 4);
+                if (deletePage + deleteCount > librarySize) {
+                    replyCode(FINGERPRINT_BADLOCATION);
+                } else {
+                    for (int page = deletePage; page < deletePage + deleteCount; page++) {
+                        library.remove(page);
+                    }
+                    replyCode(FINGERPRINT_OK);
+                }
+                break;
+            case FINGERPRINT_EMPTY:
+                library.clear();
+                replyCode(FINGERPRINT_OK);
+                break;
+            case FINGERPRINT_SET_SYS_PARAM:
+                setSysParam(packet[2], packet[3] & 0xFF);
+                break;
+            case FINGERPRINT_READ_SYS_PARAM:
+                readSysParam();
+                break;
+            case FINGERPRINT_TEMPLATECOUNT:
+                int count = library.size();
+                reply(FINGERPRINT_ACKPACKET, new byte[]{FINGERPRINT_OK, (byte) (count >> 8), (byte) count});
+                break;
+            case FINGERPRINT_READ_INDEX_TABLE:
+                readIndexTable(packet[2] & 0xFF);
+                break;
+            default:
+                replyCode(FINGERPRINT_PACKETRECIEVEERR);
+        }
+    }
+
+    private void search(byte[] features, int startPage, int count) throws IOException {
+        int endPage = Math.min(startPage + count, librarySize);
+        for (int page = startPage; page < endPage; page++) {
+            if (Arrays.equals(features, library.get(page))) {
+                reply(FINGERPRINT_ACKPACKET, new byte[]{FINGERPRINT_OK, (byte) (page >> 8), (byte) page,
+                    (byte) (matchConfidence >> 8), (byte) matchConfidence});
+                return;
+            }
+        }
+        reply(FINGERPRINT_ACKPACKET, new byte[]{FINGERPRINT_NOTFOUND, 0, 0, 0, 0});
+    }
+
+    private void upload(byte[] model) throws IOException {
+        replyCode(FINGERPRINT_OK);
+        for (int i = 0; i < MODEL_LENGTH; i += MODEL_PACKET_LENGTH) {
+            byte packetType = i + MODEL_PACKET_LENGTH < MODEL_LENGTH ? FINGERPRINT_DATAPACKET : FINGERPRINT_ENDDATAPACKET;
+            reply(packetType, Arrays.copyOfRange(model, i, i + MODEL_PACKET_LENGTH));
+        }
+    }
+
+    private void download(int slot) throws IOException {
+        replyCode(FINGERPRINT_OK);
+        ByteArrayOutputStream model = new ByteArrayOutputStream(MODEL_LENGTH);
+        byte packetType;
+        do {
+            try {
+                decoder.readPacket();
+            } catch (FingerprintException ex) {
+                // Real sensor gives up on the transfer silently, the host times out
+                logger.debug("Emulator didn't receive whole model: " + ex);
+                return;
+            }
+            packetType = decoder.getPacketType();
+            if (packetType != FINGERPRINT_DATAPACKET && packetType != FINGERPRINT_ENDDATAPACKET) {
+                logger.debug("Emulator got packet of type " + packetType + " during download");
+                return;
+            }
+            model.write(decoder.getPacket(), 1, decoder.getPacketLength() - 1);
+        } while (packetType != FINGERPRINT_ENDDATAPACKET);
+        charBuffers[slot] = Arrays.copyOf(model.toByteArray(), MODEL_LENGTH);
+    }
+
+    private void setSysParam(int parameter, int value) throws IOException {
+        if (parameter == 4 && value >= 1 && value <= 12) {
+            // Reply is still sent at the old baud rate
+            replyCode(FINGERPRINT_OK);
+            baudMultiplier = value;
+        } else if (parameter == 5 && value >= 1 && value <= 5) {
+            securityLevel = value;
+            replyCode(FINGERPRINT_OK);
+        } else {
+            replyCode(FINGERPRINT_INVALIDREG);
+        }
+    }
+
+    private void readSysParam() throws IOException {
+        byte[] data = new byte[17];
+        data[0] = FINGERPRINT_OK;
+        // Status register and system ID are left zero
+        data[5] = (byte) (librarySize >> 8);
+        data[6] = (byte) librarySize;
+        data[8] = (byte) securityLevel;
+        data[9] = (byte) 0xFF;
+        data[10] = (byte) 0xFF;
+        data[11] = (byte) 0xFF;
+        data[12] = (byte) 0xFF;
+        // Packet size code 2 means 128 bytes
+        data[14] = 2;
+        data[16] = (byte) baudMultiplier;
+        reply(FINGERPRINT_ACKPACKET, data);
+    }
+
+    private void readIndexTable(int tablePage) throws IOException {
+        byte[] data = new byte[33];
+        data[0] = FINGERPRINT_OK;
+        for (int page : library.keySet()) {
+            int index = page - tablePage * 256;
+            if (index >= 0 && index < 256) {
+                data[1 + index / 8] |= 1 << (index % 8);
+            }
+        }
+        reply(FINGERPRINT_ACKPACKET, data);
+    }
+
+    private static int slotIndex(byte slot) {
+        return slot == 2 ? 1 : 0;
+    }
+
+    private static int readShort(byte[] packet, int offset) {
+        return (packet[offset] & 0xFF) << 8 | packet[offset + 1] & 0xFF;
+    }
+
+    private void replyCode(int code) throws IOException {
+        reply(FINGERPRINT_ACKPACKET, new byte[]{(byte) code});
+    }
+
+    private void reply(byte packetType, byte[] data) throws IOException {
+        if (dropRate > 0 && random.nextDouble() < dropRate) {
+            logger.debug("Emulator dropped reply");
+            return;
+        }
+        byte[] frame = new byte[data.length + 11];
+        AdafruitSensor.encodePacket(packetType, data, 0, data.length, frame, 0);
+        if (corruptRate > 0 && random.nextDouble() < corruptRate) {
+            frame[frame.length - 1] ^= 0xFF;
+        }
+        output.write(frame);
+        output.flush();
+    }
+
+    private static class Fault {
+
+        private final int code;
+        private final double probability;
+
+        private Fault(int code, double probability) {
+            this.code = code;
+            this.probability = probability;
+        }
+    }
+
+    /**
+     * Stream notifying the reader's decoder after every write, in place of
+     * the serial port's data available events.
+     */
+    private static class NotifyingOutputStream extends FilterOutputStream {
+
+        private final Runnable dataAvailable;
+
+        private NotifyingOutputStream(OutputStream output, Runnable dataAvailable) {
+            super(output);
+            this.dataAvailable = dataAvailable;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            dataAvailable.run();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            dataAvailable.run();
+        }
+    }
+}